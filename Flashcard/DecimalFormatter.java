@@ -0,0 +1,160 @@
+/********************************************
+*   AUTHORS:    Jeff Peterson
+*   COLLABORATORS: None
+*   LAST MODIFIED:  05/06/2025
+********************************************/
+
+/********************************************
+*   DecimalFormatter class
+*   Writes a double with a fixed number of decimal places, like String.format("%.5f", x),
+*   but straight into a char[] instead of going through Formatter.
+*   Same class as V3/DecimalFormatter (this program is built on its own, so it keeps a copy).
+********************************************
+*   ROUNDING
+*   Round-half-even on the double's exact value: 0.125 with 2 places is "0.12".
+*   Math.fma gives the rounding error of x * 10^places, which settles the close calls.
+*   NaN prints as "NaN", infinities as "Infinity" / "-Infinity", and -0.0 without a sign.
+*   Very big numbers (x * 10^places >= 2^53) go through BigDecimal instead.
+*********************************************
+UML CLASS DIAGRAM:
+********************************************
+DecimalFormatter
+********************************************
++ MAX_PLACES : int
+- POWERS_OF_TEN : double[]
+- LONG_POWERS_OF_TEN : long[]
+- TWO_TO_53 : double
+********************************************
++ format(value : double, places : int) : String
++ write(value : double, places : int, dest : char[], offset : int) : int
++ maxLength(places : int) : int
+- writeText(text : String, dest : char[], offset : int) : int
+- checkPlaces(places : int) : void
+********************************************/
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class DecimalFormatter {
+
+    /***** CONSTANTS *****/
+
+    /** Most decimal places supported (10^places has to be an exact double and fit in a long) */
+    public static final int MAX_PLACES = 18;
+
+    /** 10^0 through 10^18, all exact as doubles */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+        1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    /** Same, as longs */
+    private static final long[] LONG_POWERS_OF_TEN = {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+        1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+        100000000000000L, 1000000000000000L, 10000000000000000L, 100000000000000000L,
+        1000000000000000000L
+    };
+
+    /** Past this, every double is a whole number and the fast path can't round right */
+    private static final double TWO_TO_53 = 9007199254740992.0;
+
+    /** Private: everything here is static */
+    private DecimalFormatter() {
+    }
+
+    /***** FORMATTING *****/
+
+    /** Returns value with exactly places digits after the point (0 to MAX_PLACES) */
+    public static String format(double value, int places) {
+        char[] buffer = new char[maxLength(places)];
+        int end = write(value, places, buffer, 0);
+        return new String(buffer, 0, end);
+    }
+
+    /**
+     * Writes value with exactly places digits after the point into dest, starting at offset.
+     * dest needs room for maxLength(places) chars. Returns the index just past the last char.
+     */
+    public static int write(double value, int places, char[] dest, int offset) {
+        checkPlaces(places);
+
+        if (Double.isNaN(value)) {
+            return writeText("NaN", dest, offset);
+        }
+        if (Double.isInfinite(value)) {
+            return writeText(value > 0 ? "Infinity" : "-Infinity", dest, offset);
+        }
+
+        double magnitude = Math.abs(value);
+        double scale = POWERS_OF_TEN[places];
+        double scaled = magnitude * scale;
+        if (!(scaled < TWO_TO_53)) {
+            // Too big to round with a long, so let BigDecimal do it
+            String text = new BigDecimal(value).setScale(places, RoundingMode.HALF_EVEN).toPlainString();
+            return writeText(text, dest, offset);
+        }
+
+        // Round magnitude * 10^places to a whole number, half-even.
+        // scaled is that product rounded to a double; error is exactly what rounding lost.
+        double error = Math.fma(magnitude, scale, -scaled);
+        double whole = Math.floor(scaled);
+        double aboveHalf = (scaled - whole) - 0.5; // its sign can only be overturned by error when it's 0
+        long digits = (long) whole;
+        if (aboveHalf > 0 || (aboveHalf == 0 && (error > 0 || (error == 0 && (digits & 1) == 1)))) {
+            digits++;
+        }
+
+        int pos = offset;
+        if (value < 0) { // not for -0.0
+            dest[pos++] = '-';
+        }
+
+        // Whole-number part, then the decimals with leading zeros kept
+        long unit = LONG_POWERS_OF_TEN[places];
+        long intPart = digits / unit;
+        long fracPart = digits % unit;
+
+        int intStart = pos;
+        do {
+            dest[pos++] = (char) ('0' + intPart % 10);
+            intPart /= 10;
+        } while (intPart != 0);
+        for (int i = intStart, j = pos - 1; i < j; i++, j--) { // digits came out backwards
+            char c = dest[i];
+            dest[i] = dest[j];
+            dest[j] = c;
+        }
+
+        if (places > 0) {
+            dest[pos++] = '.';
+            for (int i = pos + places - 1; i >= pos; i--) {
+                dest[i] = (char) ('0' + fracPart % 10);
+                fracPart /= 10;
+            }
+            pos += places;
+        }
+        return pos;
+    }
+
+    /** Most chars write() can need: a sign, 309 digits (Double.MAX_VALUE), the point and the decimals */
+    public static int maxLength(int places) {
+        checkPlaces(places);
+        return 1 + 309 + 1 + places;
+    }
+
+    /***** HELPER METHODS *****/
+
+    /** Copies text into dest at offset and returns the index just past it */
+    private static int writeText(String text, char[] dest, int offset) {
+        text.getChars(0, text.length(), dest, offset);
+        return offset + text.length();
+    }
+
+    /** Rejects a places outside 0 to MAX_PLACES */
+    private static void checkPlaces(int places) {
+        if (places < 0 || places > MAX_PLACES) {
+            throw new IllegalArgumentException("places must be 0 to " + MAX_PLACES + ", got " + places);
+        }
+    }
+}
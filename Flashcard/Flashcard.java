@@ -1,13 +1,17 @@
 /********************************************
 *   AUTHORS:    Jeff Peterson
 *   COLLABORATORS: None
-*   LAST MODIFIED:  05/06/2025
+*   LAST MODIFIED:  05/20/2025
 ********************************************/
 
 /********************************************
 *   Flashcard class
 *   Stores one trig flashcard with function, angle, exact value, and decimal approximation.
-*   Includes constructors, setters, getters, and helper methods for printing and comparing.
+*   Includes constructors, getters, and helper methods for printing and comparing.
+*   A Flashcard can't be changed once it's made, so the 27 cards are built once (DECK)
+*   and shared: getRandomFlashcard hands back a deck card instead of building new ones.
+*   Random picks come from a ShuffleBag (every card once before any repeats) using
+*   this thread's own SplittableRandom, or a seeded one for a repeatable run.
 ********************************************
 *   HOW FLASHCARDS GET THE RIGHT VALUES
 *   As long as the array order stays consistent, each flashcard will be correct.
@@ -23,34 +27,37 @@ Flashcard
 - radian : String
 - exactValue : String
 - approx : double
+- DECK : Flashcard[]
+- THREAD_BAG : ThreadLocal<ShuffleBag>
 ********************************************
 + Flashcard()
 + Flashcard(trigFunction : String, radian : String, exactValue : String, approx : double)
 + Flashcard(original : Flashcard)
-+ setTrigFunction(trigFunction : String) : void
-+ setRadian(radian : String) : void
-+ setExactValue(exactValue : String) : void
-+ setApprox(approx : double) : void
-+ setAll(trigFunction : String, radian : String, exactValue : String, approx : double) : void
 + getTrigFunction() : String
 + getRadian() : String
 + getExactValue() : String
 + getApprox() : double
 + toString() : String
-+ equals(other : Flashcard) : boolean
++ equals(other : Object) : boolean
++ hashCode() : int
 + getDecimalValue(funcIndex : int, angleIndex : int) : double
 + generateFlashcards() : Flashcard[]
+- buildDeck() : Flashcard[]
 + getRandomFlashcard() : Flashcard
++ getRandomFlashcard(bag : ShuffleBag) : Flashcard
++ newBag(random : SplittableRandom) : ShuffleBag
 + displayFlashcards(flashcards : Flashcard[]) : void
 ********************************************/
 
-public class Flashcard {
+import java.util.SplittableRandom;
+
+public final class Flashcard {
 
     /***** INSTANCE VARIABLES *****/
-    private String trigFunction;  // e.g. "Sine"
-    private String radian;        // e.g. "π/4"
-    private String exactValue;    // e.g. "√2/2"
-    private double approx;        // e.g. 0.7071
+    private final String trigFunction;  // e.g. "Sine"
+    private final String radian;        // e.g. "π/4"
+    private final String exactValue;    // e.g. "√2/2"
+    private final double approx;        // e.g. 0.7071
 
     /***** CONSTANT ARRAYS *****/
     public static final String[] TRIG_FUNC = {
@@ -72,66 +79,46 @@ public class Flashcard {
         2 * Math.PI / 3, 3 * Math.PI / 4, 5 * Math.PI / 6, Math.PI
     };
 
+    /** All 27 cards, built once. DECK[funcIndex * 9 + angleIndex] */
+    private static final Flashcard[] DECK = buildDeck();
+
+    /** Each thread's own bag of deck indexes, with its own SplittableRandom (no sharing between threads) */
+    private static final ThreadLocal<ShuffleBag> THREAD_BAG =
+        ThreadLocal.withInitial(() -> newBag(new SplittableRandom()));
+
     /***** CONSTRUCTORS *****/
 
     /**
      * No-argument constructor: Sets default values for a new flashcard
      */
     public Flashcard() {
-        this.setAll("Sine", "2π", "0", 0.0);
+        this("Sine", "2π", "0", 0.0);
     }
 
     /**
      * Full constructor: Creates a flashcard using the given values for function, angle, exact value, and decimal.
      */
     public Flashcard(String trigFunction, String radian, String exactValue, double approx) {
-        this.setAll(trigFunction, radian, exactValue, approx);
+        this.trigFunction = trigFunction;
+        this.radian = radian;
+        this.exactValue = exactValue;
+        this.approx = approx;
     }
 
     /**
-     * Copy constructor: Makes a new flashcard by copying all values from another flashcard.
+     * Copy constructor: Makes a new flashcard with all the values of another flashcard.
      * If the original is null, the program prints an error and exits.
+     * (Flashcards can't change, so sharing the original is fine too.)
      */
     public Flashcard(Flashcard original) {
-        if (original != null) {
-            this.setAll(original.trigFunction, original.radian, original.exactValue, original.approx);
-        } else {
+        if (original == null) {
             System.out.println("ERROR: attempt to copy null Flashcard. Exiting.");
             System.exit(0);
         }
-    }
-
-    /***** SETTERS (mutators) *****/
-
-    /** Sets the trig function name (e.g. "Sine") */
-    public void setTrigFunction(String trigFunction) {
-        this.trigFunction = trigFunction;
-    }
-
-    /** Sets the angle in radians (e.g. "π/4") */
-    public void setRadian(String radian) {
-        this.radian = radian;
-    }
-
-    /** Sets the exact value (e.g. "√2/2") */
-    public void setExactValue(String exactValue) {
-        this.exactValue = exactValue;
-    }
-
-    /** Sets the approximate decimal value (e.g. 0.7071) */
-    public void setApprox(double approx) {
-        this.approx = approx;
-    }
-
-    /**
-     * Sets all instance variables at once.
-     * Used by all constructors to simplify and avoid repeating code.
-     */
-    public void setAll(String trigFunction, String radian, String exactValue, double approx) {
-        this.trigFunction = trigFunction;
-        this.radian = radian;
-        this.exactValue = exactValue;
-        this.approx = approx;
+        this.trigFunction = original.trigFunction;
+        this.radian = original.radian;
+        this.exactValue = original.exactValue;
+        this.approx = original.approx;
     }
 
     /***** GETTERS (accessors) *****/
@@ -167,25 +154,40 @@ public class Flashcard {
             return trigFunction + " of " + radian + " is undefined";
         } else {
             return trigFunction + " of " + radian + " is " + exactValue
-                + " (approx. " + String.format("%.5f", approx == 0.0 ? 0.0 : approx) + ")";
+                + " (approx. " + DecimalFormatter.format(approx, 5) + ")";
         }
     }
 
     /**
-     * Compares this flashcard to another.
-     * Returns true if all values match exactly.
+     * Compares this flashcard to another object.
+     * Returns true if it's a Flashcard and all values match exactly.
      */
-    public boolean equals(Flashcard other) {
-        if (other == null) {
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        } else if (!(other instanceof Flashcard)) {
             return false;
         } else {
-            return this.trigFunction.equals(other.trigFunction)
-                && this.radian.equals(other.radian)
-                && this.exactValue.equals(other.exactValue)
-                && this.approx == other.approx;
+            Flashcard card = (Flashcard) other;
+            return this.trigFunction.equals(card.trigFunction)
+                && this.radian.equals(card.radian)
+                && this.exactValue.equals(card.exactValue)
+                && Double.compare(this.approx, card.approx) == 0;
         }
     }
 
+    /**
+     * Hash code made from the same values equals() compares,
+     * so equal flashcards always have equal hash codes.
+     */
+    public int hashCode() {
+        int hash = trigFunction.hashCode();
+        hash = 31 * hash + radian.hashCode();
+        hash = 31 * hash + exactValue.hashCode();
+        hash = 31 * hash + Double.hashCode(approx);
+        return hash;
+    }
+
     /**
      * Returns the decimal approximation of a trig function at a specific angle index.
      * funcIndex: 0 = sin, 1 = cos, 2 = tan
@@ -205,8 +207,16 @@ public class Flashcard {
 
     /**
      * Returns an array of all 27 flashcards (3 functions × 9 angles) with correct values.
+     * The array is new each time, but the cards in it are the shared deck cards.
      */
     public static Flashcard[] generateFlashcards() {
+        return DECK.clone();
+    }
+
+    /**
+     * Builds all 27 flashcards once, for DECK.
+     */
+    private static Flashcard[] buildDeck() {
         Flashcard[] flashcards = new Flashcard[27];
         int index = 0;
 
@@ -225,12 +235,31 @@ public class Flashcard {
 
     /**
      * Returns one random flashcard from the full 27.
-     * Returns a deep copy so original array remains unchanged.
+     * Returns the deck's own card: nothing is built or copied, and since
+     * flashcards can't be changed the deck stays correct.
+     * Draws from this thread's ShuffleBag, so all 27 come up once before any repeats.
      */
     public static Flashcard getRandomFlashcard() {
-        Flashcard[] all = generateFlashcards();
-        int index = (int)(Math.random() * all.length);
-        return new Flashcard(all[index]); // return a copy
+        return getRandomFlashcard(THREAD_BAG.get());
+    }
+
+    /**
+     * Returns the deck card for the next index drawn from bag
+     * (made by newBag, e.g. newBag(new SplittableRandom(seed)) for a repeatable run).
+     */
+    public static Flashcard getRandomFlashcard(ShuffleBag bag) {
+        return DECK[bag.next()];
+    }
+
+    /**
+     * Returns a new ShuffleBag of all the deck's indexes (0 to 26), drawn using random.
+     */
+    public static ShuffleBag newBag(SplittableRandom random) {
+        int[] indexes = new int[DECK.length];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        return new ShuffleBag(indexes, random);
     }
 
     /**
@@ -1,7 +1,7 @@
 /********************************************
 *   AUTHORS:    Jeff Peterson
 *   COLLABORATORS: None
-*   LAST MODIFIED:  05/03/2025
+*   LAST MODIFIED:  05/20/2025
 ********************************************/
 
 /********************************************
@@ -44,48 +44,76 @@ public class Main
     flashcards[2] = new Flashcard("Sine", "π/6", "1/2", 0.5); // test full constructor
     //flashcards[3] = new Flashcard(flashcards[9]); // test bad copy (commented out so program doesn't crash)
     flashcards[3] = new Flashcard(flashcards[2]); // test copy constructor
-    flashcards[4] = new Flashcard(flashcards[2]); // more copies to test
-    flashcards[5] = new Flashcard(flashcards[2]);
-    flashcards[6] = new Flashcard(flashcards[2]);
-    flashcards[7] = new Flashcard(flashcards[2]);
-    flashcards[8] = new Flashcard(flashcards[2]);
+    flashcards[4] = new Flashcard("Cosine", "π/6", "1/2", 0.5); // each of these differs from flashcards[2] in one value
+    flashcards[5] = new Flashcard("Sine", "π/4", "1/2", 0.5);
+    flashcards[6] = new Flashcard("Sine", "π/6", "√2/2", 0.5);
+    flashcards[7] = new Flashcard("Sine", "π/6", "1/2", 0.707);
+    flashcards[8] = new Flashcard("Tangent", "π/3", "√3", 1.732);
 
     Flashcard.displayFlashcards(flashcards); // print flashcards to test toString() and displayFlashcards()
 
-    /***** TEST SETTERS & GETTERS *****/
-    System.out.println("\nTESTING SETTERS & GETTERS");
+    /***** TEST GETTERS *****/
+    System.out.println("\nTESTING GETTERS");
+    System.out.println("Note: flashcards can't be changed, so there are no setters to test.");
 
-    flashcards[3].setTrigFunction("Cosine"); // change function
-    System.out.println("Trig Function: " + flashcards[3].getTrigFunction()); // check if it worked
+    System.out.println("Trig Function: " + flashcards[8].getTrigFunction()); // should be Tangent
+    System.out.println("Radian: " + flashcards[8].getRadian()); // should be π/3
+    System.out.println("Exact Value: " + flashcards[8].getExactValue()); // should be √3
+    System.out.println("Approximate: " + flashcards[8].getApprox()); // should be 1.732
 
-    flashcards[4].setRadian("π/4"); // change angle
-    System.out.println("Radian: " + flashcards[4].getRadian()); // check if it worked
-
-    flashcards[5].setExactValue("√2/2"); // change exact value
-    System.out.println("Exact Value: " + flashcards[5].getExactValue()); // check if it worked
-
-    flashcards[6].setApprox(0.707); // change decimal
-    System.out.println("Approximate: " + flashcards[6].getApprox()); // check if it worked
-
-    flashcards[7].setAll("Tangent", "π/3", "√3", 1.732); // change all values at once
-    System.out.println("All data: " + flashcards[7].toString()); // check toString()
-
-    flashcards[8].setRadian("π"); // change just one thing for later deep copy test
-
-    flashcards[0].setAll("Sine", "π/6", "1/2", 0.5); // match flashcards[2] so equals test works
+    /***** TESTING EQUALS & HASHCODE *****/
+    System.out.println("\nTESTING EQUALS & HASHCODE");
+    System.out.println("Note: flashcards[2] should equal itself and flashcards[3] (its copy). All others are different.");
+    for (int i = 0; i < flashcards.length; i++)
+    {
+      System.out.printf("flashcards[2].equals(flashcards[%d]) is %b%n", i, flashcards[2].equals(flashcards[i]));
+    }
+    System.out.println("flashcards[2].equals(\"Sine\") is " + flashcards[2].equals("Sine")); // not a Flashcard, so false
+    System.out.println("Equal cards have equal hash codes: "
+      + (flashcards[2].hashCode() == flashcards[3].hashCode())); // should be true
+    System.out.println("Deck holds one card per question: "
+      + (new java.util.HashSet<Flashcard>(java.util.Arrays.asList(Flashcard.generateFlashcards())).size() == 27)); // should be true
+
+    /***** TESTING SHARED DECK *****/
+    System.out.println("\nTESTING SHARED DECK");
+    System.out.println("Note: random cards come straight from the deck, so each one should be found by == (no copies).");
+    Flashcard[] deck = Flashcard.generateFlashcards();
+    for (int i = 0; i < 5; i++)
+    {
+      Flashcard random = Flashcard.getRandomFlashcard();
+      boolean found = false;
+      for (int j = 0; j < deck.length; j++)
+      {
+        if (deck[j] == random)
+        {
+          found = true;
+        }
+      }
+      System.out.println(random + " -> from deck: " + found);
+    }
 
-    /***** TESTING DEEP COPY *****/
-    System.out.println("\nTESTING DEEP COPY");
-    System.out.println("Note: flashcards[2] should not have changed. flashcards[3] through flashcards[8] should each have one variable changed.");
-    Flashcard.displayFlashcards(flashcards); // print to verify changes
+    /***** TESTING SHUFFLE BAG & SEEDS *****/
+    System.out.println("\nTESTING SHUFFLE BAG & SEEDS");
+    System.out.println("Note: 27 draws from one bag should give all 27 cards, and two bags with the same seed the same cards.");
+    ShuffleBag bag = Flashcard.newBag(new java.util.SplittableRandom(2025));
+    java.util.HashSet<Flashcard> drawn = new java.util.HashSet<Flashcard>();
+    for (int i = 0; i < 27; i++)
+    {
+      drawn.add(Flashcard.getRandomFlashcard(bag));
+    }
+    System.out.println("Different cards in 27 draws: " + drawn.size()); // should be 27
 
-    /***** TESTING EQUALS *****/
-    System.out.println("\nTESTING EQUALS");
-    System.out.println("Note: flashcards[0] should equal itself and flashcards[2]. All others are different.");
-    for (int i = 0; i < flashcards.length; i++)
+    ShuffleBag first = Flashcard.newBag(new java.util.SplittableRandom(7));
+    ShuffleBag second = Flashcard.newBag(new java.util.SplittableRandom(7));
+    boolean same = true;
+    for (int i = 0; i < 100; i++)
     {
-      System.out.printf("flashcards[0] == flashcards[%d] is %b%n", i, flashcards[0].equals(flashcards[i]));
+      if (Flashcard.getRandomFlashcard(first) != Flashcard.getRandomFlashcard(second))
+      {
+        same = false;
+      }
     }
+    System.out.println("Same seed, same 100 cards: " + same); // should be true
 
     /***** GENERATE FULL FLASHCARD SET (27 cards) *****/
     System.out.println("\nDISPLAYING ALL 27 GENERATED FLASHCARDS");
@@ -172,12 +200,10 @@ public class Main
     return flashcards; // return the array of all 27
   }
   
-  /** returns one random flashcard from the full set */
+  /** returns one random flashcard from the full set (Flashcard's shared deck, so nothing is rebuilt) */
   public static Flashcard getRandomFlashcard()
   {
-    Flashcard[] all = generateFlashcards();
-    int index = (int)(Math.random() * all.length);
-    return all[index];
+    return Flashcard.getRandomFlashcard();
   }
 
 }
\ No newline at end of file
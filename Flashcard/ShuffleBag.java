@@ -0,0 +1,85 @@
+/********************************************
+*   AUTHORS:    Jeff Peterson
+*   COLLABORATORS: None
+*   LAST MODIFIED:  05/20/2025
+********************************************/
+
+/********************************************
+*   ShuffleBag class
+*   Draws ints (card indexes) at random without repeats: every value comes out
+*   once before any comes out again, like dealing a shuffled deck and reshuffling.
+*   Same class as V3/ShuffleBag (this program is built on its own, so it keeps a copy).
+********************************************
+*   HOW IT DRAWS
+*   Each draw is one step of a Fisher-Yates shuffle, so nothing is shuffled up front.
+*   A new round never starts with the value that ended the last round (no back-to-back repeats).
+*   Randomness comes from a SplittableRandom: the same seed always gives the same draws.
+*   Not thread-safe: one bag per thread.
+*********************************************
+UML CLASS DIAGRAM:
+********************************************
+ShuffleBag
+********************************************
+- values : int[]
+- random : SplittableRandom
+- remaining : int
+********************************************
++ ShuffleBag(values : int[], random : SplittableRandom)
++ next() : int
++ remaining() : int
++ size() : int
+********************************************/
+
+import java.util.SplittableRandom;
+
+public class ShuffleBag {
+
+    /***** INSTANCE VARIABLES *****/
+    private final int[] values;             // values[0 .. remaining-1] haven't been drawn this round
+    private final SplittableRandom random;
+    private int remaining;
+
+    /***** CONSTRUCTORS *****/
+
+    /**
+     * Full constructor: a full bag of the given values (copied; at least one),
+     * drawn using random.
+     */
+    public ShuffleBag(int[] values, SplittableRandom random) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("a ShuffleBag needs at least one value");
+        }
+        this.values = values.clone();
+        this.random = random;
+        this.remaining = values.length;
+    }
+
+    /***** DRAWING *****/
+
+    /** Returns a random value not drawn yet this round (starting a new round if needed) */
+    public int next() {
+        int low = 0;
+        if (remaining == 0) {
+            remaining = values.length;
+            // The last round's last draw was swapped to values[0]; skip it once
+            low = values.length > 1 ? 1 : 0;
+        }
+
+        int j = low + random.nextInt(remaining - low);
+        remaining--;
+        int value = values[j];
+        values[j] = values[remaining];
+        values[remaining] = value;
+        return value;
+    }
+
+    /** Returns how many values are left before this round ends */
+    public int remaining() {
+        return remaining;
+    }
+
+    /** Returns the number of values in the bag */
+    public int size() {
+        return values.length;
+    }
+}
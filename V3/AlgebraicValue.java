@@ -0,0 +1,311 @@
+/**
+ * -----------------------------------------
+ * AlgebraicValue
+ * -----------------------------------------
+ *
+ * An exact trig value like √3/2 or -(√6-√2)/4, as a value instead of a String.
+ *
+ * Most values are "simple": a sign, a fraction and one square root,
+ *   ± num/den × √radicand      e.g.  -√2/2 = -, 1/2, √2    2√3/3 = +, 2/3, √3
+ * kept in lowest terms (no square factors left under the root).
+ * The rest — nested or summed roots like √(2-√2)/2 or 2-√3 — are
+ * "compound": a written form plus its decimal value.
+ * UNDEFINED stands for values like tan(π/2).
+ *
+ * Every value is canonical: there is only ever one AlgebraicValue
+ * for √3/2, shared by everyone. So == (and equals) is one reference
+ * check, hashing is free, and negate() just hands back the value's
+ * partner, made alongside it — no new object, no String work.
+ * The text is worked out once, when the value is first made.
+ *
+ *   AlgebraicValue.of(1, 2, 3)            ->  √3/2
+ *   AlgebraicValue.of(3, 6, 12)           ->  √3     (same object as of(1, 1, 3))
+ *   AlgebraicValue.of(1, 2, 3).negate()   ->  -√3/2
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + UNDEFINED: AlgebraicValue
+ * + ZERO: AlgebraicValue
+ * + ONE: AlgebraicValue
+ * - POOL: ConcurrentHashMap<String, AlgebraicValue>
+ * -----------------------------------------
+ * - sign: int
+ * - numerator: long
+ * - denominator: long
+ * - radicand: long
+ * - form: String
+ * - value: double
+ * - text: String
+ * - negation: AlgebraicValue
+ * -----------------------------------------
+ * + of(long num, long den): AlgebraicValue
+ * + of(long num, long den, long radicand): AlgebraicValue
+ * + compound(String form, double magnitude): AlgebraicValue
+ *
+ * + AlgebraicValue negate()
+ * + int signum()
+ * + boolean isUndefined()
+ * + boolean isSimple()
+ * + long getNumerator()
+ * + long getDenominator()
+ * + long getRadicand()
+ * + double toDouble()
+ * + String toString()
+ * -----------------------------------------
+ * - AlgebraicValue(...)
+ * - simpleText(long num, long den, long radicand): String
+ * - negativeText(String positive): String
+ * - gcd(long a, long b): long
+ * -----------------------------------------
+*/
+
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class AlgebraicValue
+{
+    /***** CONSTANTS *****/
+
+    /** Canonical positive values, keyed by their text ("√3/2", "(√6-√2)/4", ...) */
+    private static final ConcurrentHashMap<String, AlgebraicValue> POOL = new ConcurrentHashMap<>();
+
+    /** An undefined value, like tan(π/2) or csc(0). Written "NaN" */
+    public static final AlgebraicValue UNDEFINED = new AlgebraicValue(0, 0, 0, 0, null, Double.NaN, "NaN");
+
+    /** 0 (its own negation) */
+    public static final AlgebraicValue ZERO = new AlgebraicValue(0, 0, 1, 1, null, 0.0, "0");
+
+    /** 1 */
+    public static final AlgebraicValue ONE = of(1, 1);
+
+    /***** INSTANCE VARIABLES *****/
+    private final int sign;              // -1, 0 or 1
+    private final long numerator;        // simple: num in num/den × √radicand, without the sign (0 otherwise)
+    private final long denominator;      // simple: den, always positive (0 otherwise)
+    private final long radicand;         // simple: 1 for a plain fraction, else square-free (0 otherwise)
+    private final String form;           // compound: written form without the sign (null otherwise)
+    private final double value;          // the value as a double (NaN if undefined)
+    private final String text;           // how it's written, sign included
+    private final AlgebraicValue negation; // the same value with the other sign (itself for 0 and UNDEFINED)
+
+    /***** CONSTRUCTORS *****/
+
+    /** Private — for ZERO and UNDEFINED, which are their own negation */
+    private AlgebraicValue(int sign, long numerator, long denominator, long radicand,
+                           String form, double value, String text)
+    {
+        this.sign = sign;
+        this.numerator = numerator;
+        this.denominator = denominator;
+        this.radicand = radicand;
+        this.form = form;
+        this.value = value;
+        this.text = text;
+        this.negation = this;
+    }
+
+    /** Private — makes a positive value together with its negative partner */
+    private AlgebraicValue(long numerator, long denominator, long radicand, String form, double value, String text)
+    {
+        this.sign = 1;
+        this.numerator = numerator;
+        this.denominator = denominator;
+        this.radicand = radicand;
+        this.form = form;
+        this.value = value;
+        this.text = text;
+        this.negation = new AlgebraicValue(this);
+    }
+
+    /** Private — the negative partner of positive */
+    private AlgebraicValue(AlgebraicValue positive)
+    {
+        this.sign = -1;
+        this.numerator = positive.numerator;
+        this.denominator = positive.denominator;
+        this.radicand = positive.radicand;
+        this.form = positive.form;
+        this.value = -positive.value;
+        this.text = negativeText(positive.text);
+        this.negation = positive;
+    }
+
+    /***** FACTORIES *****/
+
+    /** The fraction num/den (den not 0) */
+    public static AlgebraicValue of(long num, long den)
+    {
+        return of(num, den, 1);
+    }
+
+    /**
+     * num/den × √radicand, put in lowest terms: square factors come out
+     * from under the root (√12 -> 2√3) and the fraction is reduced.
+     * @param den must not be 0
+     * @param radicand must be 0 or more
+     */
+    public static AlgebraicValue of(long num, long den, long radicand)
+    {
+        if (den == 0 || radicand < 0)
+        {
+            throw new IllegalArgumentException("bad value " + num + "/" + den + "√" + radicand);
+        }
+        if (num == 0 || radicand == 0)
+        {
+            return ZERO;
+        }
+
+        boolean negative = (num < 0) != (den < 0);
+        num = Math.abs(num);
+        den = Math.abs(den);
+
+        // Pull square factors out from under the root
+        for (long f = 2; f * f <= radicand; f++)
+        {
+            while (radicand % (f * f) == 0)
+            {
+                radicand /= f * f;
+                num *= f;
+            }
+        }
+
+        long g = gcd(num, den);
+        long n = num / g;
+        long d = den / g;
+        long r = radicand;
+
+        String key = simpleText(n, d, r);
+        AlgebraicValue positive = POOL.computeIfAbsent(key,
+            k -> new AlgebraicValue(n, d, r, null, r == 1 ? (double) n / d : n * Math.sqrt(r) / d, k));
+        return negative ? positive.negation : positive;
+    }
+
+    /**
+     * A value that doesn't fit num/den × √radicand, like √(2-√2)/2 or 2-√3.
+     * @param form how it's written, without a leading minus sign
+     * @param magnitude its (positive) value as a double
+     */
+    public static AlgebraicValue compound(String form, double magnitude)
+    {
+        return POOL.computeIfAbsent(form, k -> new AlgebraicValue(0, 0, 0, k, magnitude, k));
+    }
+
+    /***** GETTERS (accessors) *****/
+
+    /** The same value with the other sign (0 and UNDEFINED give themselves). Never makes a new object */
+    public AlgebraicValue negate()
+    {
+        return negation;
+    }
+
+    /** -1, 0 or 1 (0 for UNDEFINED too) */
+    public int signum()
+    {
+        return sign;
+    }
+
+    /** True for UNDEFINED */
+    public boolean isUndefined()
+    {
+        return this == UNDEFINED;
+    }
+
+    /** True if the value is ± num/den × √radicand (false for compound values and UNDEFINED) */
+    public boolean isSimple()
+    {
+        return radicand != 0;
+    }
+
+    /** num in ± num/den × √radicand, sign not included (0 unless simple) */
+    public long getNumerator()
+    {
+        return numerator;
+    }
+
+    /** den in ± num/den × √radicand (0 unless simple) */
+    public long getDenominator()
+    {
+        return denominator;
+    }
+
+    /** radicand in ± num/den × √radicand, 1 for a plain fraction (0 unless simple) */
+    public long getRadicand()
+    {
+        return radicand;
+    }
+
+    /** The value as a double (NaN for UNDEFINED) */
+    public double toDouble()
+    {
+        return value;
+    }
+
+    /***** toString *****/
+
+    /** How the value is written, e.g. "-√3/2" (worked out once, when the value was made) */
+    public String toString()
+    {
+        return text;
+    }
+
+    /***** HELPER METHODS *****/
+
+    /** Writes a positive num/den × √radicand: "1/2", "√3/2", "2√3/3", "√2", "3" */
+    private static String simpleText(long num, long den, long radicand)
+    {
+        StringBuilder sb = new StringBuilder();
+        if (radicand == 1 || num != 1)
+        {
+            sb.append(num);
+        }
+        if (radicand != 1)
+        {
+            sb.append('√').append(radicand);
+        }
+        if (den != 1)
+        {
+            sb.append('/').append(den);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Puts a minus sign in front of a written value. Sums like "2-√3" get
+     * parentheses first ("-(2-√3)"), so the sign covers the whole thing.
+     */
+    private static String negativeText(String positive)
+    {
+        int depth = 0;
+        for (int i = 0; i < positive.length(); i++)
+        {
+            char c = positive.charAt(i);
+            if (c == '(')
+            {
+                depth++;
+            }
+            else if (c == ')')
+            {
+                depth--;
+            }
+            else if (depth == 0 && (c == '+' || c == '-'))
+            {
+                return "-(" + positive + ")";
+            }
+        }
+        return "-" + positive;
+    }
+
+    /** Greatest common divisor (Euclid's algorithm) */
+    private static long gcd(long a, long b)
+    {
+        while (b != 0)
+        {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,1188 @@
+/**
+ * -----------------------------------------
+ * AngleParser
+ * -----------------------------------------
+ *
+ * Hand-written parser for angle input like "2pi/3", "-π/4",
+ * "2.5π", "3*pi/4", "-(3π/4) + 2π" or "-3.7" (and for values
+ * like "√3/2" or "sqrt(2)/2", which the inverse functions take).
+ * Angles are radians unless they end in a unit:
+ *   "30°" or "30deg" (degrees), "50grad" (gradians), "1.2rad" (radians)
+ *
+ * Walks the characters left to right with no regex, no replace(),
+ * no split() and no temporary Strings (except for the rare number
+ * that is too long to convert exactly by hand — those go to
+ * Double.parseDouble).
+ *
+ * Two ways to use it:
+ *   parse()   — fast single pass for the common shapes
+ *               ([sign] number π, "*" and "/"), computing the value
+ *               as it reads. Anything fancier is handed to compile().
+ *   compile() — full grammar with precedence, turned into a
+ *               CompiledExpression that can be evaluated many times.
+ *
+ * Full grammar (compile):
+ *   sum     := product { ("+" | "-") product }
+ *   product := unary { ("*" | "/") unary }
+ *   unary   := ("+" | "-") unary | implied
+ *   implied := primary { primary }      implied multiplication, like "2π", "2(x+1)" or "2√3"
+ *   primary := number | "π" | "pi" | name | "(" sum ")" | ("√" | "sqrt") primary
+ *   angle   := sum [ unit ]             unit := "°" | "deg" | "grad" | "rad"
+ * Implied multiplication binds tighter than "/", so "1/2π" is 1/(2π),
+ * same as the old PiCleaner.parse. A square root covers just the primary
+ * after it, so "√3/2" is (√3)/2 and "√(2-√2)" needs its parentheses.
+ * Digits straight after "sqrt" are its operand, so "sqrt3" is √3.
+ * Spaces are skipped anywhere.
+ * A unit can only come last, and covers the whole angle: "(3+3)°" is 6°.
+ *
+ * Alongside the double, every value is also followed exactly as
+ * num/den × π^power (whole numbers, reduced by gcd) for as long as
+ * it stays rational. If the final answer is a rational multiple of π,
+ * like "15π/4" or "-(3π/4) + 2π", the ParseResult carries that exact
+ * fraction too, so callers never have to guess from the double.
+ * A square root ends the exact tracking (√2 isn't a fraction).
+ * Degrees and gradians are exact fractions of π as well (30° = 30/180 × π
+ * = π/6), so whole-number degrees go straight down the whole-number
+ * path: reduced mod 2π with integers, then looked up on ExactTable's grid.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * - POWERS_OF_TEN: double[]
+ * - UNIT_NAMES: String[]
+ * - UNIT_PI_DENOMINATORS: long[]
+ * -----------------------------------------
+ * - input: CharSequence
+ * - length: int
+ * - pos: int
+ * - errorCode: int
+ * - errorPosition: int
+ * - variableNames: String[]
+ * - code: byte[]
+ * - operands: double[]
+ * - codeLength: int
+ * - depth: int
+ * - maxDepth: int
+ * - exact: long[]
+ * - exactTags: long[]
+ * - numberNumerator: long
+ * - numberDenominator: long
+ * -----------------------------------------
+ * + parse(CharSequence input): ParseResult
+ * ~ compile(CharSequence input, String[] variableNames): CompiledExpression
+ * ~ gcd(long a, long b): long
+ * -----------------------------------------
+ * - AngleParser(CharSequence input)
+ * - run(): ParseResult
+ * - implied(): double
+ * - factor(): double
+ * - compileAll(String[] names): CompiledExpression
+ * - compileSum(): void
+ * - compileProduct(): void
+ * - compileUnary(): void
+ * - compileImplied(): void
+ * - compilePrimary(): void
+ * - emitValue(byte op, double operand): void
+ * - emitOperator(byte op, int position): void
+ * - number(): double
+ * - numberExactForm(long mantissa, int exponent, boolean digitsExact): void
+ * - toResult(double value, long[] tags, int at): ParseResult
+ * - isExactPi(long[] t, int at): boolean
+ * - setExact(long[] t, int at, long num, long den, long power): void
+ * - combineExact(byte op, long[] t, int a, int b): void
+ * - atPi(): boolean
+ * - atPiAt(int index): boolean
+ * - atNameStart(): boolean
+ * - nameMatches(int start, int end, String name): boolean
+ * - sqrtAt(int start, int end): boolean
+ * - unitAt(): int
+ * - applyUnit(double value, int unit): double
+ * - reduceInUnit(double value, long den, int end): double
+ * - plainNumber(int end): BigDecimal
+ * - skipSpaces(): void
+ * - fail(int code, int position): double
+ * -----------------------------------------
+*/
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+public final class AngleParser
+{
+    /***** CONSTANTS *****/
+
+    /** 10^0 through 10^22 — every one of these is exact as a double */
+    private static final double[] POWERS_OF_TEN =
+    {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /** Largest whole number a double can hold exactly (2^53) */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /** Most digits we collect into a long before giving up on the fast path */
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    /** Whole-number powers of ten, for turning "2.5" into 25/10 */
+    private static final long[] LONG_POWERS_OF_TEN =
+    {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+        1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+        100000000000000L, 1000000000000000L, 10000000000000000L, 100000000000000000L,
+        1000000000000000000L
+    };
+
+    /**
+     * Biggest denominator we hand back as an exact π fraction.
+     * Keeps later integer math (like 2 * den) far from overflowing.
+     */
+    private static final long MAX_EXACT_DENOMINATOR = 1L << 40;
+
+    /** Units an angle may end with ("°" and "deg" are both degrees) */
+    private static final String[] UNIT_NAMES = {"°", "deg", "grad", "rad"};
+
+    /** One of each unit is π / this many radians (0 = no scaling, already radians) */
+    private static final long[] UNIT_PI_DENOMINATORS = {180, 180, 200, 0};
+
+    /** Used by parse() when handing off to the compiler */
+    private static final String[] NO_VARIABLES = {};
+
+    /***** INSTANCE VARIABLES *****/
+    private final CharSequence input;  // the text being parsed
+    private final int length;          // cached input.length()
+    private int pos;                   // index of the next character to read
+    private int errorCode;             // ParseResult.OK until something goes wrong
+    private int errorPosition;         // where it went wrong
+
+    /***** EXACT TRACKING *****/
+    // Exact forms are stored 3 longs at a time: {num, den, power of π}.
+    // den == 0 means "not exact" (a decimal we can't hold, a variable, 1 + π, ...).
+    private final long[] exact = new long[9]; // fast path: [0] whole angle, [3] current implied, [6] current factor
+    private long numberNumerator;             // exact form of the last number() read
+    private long numberDenominator;           // 0 if it wasn't exact
+
+    /***** COMPILER STATE (only used by compile) *****/
+    private String[] variableNames;    // names the expression may use, in slot order
+    private byte[] code;               // opcodes (see CompiledExpression)
+    private double[] operands;         // constant for PUSH, slot number for LOAD
+    private int codeLength;            // how much of code[] is used
+    private int depth;                 // stack depth after the code emitted so far
+    private int maxDepth;              // deepest the stack ever gets
+    private long[] exactTags;          // exact form of each PUSH, 3 longs per instruction
+
+    /***** CONSTRUCTOR *****/
+
+    /** Private — use AngleParser.parse() */
+    private AngleParser(CharSequence input)
+    {
+        this.input = input;
+        this.length = input.length();
+        this.pos = 0;
+        this.errorCode = ParseResult.OK;
+        this.errorPosition = -1;
+    }
+
+    /***** PUBLIC API *****/
+
+    /**
+     * Parses an angle string into a radian value.
+     * Never throws — bad input comes back as a ParseResult with an error code.
+     */
+    public static ParseResult parse(CharSequence input)
+    {
+        if (input == null)
+        {
+            return ParseResult.failure(ParseResult.EMPTY, 0);
+        }
+
+        ParseResult quick = new AngleParser(input).run();
+        if (quick.getErrorCode() != ParseResult.UNEXPECTED_CHARACTER)
+        {
+            return quick;
+        }
+
+        // Parentheses, "+" and friends — let the full compiler have a go
+        CompiledExpression compiled = new AngleParser(input).compileAll(NO_VARIABLES);
+        if (!compiled.isValid())
+        {
+            return compiled.getError();
+        }
+        if (compiled.isExactPi())
+        {
+            return ParseResult.success(compiled.evaluate(), compiled.getPiNumerator(), compiled.getPiDenominator());
+        }
+        return ParseResult.success(compiled.evaluate());
+    }
+
+    /**
+     * Compiles an expression once so it can be evaluated many times.
+     * Public callers go through CompiledExpression.compile().
+     */
+    static CompiledExpression compile(CharSequence input, String[] variableNames)
+    {
+        if (input == null)
+        {
+            return CompiledExpression.invalid(ParseResult.failure(ParseResult.EMPTY, 0));
+        }
+        return new AngleParser(input).compileAll(variableNames == null ? NO_VARIABLES : variableNames);
+    }
+
+    /***** FAST PATH (parse) *****/
+
+    /** angle := implied { ("*" | "/") implied } */
+    private ParseResult run()
+    {
+        skipSpaces();
+        if (pos == length)
+        {
+            return ParseResult.failure(ParseResult.EMPTY, 0);
+        }
+
+        double value = implied();
+        System.arraycopy(exact, 3, exact, 0, 3);
+
+        while (errorCode == ParseResult.OK)
+        {
+            skipSpaces();
+            if (pos < length && input.charAt(pos) == '*')
+            {
+                pos++;
+                value *= implied();
+                combineExact(CompiledExpression.MUL, exact, 0, 3);
+            }
+            else if (pos < length && input.charAt(pos) == '/')
+            {
+                int slashPosition = pos;
+                pos++; // step over the "/"
+
+                double denominator = implied();
+                if (errorCode == ParseResult.OK && denominator == 0)
+                {
+                    fail(ParseResult.DIVIDE_BY_ZERO, slashPosition);
+                }
+                value /= denominator;
+                combineExact(CompiledExpression.DIV, exact, 0, 3);
+            }
+            else
+            {
+                break;
+            }
+        }
+
+        // A unit at the end, like "30°", scales the whole angle
+        int unit = unitAt();
+        if (errorCode == ParseResult.OK && unit >= 0)
+        {
+            value = applyUnit(value, unit);
+        }
+
+        // Anything left over (like "+" or a parenthesis) means the fast path can't handle it
+        if (errorCode == ParseResult.OK && pos < length)
+        {
+            fail(ParseResult.UNEXPECTED_CHARACTER, pos);
+        }
+
+        if (errorCode != ParseResult.OK)
+        {
+            return ParseResult.failure(errorCode, errorPosition);
+        }
+        return toResult(value, exact, 0);
+    }
+
+    /** implied := [ "+" | "-" ] factor [ π ]   — the π only right after a number, like "2π" */
+    private double implied()
+    {
+        skipSpaces();
+
+        double sign = 1.0;
+        if (pos < length && (input.charAt(pos) == '-' || input.charAt(pos) == '+'))
+        {
+            if (input.charAt(pos) == '-')
+            {
+                sign = -1.0;
+            }
+            pos++;
+            skipSpaces();
+        }
+
+        boolean startsWithNumber = !atPi(); // checked before factor() moves pos
+        double product = factor();
+        System.arraycopy(exact, 6, exact, 3, 3);
+
+        skipSpaces();
+        if (errorCode == ParseResult.OK && startsWithNumber && atPi())
+        {
+            product *= factor(); // implied multiplication like "2π"
+            combineExact(CompiledExpression.MUL, exact, 3, 6);
+        }
+
+        if (sign < 0)
+        {
+            combineExact(CompiledExpression.NEG, exact, 3, 3);
+        }
+        return sign * product;
+    }
+
+    /** factor := number | "π" | "pi" */
+    private double factor()
+    {
+        skipSpaces();
+
+        if (pos == length)
+        {
+            return fail(ParseResult.UNEXPECTED_END, pos);
+        }
+
+        char c = input.charAt(pos);
+        if (c == 'π' || atPi())
+        {
+            pos += (c == 'π') ? 1 : 2; // "pi" is two characters
+            setExact(exact, 6, 1, 1, 1);
+            return Math.PI;
+        }
+        if ((c >= '0' && c <= '9') || c == '.')
+        {
+            double value = number();
+            setExact(exact, 6, numberNumerator, numberDenominator, 0);
+            return value;
+        }
+        return fail(ParseResult.UNEXPECTED_CHARACTER, pos);
+    }
+
+    /***** FULL GRAMMAR (compile) *****/
+
+    /** Compiles the whole input into a CompiledExpression */
+    private CompiledExpression compileAll(String[] names)
+    {
+        variableNames = names;
+        code = new byte[16];
+        operands = new double[16];
+        exactTags = new long[16 * 3];
+
+        skipSpaces();
+        if (pos == length)
+        {
+            return CompiledExpression.invalid(ParseResult.failure(ParseResult.EMPTY, 0));
+        }
+
+        compileSum();
+
+        // A unit at the end, like "(3+3)°", multiplies the whole angle (folded if it's constant)
+        int unit = unitAt();
+        if (errorCode == ParseResult.OK && unit >= 0)
+        {
+            int unitPosition = pos;
+            pos = length;
+            long den = UNIT_PI_DENOMINATORS[unit];
+            if (den != 0 && codeLength == 1 && code[0] == CompiledExpression.PUSH)
+            {
+                // A constant: under one turn first if the exact fraction won't survive the scaling
+                long[] scaled = {exactTags[0], exactTags[1], exactTags[2], 1, den, 1};
+                combineExact(CompiledExpression.MUL, scaled, 0, 3);
+                if (!isExactPi(scaled, 0))
+                {
+                    operands[0] = reduceInUnit(operands[0], den, unitPosition);
+                }
+            }
+            else if (den != 0)
+            {
+                // Not known until it runs: reduce then, with a remainder
+                emitValue(CompiledExpression.PUSH, 2 * den);
+                emitOperator(CompiledExpression.REM, unitPosition);
+            }
+            if (den != 0)
+            {
+                emitValue(CompiledExpression.PUSH, Math.PI / den);
+                setExact(exactTags, (codeLength - 1) * 3, 1, den, 1);
+                emitOperator(CompiledExpression.MUL, unitPosition);
+            }
+        }
+
+        // Anything left over (like a stray ")") is an error
+        if (errorCode == ParseResult.OK && pos < length)
+        {
+            fail(ParseResult.UNEXPECTED_CHARACTER, pos);
+        }
+
+        if (errorCode != ParseResult.OK)
+        {
+            return CompiledExpression.invalid(ParseResult.failure(errorCode, errorPosition));
+        }
+        long piNumerator = 0;
+        long piDenominator = 0;
+        if (codeLength == 1 && code[0] == CompiledExpression.PUSH)
+        {
+            ParseResult folded = toResult(operands[0], exactTags, 0);
+            piNumerator = folded.getPiNumerator();
+            piDenominator = folded.getPiDenominator();
+        }
+        return new CompiledExpression(Arrays.copyOf(code, codeLength), Arrays.copyOf(operands, codeLength),
+                                      names.clone(), maxDepth, piNumerator, piDenominator);
+    }
+
+    /** sum := product { ("+" | "-") product } */
+    private void compileSum()
+    {
+        compileProduct();
+
+        while (errorCode == ParseResult.OK)
+        {
+            skipSpaces();
+            if (pos < length && (input.charAt(pos) == '+' || input.charAt(pos) == '-'))
+            {
+                byte op = input.charAt(pos) == '+' ? CompiledExpression.ADD : CompiledExpression.SUB;
+                int opPosition = pos;
+                pos++;
+                compileProduct();
+                emitOperator(op, opPosition);
+            }
+            else
+            {
+                break;
+            }
+        }
+    }
+
+    /** product := unary { ("*" | "/") unary } */
+    private void compileProduct()
+    {
+        compileUnary();
+
+        while (errorCode == ParseResult.OK)
+        {
+            skipSpaces();
+            if (pos < length && (input.charAt(pos) == '*' || input.charAt(pos) == '/'))
+            {
+                byte op = input.charAt(pos) == '*' ? CompiledExpression.MUL : CompiledExpression.DIV;
+                int opPosition = pos;
+                pos++;
+                compileUnary();
+                emitOperator(op, opPosition);
+            }
+            else
+            {
+                break;
+            }
+        }
+    }
+
+    /** unary := ("+" | "-") unary | implied */
+    private void compileUnary()
+    {
+        skipSpaces();
+
+        if (pos < length && input.charAt(pos) == '-')
+        {
+            int opPosition = pos;
+            pos++;
+            compileUnary();
+            emitOperator(CompiledExpression.NEG, opPosition);
+        }
+        else if (pos < length && input.charAt(pos) == '+')
+        {
+            pos++; // unary plus does nothing
+            compileUnary();
+        }
+        else
+        {
+            compileImplied();
+        }
+    }
+
+    /** implied := primary { primary }   — only π, names, "√" and "(" can follow without a "*" */
+    private void compileImplied()
+    {
+        compilePrimary();
+
+        while (errorCode == ParseResult.OK)
+        {
+            skipSpaces();
+            if ((atPi() || atNameStart() || (pos < length && (input.charAt(pos) == '(' || input.charAt(pos) == '√')))
+                && unitAt() < 0)
+            {
+                int opPosition = pos;
+                compilePrimary();
+                emitOperator(CompiledExpression.MUL, opPosition);
+            }
+            else
+            {
+                break;
+            }
+        }
+    }
+
+    /** primary := number | "π" | "pi" | name | "(" sum ")" | ("√" | "sqrt") primary */
+    private void compilePrimary()
+    {
+        skipSpaces();
+
+        if (pos == length)
+        {
+            fail(ParseResult.UNEXPECTED_END, pos);
+            return;
+        }
+
+        char c = input.charAt(pos);
+        if (c == '(')
+        {
+            pos++;
+            compileSum();
+            skipSpaces();
+            if (errorCode != ParseResult.OK)
+            {
+                return;
+            }
+            if (pos == length)
+            {
+                fail(ParseResult.UNEXPECTED_END, pos); // missing ")"
+            }
+            else if (input.charAt(pos) != ')')
+            {
+                fail(ParseResult.UNEXPECTED_CHARACTER, pos);
+            }
+            else
+            {
+                pos++;
+            }
+        }
+        else if ((c >= '0' && c <= '9') || c == '.')
+        {
+            double value = number();
+            if (errorCode == ParseResult.OK)
+            {
+                emitValue(CompiledExpression.PUSH, value);
+                setExact(exactTags, (codeLength - 1) * 3, numberNumerator, numberDenominator, 0);
+            }
+        }
+        else if (c == 'π')
+        {
+            pos++;
+            emitValue(CompiledExpression.PUSH, Math.PI);
+            setExact(exactTags, (codeLength - 1) * 3, 1, 1, 1);
+        }
+        else if (c == '√')
+        {
+            int opPosition = pos;
+            pos++;
+            compilePrimary();
+            emitOperator(CompiledExpression.SQRT, opPosition);
+        }
+        else if (atNameStart())
+        {
+            // Read the whole name first, so a variable like "pitch" isn't mistaken for "pi" + "tch"
+            int start = pos;
+            while (pos < length && (Character.isLetterOrDigit(input.charAt(pos)) || input.charAt(pos) == '_'))
+            {
+                pos++;
+            }
+            if (pos - start > 4 && sqrtAt(start, start + 4) && input.charAt(start + 4) >= '0' && input.charAt(start + 4) <= '9')
+            {
+                pos = start + 4; // "sqrt3": the digits are the operand, not part of the name
+            }
+
+            if (pos - start == 2 && atPiAt(start))
+            {
+                emitValue(CompiledExpression.PUSH, Math.PI);
+                setExact(exactTags, (codeLength - 1) * 3, 1, 1, 1);
+                return;
+            }
+            if (sqrtAt(start, pos))
+            {
+                compilePrimary();
+                emitOperator(CompiledExpression.SQRT, start);
+                return;
+            }
+
+            for (int slot = 0; slot < variableNames.length; slot++)
+            {
+                if (nameMatches(start, pos, variableNames[slot]))
+                {
+                    emitValue(CompiledExpression.LOAD, slot);
+                    return;
+                }
+            }
+            fail(ParseResult.UNKNOWN_NAME, start);
+        }
+        else
+        {
+            fail(ParseResult.UNEXPECTED_CHARACTER, pos);
+        }
+    }
+
+    /***** CODE EMITTING *****/
+
+    /** Adds a PUSH (constant) or LOAD (variable) instruction */
+    private void emitValue(byte op, double operand)
+    {
+        if (codeLength == code.length)
+        {
+            code = Arrays.copyOf(code, codeLength * 2);
+            operands = Arrays.copyOf(operands, codeLength * 2);
+            exactTags = Arrays.copyOf(exactTags, codeLength * 2 * 3);
+        }
+        code[codeLength] = op;
+        operands[codeLength] = operand;
+        exactTags[codeLength * 3 + 1] = 0; // not exact unless the caller says so
+        codeLength++;
+
+        depth++;
+        maxDepth = Math.max(maxDepth, depth);
+    }
+
+    /**
+     * Adds an operator instruction. If its inputs are constants,
+     * the work is done right now instead (constant folding), so
+     * "7*pi/6 - pi/12" compiles down to a single PUSH.
+     */
+    private void emitOperator(byte op, int position)
+    {
+        if (errorCode != ParseResult.OK)
+        {
+            return;
+        }
+
+        if (op == CompiledExpression.NEG)
+        {
+            if (codeLength >= 1 && code[codeLength - 1] == CompiledExpression.PUSH)
+            {
+                operands[codeLength - 1] = -operands[codeLength - 1]; // fold
+                combineExact(op, exactTags, (codeLength - 1) * 3, (codeLength - 1) * 3);
+                return;
+            }
+            emitValue(op, 0);
+            depth--; // NEG doesn't change the stack depth
+            return;
+        }
+
+        if (op == CompiledExpression.SQRT)
+        {
+            if (codeLength >= 1 && code[codeLength - 1] == CompiledExpression.PUSH)
+            {
+                if (operands[codeLength - 1] < 0)
+                {
+                    fail(ParseResult.NEGATIVE_ROOT, position);
+                    return;
+                }
+                operands[codeLength - 1] = Math.sqrt(operands[codeLength - 1]); // fold
+                exactTags[(codeLength - 1) * 3 + 1] = 0; // not a fraction any more
+                return;
+            }
+            emitValue(op, 0);
+            depth--; // SQRT doesn't change the stack depth either
+            return;
+        }
+
+        boolean rightIsConstant = codeLength >= 1 && code[codeLength - 1] == CompiledExpression.PUSH;
+        if (op == CompiledExpression.DIV && rightIsConstant && operands[codeLength - 1] == 0)
+        {
+            fail(ParseResult.DIVIDE_BY_ZERO, position);
+            return;
+        }
+
+        if (rightIsConstant && codeLength >= 2 && code[codeLength - 2] == CompiledExpression.PUSH)
+        {
+            // Both sides known — fold into one constant
+            operands[codeLength - 2] = CompiledExpression.apply(op, operands[codeLength - 2], operands[codeLength - 1]);
+            combineExact(op, exactTags, (codeLength - 2) * 3, (codeLength - 1) * 3);
+            codeLength--;
+            depth--;
+            return;
+        }
+
+        emitValue(op, 0);
+        depth -= 2; // pops two, pushes one
+    }
+
+    /**
+     * Reads a decimal number like "3", "2.5", ".5" or "1e15".
+     * Digits are collected into a long and scaled by an exact power of ten,
+     * which gives the same correctly-rounded answer as Double.parseDouble
+     * whenever the number has 15 digits or fewer and a small exponent.
+     */
+    private double number()
+    {
+        int start = pos;
+        long mantissa = 0;     // the digits, as a whole number
+        int mantissaDigits = 0; // how many digits went into mantissa (leading zeros don't count)
+        int exponent = 0;      // power of ten to scale mantissa by
+        boolean anyDigits = false;
+        boolean digitsExact = true; // false once a digit had to be dropped
+
+        // Whole-number part
+        while (pos < length && input.charAt(pos) >= '0' && input.charAt(pos) <= '9')
+        {
+            anyDigits = true;
+            int digit = input.charAt(pos) - '0';
+            if (mantissaDigits < MAX_MANTISSA_DIGITS)
+            {
+                mantissa = mantissa * 10 + digit;
+                if (mantissa != 0)
+                {
+                    mantissaDigits++;
+                }
+            }
+            else
+            {
+                exponent++; // too many digits — remember the place value only
+                digitsExact = false;
+            }
+            pos++;
+        }
+
+        // Fractional part
+        if (pos < length && input.charAt(pos) == '.')
+        {
+            pos++;
+            while (pos < length && input.charAt(pos) >= '0' && input.charAt(pos) <= '9')
+            {
+                anyDigits = true;
+                int digit = input.charAt(pos) - '0';
+                if (mantissaDigits < MAX_MANTISSA_DIGITS)
+                {
+                    mantissa = mantissa * 10 + digit;
+                    exponent--;
+                    if (mantissa != 0)
+                    {
+                        mantissaDigits++;
+                    }
+                }
+                else
+                {
+                    digitsExact = false;
+                }
+                pos++;
+            }
+        }
+
+        if (!anyDigits)
+        {
+            return fail(ParseResult.MALFORMED_NUMBER, start);
+        }
+
+        // Exponent part like "e15" or "E-3"
+        if (pos < length && (input.charAt(pos) == 'e' || input.charAt(pos) == 'E'))
+        {
+            pos++;
+            int expSign = 1;
+            if (pos < length && (input.charAt(pos) == '-' || input.charAt(pos) == '+'))
+            {
+                if (input.charAt(pos) == '-')
+                {
+                    expSign = -1;
+                }
+                pos++;
+            }
+
+            int written = 0;
+            boolean expDigits = false;
+            while (pos < length && input.charAt(pos) >= '0' && input.charAt(pos) <= '9')
+            {
+                expDigits = true;
+                if (written < 10000)
+                {
+                    written = written * 10 + (input.charAt(pos) - '0'); // cap it, anything this big is 0 or Infinity anyway
+                }
+                pos++;
+            }
+            if (!expDigits)
+            {
+                return fail(ParseResult.MALFORMED_NUMBER, start);
+            }
+            exponent += expSign * written;
+        }
+
+        numberExactForm(mantissa, exponent, digitsExact);
+
+        // Fast path: both the digits and the power of ten are exact doubles,
+        // so one multiply or divide rounds correctly
+        if (digitsExact && mantissa <= MAX_EXACT_MANTISSA)
+        {
+            if (mantissa == 0)
+            {
+                return 0.0;
+            }
+            if (exponent >= 0 && exponent < POWERS_OF_TEN.length)
+            {
+                return mantissa * POWERS_OF_TEN[exponent];
+            }
+            if (exponent < 0 && -exponent < POWERS_OF_TEN.length)
+            {
+                return mantissa / POWERS_OF_TEN[-exponent];
+            }
+        }
+
+        // Slow path for long or extreme numbers
+        return Double.parseDouble(input.subSequence(start, pos).toString());
+    }
+
+    /** Sets numberNumerator/numberDenominator to mantissa × 10^exponent as a fraction, if it fits */
+    private void numberExactForm(long mantissa, int exponent, boolean digitsExact)
+    {
+        numberNumerator = mantissa;
+        numberDenominator = 0; // assume the worst
+
+        if (!digitsExact || Math.abs(exponent) >= LONG_POWERS_OF_TEN.length)
+        {
+            return;
+        }
+
+        if (exponent < 0)
+        {
+            numberDenominator = LONG_POWERS_OF_TEN[-exponent];
+        }
+        else
+        {
+            try
+            {
+                numberNumerator = Math.multiplyExact(mantissa, LONG_POWERS_OF_TEN[exponent]);
+                numberDenominator = 1;
+            }
+            catch (ArithmeticException e) // too big for a long
+            {
+                numberDenominator = 0;
+            }
+        }
+    }
+
+    /***** EXACT ARITHMETIC *****/
+
+    /**
+     * Builds the ParseResult for a finished value, attaching the exact
+     * π fraction when the value is a rational multiple of π (or zero).
+     */
+    private static ParseResult toResult(double value, long[] t, int at)
+    {
+        if (isExactPi(t, at))
+        {
+            return ParseResult.success(value, t[at], t[at + 1]);
+        }
+        return ParseResult.success(value);
+    }
+
+    /** True if the exact form at t[at] is a fraction times π small enough to hand back */
+    private static boolean isExactPi(long[] t, int at)
+    {
+        long num = t[at];
+        long den = t[at + 1];
+        long power = t[at + 2];
+
+        boolean rationalTimesPi = den != 0 && (num == 0 || power == 1);
+        return rationalTimesPi && den <= MAX_EXACT_DENOMINATOR && Math.abs(num) <= Long.MAX_VALUE / 4;
+    }
+
+    /** Stores num/den × π^power at t[at], reduced, with a positive denominator */
+    private static void setExact(long[] t, int at, long num, long den, long power)
+    {
+        if (den == 0)
+        {
+            t[at + 1] = 0; // not exact
+            return;
+        }
+        if (num == 0)
+        {
+            t[at] = 0; // zero is zero, no matter the power of π
+            t[at + 1] = 1;
+            t[at + 2] = 0;
+            return;
+        }
+        if (den < 0)
+        {
+            num = -num;
+            den = -den;
+        }
+
+        long g = gcd(Math.abs(num), den);
+        t[at] = num / g;
+        t[at + 1] = den / g;
+        t[at + 2] = power;
+    }
+
+    /**
+     * Works out t[a] = t[a] (op) t[b] on exact forms.
+     * Anything that stops being a clean fraction — like 1 + π, or an
+     * overflow — is marked "not exact" instead.
+     */
+    private static void combineExact(byte op, long[] t, int a, int b)
+    {
+        if (op == CompiledExpression.NEG)
+        {
+            t[a] = -t[a];
+            return;
+        }
+        if (t[a + 1] == 0 || t[b + 1] == 0)
+        {
+            t[a + 1] = 0;
+            return;
+        }
+
+        long an = t[a], ad = t[a + 1], ap = t[a + 2];
+        long bn = t[b], bd = t[b + 1], bp = t[b + 2];
+
+        try
+        {
+            switch (op)
+            {
+                case CompiledExpression.ADD:
+                case CompiledExpression.SUB:
+                    if (op == CompiledExpression.SUB)
+                    {
+                        bn = -bn;
+                    }
+                    if (bn == 0)
+                    {
+                        return; // adding zero changes nothing
+                    }
+                    if (an == 0)
+                    {
+                        setExact(t, a, bn, bd, bp);
+                    }
+                    else if (ap != bp)
+                    {
+                        t[a + 1] = 0; // like 1 + π
+                    }
+                    else
+                    {
+                        setExact(t, a, Math.addExact(Math.multiplyExact(an, bd), Math.multiplyExact(bn, ad)),
+                                 Math.multiplyExact(ad, bd), ap);
+                    }
+                    break;
+                case CompiledExpression.MUL:
+                    setExact(t, a, Math.multiplyExact(an, bn), Math.multiplyExact(ad, bd), ap + bp);
+                    break;
+                case CompiledExpression.DIV:
+                    if (bn == 0)
+                    {
+                        t[a + 1] = 0;
+                    }
+                    else
+                    {
+                        setExact(t, a, Math.multiplyExact(an, bd), Math.multiplyExact(ad, bn), ap - bp);
+                    }
+                    break;
+            }
+        }
+        catch (ArithmeticException e) // numbers got too big to follow exactly
+        {
+            t[a + 1] = 0;
+        }
+    }
+
+    /** Greatest common divisor (Euclid's algorithm) */
+    static long gcd(long a, long b)
+    {
+        while (b != 0)
+        {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    /***** HELPER METHODS *****/
+
+    /** True if "pi" (any case) or "π" starts at the current position */
+    private boolean atPi()
+    {
+        if (pos >= length)
+        {
+            return false;
+        }
+        return input.charAt(pos) == 'π' || atPiAt(pos);
+    }
+
+    /** True if the two letters "pi" (any case) start at the given index */
+    private boolean atPiAt(int index)
+    {
+        return index + 1 < length
+            && (input.charAt(index) == 'p' || input.charAt(index) == 'P')
+            && (input.charAt(index + 1) == 'i' || input.charAt(index + 1) == 'I');
+    }
+
+    /** True if a variable name (or "pi") starts at the current position */
+    private boolean atNameStart()
+    {
+        return pos < length && input.charAt(pos) != 'π'
+            && (Character.isLetter(input.charAt(pos)) || input.charAt(pos) == '_');
+    }
+
+    /** True if input[start, end) spells out the given name exactly */
+    private boolean nameMatches(int start, int end, String name)
+    {
+        if (end - start != name.length())
+        {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++)
+        {
+            if (input.charAt(start + i) != name.charAt(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** True if input[start, end) is the name "sqrt" (any case) */
+    private boolean sqrtAt(int start, int end)
+    {
+        if (end - start != 4)
+        {
+            return false;
+        }
+        for (int i = 0; i < 4; i++)
+        {
+            if (Character.toLowerCase(input.charAt(start + i)) != "sqrt".charAt(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * If the rest of the input is just a unit ("°", "deg", "grad" or "rad",
+     * any case, spaces allowed around it), returns its index in UNIT_NAMES.
+     * Otherwise -1. Doesn't move pos.
+     */
+    private int unitAt()
+    {
+        int start = pos;
+        while (start < length && Character.isWhitespace(input.charAt(start)))
+        {
+            start++;
+        }
+
+        for (int unit = 0; unit < UNIT_NAMES.length; unit++)
+        {
+            String name = UNIT_NAMES[unit];
+            int end = start + name.length();
+            if (end > length)
+            {
+                continue;
+            }
+
+            boolean matches = true;
+            for (int i = 0; i < name.length() && matches; i++)
+            {
+                matches = Character.toLowerCase(input.charAt(start + i)) == name.charAt(i);
+            }
+            while (matches && end < length && Character.isWhitespace(input.charAt(end)))
+            {
+                end++;
+            }
+            if (matches && end == length)
+            {
+                return unit;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Fast path: turns the finished value (and its exact form in exact[0])
+     * into radians for the given unit, and moves pos to the end.
+     * 30° becomes 30 × π/180, kept exactly as π/6.
+     */
+    private double applyUnit(double value, int unit)
+    {
+        int unitPosition = pos;
+        pos = length;
+        long den = UNIT_PI_DENOMINATORS[unit];
+        if (den == 0)
+        {
+            return value; // already radians
+        }
+        setExact(exact, 3, 1, den, 1);
+        combineExact(CompiledExpression.MUL, exact, 0, 3);
+        if (!isExactPi(exact, 0))
+        {
+            value = reduceInUnit(value, den, unitPosition);
+        }
+        return value * Math.PI / den;
+    }
+
+    /**
+     * Brings an angle in some unit (den of them make π) to under one turn,
+     * for when its exact π fraction was lost: too many digits, or numbers too
+     * big to follow. Scaling first would round away the whole turns, so
+     * "1e20°" would land nowhere near 280°. A plain number is reduced from
+     * its typed digits, so "9223372036854775807°" is 7° even though the
+     * double is 2^63; anything else from the double with %, which is exact.
+     * @param end where the angle text stops (the unit starts)
+     */
+    private double reduceInUnit(double value, long den, int end)
+    {
+        double turn = 2 * den;
+        if (!(Math.abs(value) >= turn) || Double.isInfinite(value))
+        {
+            return value; // already under a turn (or NaN / infinite)
+        }
+
+        BigDecimal typed = plainNumber(end);
+        if (typed != null)
+        {
+            return typed.remainder(BigDecimal.valueOf(2 * den)).doubleValue();
+        }
+        return value % turn;
+    }
+
+    /**
+     * The input up to end as an exact BigDecimal, if it's just a number
+     * like "-1500000000000000000" or "1.5e18" (optional sign, digits,
+     * optional point and exponent). Otherwise null.
+     */
+    private BigDecimal plainNumber(int end)
+    {
+        int start = 0;
+        while (start < end && Character.isWhitespace(input.charAt(start)))
+        {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(input.charAt(end - 1)))
+        {
+            end--;
+        }
+
+        for (int i = start; i < end; i++)
+        {
+            char c = input.charAt(i);
+            boolean allowed = (c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-';
+            if (!allowed)
+            {
+                return null;
+            }
+        }
+        try
+        {
+            return new BigDecimal(input.subSequence(start, end).toString());
+        }
+        catch (NumberFormatException e)
+        {
+            return null;
+        }
+    }
+
+    /** Moves pos past any whitespace */
+    private void skipSpaces()
+    {
+        while (pos < length && Character.isWhitespace(input.charAt(pos)))
+        {
+            pos++;
+        }
+    }
+
+    /** Records the first error found and returns NaN so callers can bail out */
+    private double fail(int code, int position)
+    {
+        if (errorCode == ParseResult.OK)
+        {
+            errorCode = code;
+            errorPosition = position;
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,215 @@
+/********************************************
+*   AngleParserBenchmark
+*********************************************
+*   AUTHORS:    Jeff Peterson
+*   COLLABORATORS: None
+*   LAST MODIFIED:  05/27/2025
+********************************************
+*   PROGRAM DESCRIPTION:
+*   BENCHMARK of AngleParser.parse against the old regex-based
+*   PiCleaner.parse (kept below as oldParse, exactly as it was).
+*   First checks that both give the same value on every generated
+*   input the old parse accepted, then times both and measures
+*   how many bytes each one allocates per parse.
+*********************************************
+*   ALGORITHM:
+*   Generate angle strings in the shapes the old parse accepts (fixed seed)
+*   Compare AngleParser.parse with oldParse on every one
+*   Time each parser over the inputs (best of several rounds, after warm-up)
+*   Measure bytes allocated per parse with the thread allocation counter
+*********************************************
+*   STATIC METHODS:
+*   main(String[] args)
+*   checkSameAsOld(String[] inputs)
+*   timeParsers(String[] inputs)
+*   runNew(String[] inputs): double
+*   runOld(String[] inputs): double
+*   randomAngle(SplittableRandom random): String
+*   oldParse(String input): double
+*   oldEval(String expr): double
+*********************************************
+*   IMPORTED PACKAGES NEEDED AND PURPOSE:
+*   SplittableRandom - random inputs (fixed seed, so runs repeat)
+*********************************************/
+
+import java.util.SplittableRandom;
+
+public class AngleParserBenchmark
+{
+    /** Timed rounds per parser (the best one is reported) and untimed warm-up rounds before them */
+    private static final int ROUNDS = 10;
+    private static final int WARM_UP = 10;
+
+    /** Keeps the JIT from dropping parses whose answers nobody reads */
+    private static double sink = 0;
+
+    public static void main(String[] args)
+    {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        SplittableRandom random = new SplittableRandom(1);
+        String[] inputs = new String[count];
+        for (int i = 0; i < count; i++)
+        {
+            inputs[i] = randomAngle(random);
+        }
+
+        /***** SAME ANSWERS *****/
+        System.out.println("TESTING AngleParser.parse against the old PiCleaner.parse (" + count + " inputs)");
+        checkSameAsOld(inputs);
+
+        /***** SPEED AND ALLOCATION *****/
+        System.out.println("\nSPEED AND ALLOCATION (best of " + ROUNDS + " rounds)");
+        timeParsers(inputs);
+
+        System.out.println("\n" + TestHarness.summary() + "  (checksum " + sink + ")");
+    }
+
+    /** Checks the two parsers agree on every input (prints the first few that don't) */
+    public static void checkSameAsOld(String[] inputs)
+    {
+        int different = 0;
+        for (String input : inputs)
+        {
+            double old = oldParse(input);
+            ParseResult parsed = AngleParser.parse(input);
+            double now = parsed.isValid() ? parsed.getValue() : -999;
+            if (Double.doubleToLongBits(old) != Double.doubleToLongBits(now))
+            {
+                different++;
+                if (different <= 5)
+                {
+                    System.out.println("  \"" + input + "\": old " + old + ", new " + now);
+                }
+            }
+        }
+        TestHarness.check(different == 0, different + " of " + inputs.length + " differ");
+    }
+
+    /** Times both parsers and prints ns and bytes per parse */
+    public static void timeParsers(String[] inputs)
+    {
+        long bestNew = Long.MAX_VALUE;
+        long bestOld = Long.MAX_VALUE;
+        long bytesNew = 0;
+        long bytesOld = 0;
+
+        for (int round = 0; round < WARM_UP + ROUNDS; round++)
+        {
+            long bytes = TestHarness.allocatedBytes();
+            long start = System.nanoTime();
+            sink += runNew(inputs);
+            long timeNew = System.nanoTime() - start;
+            long allocNew = TestHarness.allocatedBytes() - bytes;
+
+            bytes = TestHarness.allocatedBytes();
+            start = System.nanoTime();
+            sink += runOld(inputs);
+            long timeOld = System.nanoTime() - start;
+            long allocOld = TestHarness.allocatedBytes() - bytes;
+
+            if (round >= WARM_UP)
+            {
+                bestNew = Math.min(bestNew, timeNew);
+                bestOld = Math.min(bestOld, timeOld);
+                bytesNew = allocNew; // the same every warm round; keep the last
+                bytesOld = allocOld;
+            }
+        }
+
+        double n = inputs.length;
+        System.out.println("                       ns/parse   parses/s     bytes/parse");
+        System.out.printf("  PiCleaner.parse (old) %8.1f %10.0f %12.1f%n", bestOld / n, n * 1e9 / bestOld, bytesOld / n);
+        System.out.printf("  AngleParser.parse     %8.1f %10.0f %12.1f%n", bestNew / n, n * 1e9 / bestNew, bytesNew / n);
+        System.out.printf("  speedup %.1fx%s%n", (double) bestOld / bestNew,
+                          TestHarness.allocatedBytes() < 0 ? "  (allocation counter not available on this JVM)" : "");
+    }
+
+    /** Parses every input with AngleParser; returns the sum of the values */
+    public static double runNew(String[] inputs)
+    {
+        double sum = 0;
+        for (String input : inputs)
+        {
+            sum += AngleParser.parse(input).getValue();
+        }
+        return sum;
+    }
+
+    /** Parses every input with oldParse; returns the sum of the values */
+    public static double runOld(String[] inputs)
+    {
+        double sum = 0;
+        for (String input : inputs)
+        {
+            sum += oldParse(input);
+        }
+        return sum;
+    }
+
+    /** A random angle in one of the shapes users type: "2pi/3", "-π/4", "2.5π", "3*pi/4", "-3.7", "11π/12" */
+    public static String randomAngle(SplittableRandom random)
+    {
+        String pi = random.nextBoolean() ? "π" : "pi";
+        int whole = random.nextInt(1, 24);
+        switch (random.nextInt(6))
+        {
+            case 0:  return whole + pi + "/" + random.nextInt(1, 13);
+            case 1:  return "-" + pi + "/" + random.nextInt(1, 13);
+            case 2:  return whole + "." + random.nextInt(10) + pi;
+            case 3:  return whole + "*" + pi + "/" + random.nextInt(1, 13);
+            case 4:  return (random.nextBoolean() ? "-" : "") + whole + "." + random.nextInt(1000);
+            default: return pi;
+        }
+    }
+
+    /***** THE OLD PARSER (baseline) *****/
+
+    /** PiCleaner.parse before AngleParser: regex replaces, split, and -999 for errors */
+    public static double oldParse(String input)
+    {
+        try
+        {
+            input = input.replace("π", "pi");
+            input = input.replaceAll("(?i)pi", "Math.PI");
+            input = input.replaceAll("([0-9])Math\\.PI", "$1*Math.PI");
+
+            if (input.contains("/"))
+            {
+                String[] parts = input.split("/");
+                if (parts.length == 2)
+                {
+                    double numerator = oldEval(parts[0]);
+                    double denominator = oldEval(parts[1]);
+                    return numerator / denominator;
+                }
+            }
+
+            return oldEval(input);
+        }
+        catch (Exception e)
+        {
+            return -999;
+        }
+    }
+
+    /** PiCleaner.eval before AngleParser */
+    private static double oldEval(String expr)
+    {
+        expr = expr.replace("Math.PI", String.valueOf(Math.PI));
+
+        if (expr.contains("*"))
+        {
+            String[] parts = expr.split("\\*");
+            return Double.parseDouble(parts[0]) * Double.parseDouble(parts[1]);
+        }
+        else if (expr.contains("/"))
+        {
+            String[] parts = expr.split("/");
+            return Double.parseDouble(parts[0]) / Double.parseDouble(parts[1]);
+        }
+        else
+        {
+            return Double.parseDouble(expr);
+        }
+    }
+}
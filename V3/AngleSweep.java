@@ -0,0 +1,484 @@
+/**
+ * -----------------------------------------
+ * AngleSweep
+ * -----------------------------------------
+ *
+ * sin and cos over evenly spaced angles start, start + step,
+ * start + 2·step, ... written straight into the caller's double[]s,
+ * for building tables (10^8 points is fine).
+ *
+ *   AngleSweep sweep = AngleSweep.parse("0", "π/180");   // every degree
+ *   sweep.fill(sinTable, cosTable);                      // sinTable[30] is exactly 0.5
+ *
+ * Calling the calculator once per point would parse, reduce and look
+ * up every angle. Here each point costs a few multiply-adds: the
+ * next (sin, cos) is the last one turned by step,
+ *   sin(x + δ) = sin x - (α·sin x - β·cos x)
+ *   cos(x + δ) = cos x - (α·cos x + β·sin x)
+ * with β = sin δ and α = 1 - cos δ = 2·sin²(δ/2), worked out once.
+ * (Writing it with α instead of cos δ keeps small steps accurate.)
+ * Every RESEED_INTERVAL points the pair is worked out fresh with
+ * RangeReducer and TrigKernels, so rounding can't pile up. Steps that
+ * turn far (α of SHORT_RESEED_ALPHA or more, i.e. more than about 0.72
+ * away from a whole turn) lose a few times more per turn, since α·sin x
+ * is nearly as big as sin x; those reseed every SHORT_RESEED_INTERVAL
+ * points instead. The fresh
+ * pair is for start + k·step exactly (carried as a high and a low
+ * double), the same angle the turning follows, so the two agree.
+ * Reseeds fall on fixed indexes (multiples of the interval), so
+ * the answers don't depend on how the sweep is split into pieces.
+ * Checked on sweeps with steps from 1e-6 to 7 (and starts out to 1e6)
+ * against the true value of start + k·step: every point within 3e-15.
+ *
+ * When start and step are both fractions of π (typed that way, or
+ * doubles PiRecognizer spots, like Math.PI / 180), every point's
+ * angle is known as an exact fraction too. Points that land on one of
+ * ExactTable's special angles (multiples of π/12, π/8 or π/10) get
+ * its exact value (sin(π/6) = 0.5, sin(π) = 0), and reseeds use
+ * RangeReducer.reducePiFraction. The points on multiples of π/d
+ * repeat with a fixed period, worked out once for each d, so
+ * finding them costs one compare per point.
+ *
+ * stream() hands the sweep over in chunks through two reused buffers,
+ * so memory stays the same however many points there are.
+ *
+ * An AngleSweep never changes after it's made, so any number of
+ * threads can fill from it at once (each with its own arrays).
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + RESEED_INTERVAL: int
+ * + SHORT_RESEED_INTERVAL: int
+ * + SHORT_RESEED_ALPHA: double
+ * + MAX_DENOMINATOR: int
+ * + DEFAULT_CHUNK_SIZE: int
+ * - SPECIAL_DENOMINATORS: int[]
+ * -----------------------------------------
+ * - start: double
+ * - step: double
+ * - den: long
+ * - startNum: long
+ * - stepNum: long
+ * - alpha: double
+ * - beta: double
+ * - reseedMask: long
+ * - hitFirst: long[]
+ * - hitPeriod: long[]
+ * -----------------------------------------
+ * + of(double start, double step): AngleSweep
+ * + parse(CharSequence start, CharSequence step): AngleSweep
+ *
+ * + double getStart()
+ * + double getStep()
+ * + boolean isPiFraction()
+ * + double angle(long index)
+ * + void fill(double[] sinOut, double[] cosOut)
+ * + void fill(long firstIndex, double[] sinOut, double[] cosOut, int offset, int count)
+ * + void stream(long count, ChunkConsumer consumer)
+ * + void stream(long count, int chunkSize, ChunkConsumer consumer)
+ * -----------------------------------------
+ * - AngleSweep(double start, double step, long startNum, long stepNum, long den)
+ * - fill(long firstIndex, double[] sinOut, double[] cosOut, int offset, int count, double[] r, double[] pair): void
+ * - nextHit(long index): long
+ * - fromPi(double start, double step, long startNum, long startDen, long stepNum, long stepDen): AngleSweep
+ * - inverse(long a, long m): long
+ * - gcd(long a, long b): long
+ * - ChunkConsumer: interface — gets each chunk of a stream()
+ * -----------------------------------------
+*/
+
+public final class AngleSweep
+{
+    /***** CONSTANTS *****/
+
+    /** Points between fresh (sin, cos) pairs (a power of 2) */
+    public static final int RESEED_INTERVAL = 32;
+
+    /** Points between fresh pairs for steps with α >= SHORT_RESEED_ALPHA (a power of 2) */
+    public static final int SHORT_RESEED_INTERVAL = 8;
+    public static final double SHORT_RESEED_ALPHA = 0.25;
+
+    /** Biggest denominator for a sweep of π fractions (keeps the whole-number math in a long) */
+    public static final int MAX_DENOMINATOR = 1 << 20;
+
+    /** Points per chunk for stream() when no size is given */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 13;
+
+    /** ExactTable's special angles are the multiples of π/12, π/8 and π/10 */
+    private static final int[] SPECIAL_DENOMINATORS = {12, 8, 10};
+
+    /***** INSTANCE VARIABLES *****/
+    private final double start;    // first angle, radians
+    private final double step;     // gap between angles, radians
+    private final long den;        // π fractions: common denominator (0 for a plain decimal sweep)
+    private final long startNum;   // π fractions: start = startNum/den × π, in [0, 2·den)
+    private final long stepNum;    // π fractions: step = stepNum/den × π, in [0, 2·den)
+    private final double alpha;    // 1 - cos(step)
+    private final double beta;     // sin(step)
+    private final long reseedMask; // reseed interval - 1
+    private final long[] hitFirst;  // per SPECIAL_DENOMINATORS d: first index on a multiple of π/d
+    private final long[] hitPeriod; // ... and indexes between them (0 if none ever are, or not π fractions)
+
+    /***** CONSTRUCTORS *****/
+
+    /**
+     * Private — use of() or parse().
+     * @param den 0 for a plain decimal sweep, else the π fractions' common denominator
+     */
+    private AngleSweep(double start, double step, long startNum, long stepNum, long den)
+    {
+        this.start = start;
+        this.step = step;
+        this.den = den;
+        this.startNum = startNum;
+        this.stepNum = stepNum;
+
+        // β = sin δ, α = 2·sin²(δ/2) (more accurate than 1 - cos δ for small δ)
+        double[] r = new double[2];
+        double[] pair = new double[2];
+        int n = den == 0 ? RangeReducer.reduce(step, r) : RangeReducer.reducePiFraction(stepNum, den, r);
+        TrigKernels.sincosReduced(n, r[0], r[1], pair);
+        this.beta = pair[0];
+        n = den == 0 ? RangeReducer.reduce(0.5 * step, r) : RangeReducer.reducePiFraction(stepNum, 2 * den, r);
+        TrigKernels.sincosReduced(n, r[0], r[1], pair);
+        this.alpha = 2 * pair[0] * pair[0];
+        this.reseedMask = (alpha < SHORT_RESEED_ALPHA ? RESEED_INTERVAL : SHORT_RESEED_INTERVAL) - 1;
+
+        this.hitFirst = new long[SPECIAL_DENOMINATORS.length];
+        this.hitPeriod = new long[SPECIAL_DENOMINATORS.length];
+        if (den == 0)
+        {
+            return; // plain decimals never land exactly on one
+        }
+
+        // Index k is on a multiple of π/d when q divides startNum + k·stepNum,
+        // q = den / gcd(den, d). Solve that once: k = hitFirst + j·hitPeriod.
+        for (int i = 0; i < SPECIAL_DENOMINATORS.length; i++)
+        {
+            long q = den / gcd(den, SPECIAL_DENOMINATORS[i]);
+            long a = stepNum % q;
+            long b = Math.floorMod(-startNum, q);
+            long g = gcd(a, q);
+            if (b % g == 0)
+            {
+                long period = q / g;
+                hitFirst[i] = period == 1 ? 0 : (b / g) % period * inverse(a / g, period) % period;
+                hitPeriod[i] = period;
+            }
+        }
+    }
+
+    /***** FACTORIES *****/
+
+    /**
+     * A sweep from start in steps of step (both in radians).
+     * If both are fractions of π to within a few ulps (like Math.PI / 180),
+     * the sweep is worked as exact fractions and finds special angles.
+     */
+    public static AngleSweep of(double start, double step)
+    {
+        if (Double.isNaN(start) || Double.isInfinite(start) || Double.isNaN(step) || Double.isInfinite(step))
+        {
+            throw new IllegalArgumentException("start and step must be finite, got " + start + " and " + step);
+        }
+
+        long startFraction = PiRecognizer.recognize(start, 0.0, MAX_DENOMINATOR);
+        long stepFraction = PiRecognizer.recognize(step, 0.0, MAX_DENOMINATOR);
+        if (startFraction != PiRecognizer.NONE && stepFraction != PiRecognizer.NONE)
+        {
+            AngleSweep sweep = fromPi(start, step,
+                                      PiRecognizer.numerator(startFraction), PiRecognizer.denominator(startFraction),
+                                      PiRecognizer.numerator(stepFraction), PiRecognizer.denominator(stepFraction));
+            if (sweep != null)
+            {
+                return sweep;
+            }
+        }
+        return new AngleSweep(start, step, 0, 0, 0);
+    }
+
+    /**
+     * A sweep from two typed angles, like parse("0", "π/180") or parse("-90°", "0.5°").
+     * Exact fractions of π stay exact, anything else is read as a decimal (see of()).
+     * @throws IllegalArgumentException if either one can't be parsed
+     */
+    public static AngleSweep parse(CharSequence start, CharSequence step)
+    {
+        ParseResult parsedStart = AngleParser.parse(start);
+        if (!parsedStart.isValid())
+        {
+            throw new IllegalArgumentException("start: " + parsedStart);
+        }
+        ParseResult parsedStep = AngleParser.parse(step);
+        if (!parsedStep.isValid())
+        {
+            throw new IllegalArgumentException("step: " + parsedStep);
+        }
+
+        if (parsedStart.isExactPi() && parsedStep.isExactPi())
+        {
+            AngleSweep sweep = fromPi(parsedStart.getValue(), parsedStep.getValue(),
+                                      parsedStart.getPiNumerator(), parsedStart.getPiDenominator(),
+                                      parsedStep.getPiNumerator(), parsedStep.getPiDenominator());
+            if (sweep != null)
+            {
+                return sweep;
+            }
+        }
+        return of(parsedStart.getValue(), parsedStep.getValue());
+    }
+
+    /***** GETTERS (accessors) *****/
+
+    /** Gets the first angle (radians) */
+    public double getStart()
+    {
+        return start;
+    }
+
+    /** Gets the gap between angles (radians) */
+    public double getStep()
+    {
+        return step;
+    }
+
+    /** True if the angles are worked as exact fractions of π (so special angles get exact values) */
+    public boolean isPiFraction()
+    {
+        return den != 0;
+    }
+
+    /** The angle (radians) at an index: start + index·step */
+    public double angle(long index)
+    {
+        return Math.fma((double) index, step, start);
+    }
+
+    /***** FILLING *****/
+
+    /** sinOut[i] = sin(angle(i)), cosOut[i] = cos(angle(i)) for every i (arrays the same length) */
+    public void fill(double[] sinOut, double[] cosOut)
+    {
+        if (sinOut.length != cosOut.length)
+        {
+            throw new IllegalArgumentException("sinOut and cosOut must be the same length");
+        }
+        fill(0, sinOut, cosOut, 0, sinOut.length);
+    }
+
+    /**
+     * Same as fill above, for part of the sweep into part of the arrays:
+     * sinOut[offset + i] = sin(angle(firstIndex + i)), same for cos, i from 0 to count - 1.
+     * Gives the same values as one big fill, wherever the pieces start.
+     */
+    public void fill(long firstIndex, double[] sinOut, double[] cosOut, int offset, int count)
+    {
+        if (firstIndex < 0 || count < 0)
+        {
+            throw new IllegalArgumentException("firstIndex and count can't be negative");
+        }
+        fill(firstIndex, sinOut, cosOut, offset, count, new double[2], new double[2]);
+    }
+
+    /**
+     * Runs the first count points through consumer, DEFAULT_CHUNK_SIZE at a time.
+     * See stream(long, int, ChunkConsumer).
+     */
+    public void stream(long count, ChunkConsumer consumer)
+    {
+        stream(count, DEFAULT_CHUNK_SIZE, consumer);
+    }
+
+    /**
+     * Runs the first count points through consumer a chunk at a time.
+     * The same two buffers are filled for every chunk, so the consumer
+     * must use (or copy) them before it returns. Nothing is allocated
+     * after the buffers, however big count is.
+     */
+    public void stream(long count, int chunkSize, ChunkConsumer consumer)
+    {
+        if (count < 0 || chunkSize < 1)
+        {
+            throw new IllegalArgumentException("count can't be negative and chunkSize must be at least 1");
+        }
+
+        int size = (int) Math.min(chunkSize, Math.max(count, 1));
+        double[] sin = new double[size];
+        double[] cos = new double[size];
+        double[] r = new double[2];    // scratch for the reseeds, reused by every chunk
+        double[] pair = new double[2];
+
+        for (long first = 0; first < count; first += size)
+        {
+            int length = (int) Math.min(size, count - first);
+            fill(first, sin, cos, 0, length, r, pair);
+            consumer.accept(first, sin, cos, length);
+        }
+    }
+
+    /***** HELPER METHODS *****/
+
+    /**
+     * The fill loop. r and pair are scratch space for the reseeds.
+     * Starts at the reseed at or before firstIndex and turns forward from
+     * there without writing, so a piece matches the same points of a whole fill.
+     */
+    private void fill(long firstIndex, double[] sinOut, double[] cosOut, int offset, int count,
+                      double[] r, double[] pair)
+    {
+        long k = firstIndex & ~reseedMask; // the reseed at or before firstIndex
+        long end = firstIndex + count;
+
+        long twoDen = 2 * den;
+        long num = 0; // π fractions: point k's angle is num/den × π, num in [0, 2·den)
+        if (den != 0)
+        {
+            num = (startNum + (k % twoDen) * stepNum) % twoDen;
+        }
+        long nextHit = nextHit(k);
+
+        double s = 0.0;
+        double c = 0.0;
+        for (; k < end; k++)
+        {
+            if (k == nextHit)
+            {
+                // A special angle: its exact value (and a perfect restart for the turning)
+                int gridStep = (int) (num * ExactTable.GRID / den);
+                s = ExactTable.lookup(TrigFunction.SIN, gridStep).toDouble();
+                c = ExactTable.lookup(TrigFunction.COS, gridStep).toDouble();
+                nextHit = nextHit(k + 1);
+            }
+            else if ((k & reseedMask) == 0)
+            {
+                int n;
+                double lo = 0.0;
+                if (den != 0)
+                {
+                    n = RangeReducer.reducePiFraction(num, den, r);
+                }
+                else
+                {
+                    // start + k·step as hi + lo: the product's and the sum's rounding errors go in lo
+                    double product = k * step;
+                    double hi = start + product;
+                    double moved = hi - start;
+                    lo = Math.fma((double) k, step, -product) + ((start - (hi - moved)) + (product - moved));
+                    n = RangeReducer.reduce(hi, r);
+                }
+                // Fold lo into the reduced angle as a new high and low part (the kernels
+                // only use the low part as a small correction)
+                double low = r[1] + lo;
+                double high = r[0] + low;
+                TrigKernels.sincosReduced(n, high, (r[0] - high) + low, pair);
+                s = pair[0];
+                c = pair[1];
+            }
+            if (k >= firstIndex)
+            {
+                sinOut[offset + (int) (k - firstIndex)] = s;
+                cosOut[offset + (int) (k - firstIndex)] = c;
+            }
+
+            // Turn (s, c) by one step
+            double nextSin = s - Math.fma(alpha, s, -beta * c);
+            c = c - Math.fma(alpha, c, beta * s);
+            s = nextSin;
+
+            num += stepNum;
+            if (num >= twoDen)
+            {
+                num -= twoDen;
+            }
+        }
+    }
+
+    /** First index at or after index that lands on a special angle (Long.MAX_VALUE if none) */
+    private long nextHit(long index)
+    {
+        long next = Long.MAX_VALUE;
+        for (int i = 0; i < hitPeriod.length; i++)
+        {
+            long period = hitPeriod[i];
+            if (period == 0)
+            {
+                continue;
+            }
+            long hit = hitFirst[i];
+            if (index > hit)
+            {
+                hit += (index - hit + period - 1) / period * period;
+            }
+            next = Math.min(next, hit);
+        }
+        return next;
+    }
+
+    /**
+     * A π-fraction sweep from start = startNum/startDen × π and step = stepNum/stepDen × π
+     * (denominators positive), or null if their common denominator is more than MAX_DENOMINATOR.
+     */
+    private static AngleSweep fromPi(double start, double step, long startNum, long startDen, long stepNum, long stepDen)
+    {
+        if (startDen > MAX_DENOMINATOR || stepDen > MAX_DENOMINATOR)
+        {
+            return null;
+        }
+        long den = startDen / gcd(startDen, stepDen) * stepDen;
+        if (den > MAX_DENOMINATOR)
+        {
+            return null;
+        }
+
+        // Over the common denominator, then into [0, 2·den) (whole turns don't matter)
+        startNum = Math.floorMod(startNum % (2 * startDen) * (den / startDen), 2 * den);
+        stepNum = Math.floorMod(stepNum % (2 * stepDen) * (den / stepDen), 2 * den);
+        long g = gcd(gcd(startNum, stepNum), den);
+        return new AngleSweep(start, step, startNum / g, stepNum / g, den / g);
+    }
+
+    /** a⁻¹ mod m, for a and m with no common factor (extended Euclid) */
+    private static long inverse(long a, long m)
+    {
+        long oldR = a, r = m;
+        long oldS = 1, s = 0;
+        while (r != 0)
+        {
+            long q = oldR / r;
+            long t = oldR - q * r;
+            oldR = r;
+            r = t;
+            t = oldS - q * s;
+            oldS = s;
+            s = t;
+        }
+        return Math.floorMod(oldS, m);
+    }
+
+    /** Greatest common divisor (Euclid's algorithm); gcd(0, b) = b */
+    private static long gcd(long a, long b)
+    {
+        while (b != 0)
+        {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /***** ChunkConsumer *****/
+
+    /** Gets each chunk of a stream() */
+    public interface ChunkConsumer
+    {
+        /**
+         * sin[i] and cos[i], for i from 0 to length - 1, are the values at
+         * index firstIndex + i. The arrays are reused for the next chunk.
+         */
+        void accept(long firstIndex, double[] sin, double[] cos, int length);
+    }
+}
@@ -0,0 +1,89 @@
+/********************************************
+*   AngleUnitTester
+*********************************************
+*   AUTHORS:    Jeff Peterson
+*   COLLABORATORS: None
+*   LAST MODIFIED:  05/27/2025
+********************************************
+*   PROGRAM DESCRIPTION:
+*   TESTER of degree and gradian input ("30°", "30deg", "50grad").
+*   Checks ordinary angles, then angles too big to keep as an exact
+*   fraction of π, which must lose their whole turns in their own unit
+*   before they become radians, both parsed and compiled with a variable.
+*   Prints one line per check and a PASS/FAIL count at the end.
+*********************************************
+*   ALGORITHM:
+*   Check small angles in each unit give the exact value
+*   Check huge angles give the value of the same angle under one turn
+*   Check "x°" and "x grad" compiled with a variable, small and huge x
+*********************************************
+*   STATIC METHODS:
+*   main(String[] args)
+*   checkExact(String function, String angle, String expected)
+*   checkValue(String function, String angle, double expected)
+*   checkCompiled(String expression, double x, double expected)
+*********************************************
+*   IMPORTED PACKAGES NEEDED AND PURPOSE:
+*   None
+*********************************************/
+
+public class AngleUnitTester
+{
+    public static void main(String[] args)
+    {
+        /***** SMALL ANGLES *****/
+        System.out.println("TESTING angles under a few turns");
+        checkExact("sin", "30°", "1/2");
+        checkExact("cos", "60deg", "1/2");
+        checkExact("tan", "50grad", "1");
+        checkExact("sin", "-750°", "-1/2");
+        checkExact("cos", "1.5rad", null);
+
+        /***** HUGE ANGLES *****/
+        System.out.println("\nTESTING angles with many whole turns");
+        checkValue("sin", "1500000000000000000°", -Math.sqrt(3) / 2);          // 240° past whole turns
+        checkValue("sin", "-1500000000000000000deg", Math.sqrt(3) / 2);
+        checkValue("sin", "1000000000000000000°", Math.sin(Math.toRadians(280)));
+        checkValue("sin", "1e20°", Math.sin(Math.toRadians(280)));
+        checkValue("sin", "9223372036854775807°", Math.sin(Math.toRadians(7)));  // typed digits, not the double 2^63
+        checkValue("sin", "123456789012345678901234567890°", 1);                 // 90°
+        checkValue("sin", "1e22grad", 0);
+
+        /***** COMPILED *****/
+        System.out.println("\nTESTING units in compiled expressions");
+        checkCompiled("x°", 30, 0.5);
+        checkCompiled("x°", 1e20, Math.sin(Math.toRadians(280)));
+        checkCompiled("x grad", 1e22, 0);
+        checkCompiled("(x + 30)°", -750, 0);
+
+        System.out.println("\n" + TestHarness.summary());
+    }
+
+    /** function(angle) should have exact value expected (null: not exact) */
+    public static void checkExact(String function, String angle, String expected)
+    {
+        TrigResult result = TrigEngine.evaluate(function, angle);
+        String got = result.isExact() ? result.getExactValue() : null;
+        boolean ok = result.isValid() && (expected == null ? got == null : expected.equals(got));
+        TestHarness.check(ok, function + "(" + angle + ") = " + (!result.isValid() ? result.getError() : result.getValueText())
+                              + (expected == null ? " (expected no exact value)" : " (expected " + expected + ")"));
+    }
+
+    /** function(angle) should be within 1e-12 of expected */
+    public static void checkValue(String function, String angle, double expected)
+    {
+        TrigResult result = TrigEngine.evaluate(function, angle);
+        boolean ok = result.isValid() && Math.abs(result.getDecimalValue() - expected) <= 1e-12;
+        TestHarness.check(ok, function + "(" + angle + ") = " + (!result.isValid() ? result.getError() : result.getValueText())
+                              + " (expected " + expected + ")");
+    }
+
+    /** sin of the compiled expression at x should be within 1e-12 of expected */
+    public static void checkCompiled(String expression, double x, double expected)
+    {
+        CompiledExpression angle = CompiledExpression.compile(expression, "x");
+        double got = Math.sin(angle.evaluate(x));
+        TestHarness.check(Math.abs(got - expected) <= 1e-12,
+                          "sin(" + expression + ") at x = " + x + ": " + got + " (expected " + expected + ")  (" + angle + ")");
+    }
+}
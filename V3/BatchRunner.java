@@ -0,0 +1,236 @@
+/**
+ * -----------------------------------------
+ * BatchRunner
+ * -----------------------------------------
+ *
+ * Non-interactive mode for the calculator.
+ * Reads lines like "sin 7π/6" or "cos -3.7" and writes one
+ * answer line per input line, e.g. "sin(7π/6) = -1/2".
+ *
+ * Input is read through a buffer a chunk at a time and answers go
+ * out through one buffered writer, so memory stays the same size
+ * no matter how big the file is. A bad line doesn't stop the job —
+ * it gets an "error" line with its line number and the run goes on.
+ *
+ * An angle ending in "@digits" ("sin 1.2 @50") gets that many digits too.
+ * Blank lines and lines starting with "#" are skipped.
+ * Repeated questions are answered from ResultCache.getDefault().
+ *
+ * With more than one worker, chunks of lines are evaluated in
+ * parallel by BulkEvaluator (answers still come out in input order).
+ *
+ * Usage (through TrigCalcV3):
+ *   java TrigCalcV3 --batch in.txt out.txt
+ *   java TrigCalcV3 --batch < in.txt > out.txt
+ *   java TrigCalcV3 --batch in.txt out.txt 8      (8 workers)
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * - BUFFER_SIZE: int
+ * - ERROR_PREFIX: String
+ * -----------------------------------------
+ * - workers: int
+ * - linesRead: long
+ * - errorCount: long
+ * -----------------------------------------
+ * + BatchRunner()
+ * + BatchRunner(int workers)
+ * + void run(Reader in, Writer out)
+ * + void runFiles(String inPath, String outPath)
+ * + long getLinesRead()
+ * + long getErrorCount()
+ * -----------------------------------------
+ * ~ evaluateLine(String line, long lineNumber): String
+ * ~ isError(String answer): boolean
+ * -----------------------------------------
+*/
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public class BatchRunner
+{
+    /** Size (in chars) of the read and write buffers */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Every error answer starts with this (then the line number) */
+    private static final String ERROR_PREFIX = "line ";
+
+    /***** INSTANCE VARIABLES *****/
+    private final int workers; // 1 = read and evaluate on this thread only
+    private long linesRead;   // every line, including blanks and comments
+    private long errorCount;  // lines that couldn't be evaluated
+
+    /***** CONSTRUCTOR *****/
+
+    /** Single-threaded runner */
+    public BatchRunner()
+    {
+        this(1);
+    }
+
+    /** Runner that spreads the work over the given number of workers */
+    public BatchRunner(int workers)
+    {
+        this.workers = Math.max(1, workers);
+        this.linesRead = 0;
+        this.errorCount = 0;
+    }
+
+    /***** RUNNING *****/
+
+    /**
+     * Evaluates every line from in and writes the answers to out.
+     * Flushes out when done but doesn't close either stream.
+     */
+    public void run(Reader in, Writer out) throws IOException
+    {
+        if (workers > 1)
+        {
+            BulkEvaluator bulk = new BulkEvaluator(workers);
+            try
+            {
+                long[] counts = bulk.runFile(in, out);
+                linesRead += counts[0];
+                errorCount += counts[1];
+            }
+            finally
+            {
+                bulk.shutdown();
+            }
+            return;
+        }
+
+        BufferedReader reader = new BufferedReader(in, BUFFER_SIZE);
+        BufferedWriter writer = new BufferedWriter(out, BUFFER_SIZE);
+
+        String line;
+        while ((line = reader.readLine()) != null)
+        {
+            linesRead++;
+
+            String answer = evaluateLine(line, linesRead);
+            if (answer != null)
+            {
+                if (isError(answer))
+                {
+                    errorCount++;
+                }
+                writer.write(answer);
+                writer.newLine();
+            }
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Same as run(), but with file names. "-" (or null) means
+     * standard input / standard output.
+     */
+    public void runFiles(String inPath, String outPath) throws IOException
+    {
+        boolean useStdin = inPath == null || inPath.equals("-");
+        boolean useStdout = outPath == null || outPath.equals("-");
+
+        InputStream inStream = useStdin ? System.in : new FileInputStream(inPath);
+        try
+        {
+            OutputStream outStream = useStdout ? System.out : new FileOutputStream(outPath);
+            try
+            {
+                run(new InputStreamReader(inStream, StandardCharsets.UTF_8),
+                    new OutputStreamWriter(outStream, StandardCharsets.UTF_8));
+            }
+            finally
+            {
+                if (!useStdout)
+                {
+                    outStream.close();
+                }
+            }
+        }
+        finally
+        {
+            if (!useStdin)
+            {
+                inStream.close();
+            }
+        }
+    }
+
+    /***** GETTERS (accessors) *****/
+
+    /** Gets how many lines have been read so far */
+    public long getLinesRead()
+    {
+        return linesRead;
+    }
+
+    /** Gets how many lines had errors so far */
+    public long getErrorCount()
+    {
+        return errorCount;
+    }
+
+    /***** HELPER METHODS *****/
+
+    /**
+     * Turns one input line into one output line.
+     * Returns null for blank lines and comments (nothing to write).
+     * Doesn't touch any fields, so workers can call it in parallel.
+     */
+    static String evaluateLine(String line, long lineNumber)
+    {
+        // Find the function name: first run of non-space characters
+        int start = 0;
+        while (start < line.length() && Character.isWhitespace(line.charAt(start)))
+        {
+            start++;
+        }
+        if (start == line.length() || line.charAt(start) == '#')
+        {
+            return null; // blank line or comment
+        }
+
+        int end = start;
+        while (end < line.length() && !Character.isWhitespace(line.charAt(end)))
+        {
+            end++;
+        }
+
+        String func = line.substring(start, end);
+        String angle = line.substring(end).trim();
+
+        if (angle.isEmpty())
+        {
+            return ERROR_PREFIX + lineNumber + ": error: expected \"function angle\", got \"" + line.trim() + "\"";
+        }
+
+        TrigResult result = ResultCache.getDefault().evaluate(func, angle);
+        if (!result.isValid())
+        {
+            return ERROR_PREFIX + lineNumber + ": " + func + "(" + angle + ") = error: " + result.getError();
+        }
+        return result.toString();
+    }
+
+    /** True if an answer from evaluateLine is an error line */
+    static boolean isError(String answer)
+    {
+        return answer.startsWith(ERROR_PREFIX);
+    }
+}
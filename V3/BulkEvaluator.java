@@ -0,0 +1,305 @@
+/**
+ * -----------------------------------------
+ * BulkEvaluator
+ * -----------------------------------------
+ *
+ * Evaluates sin, cos or tan for a whole array (or file) of angles
+ * using every core. The work is split in half over and over with
+ * fork/join until the pieces are small, each worker fills its own
+ * part of the output, and the results come back in input order.
+ *
+ *   BulkEvaluator bulk = new BulkEvaluator(8);       // 8 workers
+ *   TrigResult[] r = bulk.evaluate(0, angleStrings);  // sin of each
+ *
+ * Special angles still get exact values, same as TrigEngine.
+ * Decimal values for radian arrays come from TrigKernels.
+ * One BulkEvaluator can be shared; call shutdown() when finished.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * - LEAF_SIZE: int
+ * - FILE_CHUNK_LINES: int
+ * -----------------------------------------
+ * - pool: ForkJoinPool
+ * - workers: int
+ * -----------------------------------------
+ * + BulkEvaluator()
+ * + BulkEvaluator(int workers)
+ *
+ * + int getWorkers()
+ * + TrigResult[] evaluate(int funcIndex, String[] angles)
+ * + void evaluate(int funcIndex, double[] angles, double[] values, AlgebraicValue[] exactValues)
+ * + void sincos(double[] angles, double[] sinValues, double[] cosValues)
+ * + void evaluateLines(String[] lines, int count, long firstLineNumber, Writer out, long[] errorCount)
+ * + long[] runFile(Reader in, Writer out)
+ * + void shutdown()
+ * -----------------------------------------
+ * - forEachRange(int count, RangeBody body): void
+ * - RangeBody: interface — work for one piece [lo, hi)
+ * - RangeTask: RecursiveAction — splits the range in half until pieces are small
+ * - exactDouble(int funcIndex, double angle): AlgebraicValue
+ * -----------------------------------------
+*/
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class BulkEvaluator
+{
+    /** Work pieces at or below this many items are done by one worker without splitting further */
+    private static final int LEAF_SIZE = 4096;
+
+    /** Lines read from a file per parallel round (keeps memory flat on huge files) */
+    private static final int FILE_CHUNK_LINES = 1 << 16;
+
+    /***** INSTANCE VARIABLES *****/
+    private final ForkJoinPool pool; // runs the workers
+    private final int workers;       // how many workers the pool may use
+
+    /***** CONSTRUCTORS *****/
+
+    /** One worker per available core */
+    public BulkEvaluator()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /** A fixed number of workers (at least 1) */
+    public BulkEvaluator(int workers)
+    {
+        this.workers = Math.max(1, workers);
+        this.pool = new ForkJoinPool(this.workers);
+    }
+
+    /***** GETTERS (accessors) *****/
+
+    /** Gets the number of workers */
+    public int getWorkers()
+    {
+        return workers;
+    }
+
+    /***** BULK EVALUATION *****/
+
+    /**
+     * Evaluates one function over many angle strings, in parallel.
+     * @param funcIndex 0 = sin, 1 = cos, 2 = tan, 3 = csc, 4 = sec, 5 = cot
+     * @param angles angle strings like "7π/6" or "-3.7"
+     * @return one TrigResult per angle, in the same order
+     */
+    public TrigResult[] evaluate(int funcIndex, String[] angles)
+    {
+        TrigResult[] results = new TrigResult[angles.length];
+
+        forEachRange(angles.length, (lo, hi) ->
+        {
+            for (int i = lo; i < hi; i++)
+            {
+                results[i] = TrigEngine.evaluate(funcIndex, angles[i]);
+            }
+        });
+
+        return results;
+    }
+
+    /**
+     * Evaluates one function over many radian values, in parallel,
+     * writing straight into the caller's arrays (exact values are the shared
+     * AlgebraicValue table entries, so none are made per angle).
+     * @param funcIndex 0 = sin, 1 = cos, 2 = tan, 3 = csc, 4 = sec, 5 = cot
+     * @param angles radian values
+     * @param values gets the decimal value of each angle
+     * @param exactValues gets the exact value of each special angle (null otherwise);
+     *                    pass null to skip exact-value detection
+     */
+    public void evaluate(int funcIndex, double[] angles, double[] values, AlgebraicValue[] exactValues)
+    {
+        forEachRange(angles.length, (lo, hi) ->
+        {
+            // Decimal values for the whole piece in one pass over the array
+            TrigKernels.apply(funcIndex, angles, lo, values, lo, hi - lo);
+
+            if (exactValues != null)
+            {
+                for (int i = lo; i < hi; i++)
+                {
+                    exactValues[i] = exactDouble(funcIndex, angles[i]);
+                }
+            }
+        });
+    }
+
+    /**
+     * Sine and cosine of many radian values, in parallel, one range
+     * reduction per angle. Writes straight into the caller's arrays.
+     * @param angles radian values
+     * @param sinValues gets sin of each angle
+     * @param cosValues gets cos of each angle
+     */
+    public void sincos(double[] angles, double[] sinValues, double[] cosValues)
+    {
+        forEachRange(angles.length, (lo, hi) ->
+            TrigKernels.sincos(angles, lo, sinValues, cosValues, lo, hi - lo));
+    }
+
+    /**
+     * Evaluates batch-format lines ("sin 7π/6") in parallel and writes the
+     * answers in input order. Each worker builds its answers in its own
+     * buffer; the buffers are then written out one after another.
+     * @param lines the lines (only the first count are used)
+     * @param count how many lines to use
+     * @param firstLineNumber line number of lines[0], for error messages
+     * @param out where the answers go
+     * @param errorCount errorCount[0] is increased by the number of bad lines
+     */
+    public void evaluateLines(String[] lines, int count, long firstLineNumber, Writer out, long[] errorCount) throws IOException
+    {
+        int pieces = (count + LEAF_SIZE - 1) / LEAF_SIZE;
+        StringBuilder[] buffers = new StringBuilder[pieces];
+        long[] errors = new long[pieces];
+
+        forEachRange(count, (lo, hi) ->
+        {
+            int piece = lo / LEAF_SIZE;
+            StringBuilder sb = new StringBuilder((hi - lo) * 24);
+            for (int i = lo; i < hi; i++)
+            {
+                String answer = BatchRunner.evaluateLine(lines[i], firstLineNumber + i);
+                if (answer != null)
+                {
+                    if (BatchRunner.isError(answer))
+                    {
+                        errors[piece]++;
+                    }
+                    sb.append(answer).append(System.lineSeparator());
+                }
+            }
+            buffers[piece] = sb;
+        });
+
+        // Merge in input order
+        for (int piece = 0; piece < pieces; piece++)
+        {
+            out.append(buffers[piece]);
+            errorCount[0] += errors[piece];
+        }
+    }
+
+    /**
+     * Batch mode with all workers: reads a chunk of lines, evaluates the chunk
+     * in parallel, writes it, and repeats — so memory stays flat on huge inputs.
+     * @return {lines read, lines with errors}
+     */
+    public long[] runFile(Reader in, Writer out) throws IOException
+    {
+        BufferedReader reader = new BufferedReader(in, 1 << 16);
+        BufferedWriter writer = new BufferedWriter(out, 1 << 16);
+
+        String[] chunk = new String[FILE_CHUNK_LINES];
+        long linesRead = 0;
+        long[] errorCount = {0};
+
+        while (true)
+        {
+            int count = 0;
+            String line;
+            while (count < chunk.length && (line = reader.readLine()) != null)
+            {
+                chunk[count++] = line;
+            }
+            if (count == 0)
+            {
+                break;
+            }
+
+            evaluateLines(chunk, count, linesRead + 1, writer, errorCount);
+            linesRead += count;
+        }
+
+        writer.flush();
+        return new long[] {linesRead, errorCount[0]};
+    }
+
+    /** Stops the worker threads (the evaluator can't be used after this) */
+    public void shutdown()
+    {
+        pool.shutdown();
+    }
+
+    /***** HELPER METHODS *****/
+
+    /** The work done on one piece [lo, hi) of the input */
+    private interface RangeBody
+    {
+        void run(int lo, int hi);
+    }
+
+    /** Splits [lo, hi) in half until pieces are LEAF_SIZE or smaller, then runs them */
+    private static class RangeTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L; // never serialized; RecursiveAction is Serializable
+
+        private final int lo;
+        private final int hi;
+        private final RangeBody body;
+
+        RangeTask(int lo, int hi, RangeBody body)
+        {
+            this.lo = lo;
+            this.hi = hi;
+            this.body = body;
+        }
+
+        protected void compute()
+        {
+            if (hi - lo <= LEAF_SIZE)
+            {
+                body.run(lo, hi);
+                return;
+            }
+
+            // Split on a LEAF_SIZE boundary so every piece lines up with its buffer slot
+            int mid = lo + ((hi - lo) / 2 / LEAF_SIZE) * LEAF_SIZE;
+            if (mid == lo)
+            {
+                mid = lo + LEAF_SIZE;
+            }
+            invokeAll(new RangeTask(lo, mid, body), new RangeTask(mid, hi, body));
+        }
+    }
+
+    /** Runs body over [0, count) on the pool and waits for it to finish */
+    private void forEachRange(int count, RangeBody body)
+    {
+        if (count == 0)
+        {
+            return;
+        }
+        pool.invoke(new RangeTask(0, count, body));
+    }
+
+    /**
+     * Exact value for a radian double, or null. Recognized the same way
+     * as a decimal angle given to TrigEngine.evaluate as text, so both
+     * APIs agree on which angles are special.
+     */
+    private static AlgebraicValue exactDouble(int funcIndex, double angle)
+    {
+        long fraction = TrigEngine.recognizeSpecial(angle);
+        if (fraction == PiRecognizer.NONE)
+        {
+            return null;
+        }
+        long den = PiRecognizer.denominator(fraction);
+        long num = PiCleaner.normalizePiNumerator(PiRecognizer.numerator(fraction), den);
+        return ExactTable.lookup(TrigFunction.fromIndex(funcIndex), num, den);
+    }
+}
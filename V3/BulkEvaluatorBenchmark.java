@@ -0,0 +1,227 @@
+/********************************************
+*   BulkEvaluatorBenchmark
+*********************************************
+*   AUTHORS:    Jeff Peterson
+*   COLLABORATORS: None
+*   LAST MODIFIED:  05/27/2025
+********************************************
+*   PROGRAM DESCRIPTION:
+*   SCALING REPORT for BulkEvaluator: runs the same jobs with
+*   1, 2, 4, ... up to N workers and prints the time, the speedup
+*   over 1 worker, and the scaling efficiency (speedup / workers).
+*   Two jobs: sin of radian doubles with exact-value detection, and
+*   sin of angle strings (parse, exact table, TrigResult).
+*   Also checks every worker count gives exactly the 1-worker answers,
+*   and that the double[] and String APIs agree on exact values.
+*
+*   java BulkEvaluatorBenchmark [maxWorkers] [doubles] [strings]
+*   maxWorkers defaults to the number of cores.
+*********************************************
+*   ALGORITHM:
+*   Generate random angles (fixed seed): plain decimals and special angles mixed
+*   Check the double[] and String APIs give the same exact values
+*   For each worker count: run both jobs (best of several rounds), compare with 1 worker
+*   Print time, speedup and efficiency per worker count
+*********************************************
+*   STATIC METHODS:
+*   main(String[] args)
+*   checkApisAgree(double[] angles, int count)
+*   timeDoubles(BulkEvaluator bulk, double[] angles, double[] values, AlgebraicValue[] exact): long
+*   timeStrings(BulkEvaluator bulk, String[] angles, TrigResult[][] results): long
+*   workerCounts(int max): int[]
+*   toText(double[] angles): String[]
+*   randomAngle(SplittableRandom random): double
+*********************************************
+*   IMPORTED PACKAGES NEEDED AND PURPOSE:
+*   Arrays - comparing answers between worker counts
+*   SplittableRandom - random angles (fixed seed, so runs repeat)
+*********************************************/
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class BulkEvaluatorBenchmark
+{
+    /** Timed rounds per job (the best one is reported) and untimed warm-up rounds before them */
+    private static final int ROUNDS = 5;
+    private static final int WARM_UP = 3;
+
+    public static void main(String[] args)
+    {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxWorkers = args.length > 0 ? Integer.parseInt(args[0]) : cores;
+        int doubleCount = args.length > 1 ? Integer.parseInt(args[1]) : 4000000;
+        int stringCount = args.length > 2 ? Integer.parseInt(args[2]) : 400000;
+
+        SplittableRandom random = new SplittableRandom(7);
+        double[] angles = new double[doubleCount];
+        for (int i = 0; i < doubleCount; i++)
+        {
+            angles[i] = randomAngle(random);
+        }
+        String[] angleText = new String[stringCount];
+        for (int i = 0; i < stringCount; i++)
+        {
+            angleText[i] = Double.toString(angles[i]);
+        }
+
+        /***** SAME ANSWERS *****/
+        System.out.println("TESTING double[] and String APIs agree on exact values (" + stringCount + " angles, sin/cos/tan)");
+        checkApisAgree(angles, stringCount);
+
+        /***** SCALING *****/
+        System.out.println("\nSCALING (" + cores + " cores; " + doubleCount + " doubles and " + stringCount
+                           + " strings; best of " + ROUNDS + " rounds)");
+        System.out.println("  workers     doubles  speedup  efficiency      strings  speedup  efficiency   same answers");
+
+        double[] values = new double[doubleCount];
+        AlgebraicValue[] exact = new AlgebraicValue[doubleCount];
+        double[] firstValues = null;
+        AlgebraicValue[] firstExact = null;
+        TrigResult[][] results = new TrigResult[1][];
+        String[] firstText = null;
+        long oneDoubles = 0;
+        long oneStrings = 0;
+        boolean allSame = true;
+
+        for (int workers : workerCounts(maxWorkers))
+        {
+            BulkEvaluator bulk = new BulkEvaluator(workers);
+            long doubles = timeDoubles(bulk, angles, values, exact);
+            long strings = timeStrings(bulk, angleText, results);
+            bulk.shutdown();
+
+            String[] text = new String[results[0].length];
+            for (int i = 0; i < text.length; i++)
+            {
+                text[i] = results[0][i].toString();
+            }
+
+            boolean same = true;
+            if (workers == 1)
+            {
+                oneDoubles = doubles;
+                oneStrings = strings;
+                firstValues = values.clone();
+                firstExact = exact.clone();
+                firstText = text;
+            }
+            else
+            {
+                same = Arrays.equals(values, firstValues) && Arrays.equals(exact, firstExact) && Arrays.equals(text, firstText);
+                allSame &= same;
+            }
+
+            double doubleSpeedup = (double) oneDoubles / doubles;
+            double stringSpeedup = (double) oneStrings / strings;
+            System.out.printf("  %7d %9.1f ms %7.2fx %10.0f%% %9.1f ms %7.2fx %10.0f%%   %s%n", workers,
+                              doubles / 1e6, doubleSpeedup, 100 * doubleSpeedup / workers,
+                              strings / 1e6, stringSpeedup, 100 * stringSpeedup / workers,
+                              same ? "yes" : "NO");
+        }
+        TestHarness.check(allSame, "every worker count gives the 1-worker answers");
+
+        System.out.println("\n" + TestHarness.summary());
+    }
+
+    /** Checks the two APIs give the same exact value for each of the first count angles */
+    public static void checkApisAgree(double[] angles, int count)
+    {
+        BulkEvaluator bulk = new BulkEvaluator(1);
+        double[] part = Arrays.copyOf(angles, count);
+        double[] values = new double[count];
+        AlgebraicValue[] exact = new AlgebraicValue[count];
+
+        int different = 0;
+        int special = 0;
+        for (int f = 0; f < 3; f++)
+        {
+            bulk.evaluate(f, part, values, exact);
+            TrigResult[] fromText = bulk.evaluate(f, toText(part));
+            for (int i = 0; i < count; i++)
+            {
+                String a = exact[i] == null ? null : exact[i].toString();
+                String b = fromText[i].isExact() ? fromText[i].getExactValue() : null;
+                if (a == null ? b != null : !a.equals(b))
+                {
+                    different++;
+                }
+                if (a != null)
+                {
+                    special++;
+                }
+            }
+        }
+        bulk.shutdown();
+        TestHarness.check(different == 0, special + " exact answers; " + different + " differ");
+    }
+
+    /** Best time for sin of every angle with exact-value detection */
+    public static long timeDoubles(BulkEvaluator bulk, double[] angles, double[] values, AlgebraicValue[] exact)
+    {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < WARM_UP + ROUNDS; round++)
+        {
+            long start = System.nanoTime();
+            bulk.evaluate(0, angles, values, exact);
+            long time = System.nanoTime() - start;
+            if (round >= WARM_UP)
+            {
+                best = Math.min(best, time);
+            }
+        }
+        return best;
+    }
+
+    /** Best time for sin of every angle string; results[0] gets the last round's answers */
+    public static long timeStrings(BulkEvaluator bulk, String[] angles, TrigResult[][] results)
+    {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < WARM_UP + ROUNDS; round++)
+        {
+            long start = System.nanoTime();
+            results[0] = bulk.evaluate(0, angles);
+            long time = System.nanoTime() - start;
+            if (round >= WARM_UP)
+            {
+                best = Math.min(best, time);
+            }
+        }
+        return best;
+    }
+
+    /** 1, 2, 4, ... below max, then max itself */
+    public static int[] workerCounts(int max)
+    {
+        int[] counts = new int[32];
+        int n = 0;
+        for (int w = 1; w < max; w *= 2)
+        {
+            counts[n++] = w;
+        }
+        counts[n++] = Math.max(1, max);
+        return Arrays.copyOf(counts, n);
+    }
+
+    /** Decimal strings for a double[] (the shortest form that reads back as the same double) */
+    private static String[] toText(double[] angles)
+    {
+        String[] text = new String[angles.length];
+        for (int i = 0; i < angles.length; i++)
+        {
+            text[i] = Double.toString(angles[i]);
+        }
+        return text;
+    }
+
+    /** A random angle: mostly plain decimals, one in four a special angle (k·π/120, or typed to 10 places) */
+    public static double randomAngle(SplittableRandom random)
+    {
+        switch (random.nextInt(8))
+        {
+            case 0:  return random.nextLong(-2400, 2400) * Math.PI / 120;
+            case 1:  return Math.rint(random.nextLong(-240, 240) * Math.PI / 12 * 1e10) / 1e10;
+            default: return random.nextDouble(-1000, 1000);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * -----------------------------------------
+ * CardCode
+ * -----------------------------------------
+ *
+ * A quiz card as one int instead of a Flashcard object:
+ *
+ *   code = function index × QUIZ_ANGLES + angle index
+ *
+ * which is the same number as Flashcard.getIndex() and the card's
+ * place in TrigEngine's deck, so codes run 0 to DECK_SIZE - 1 with
+ * no gaps. That makes them usable straight as array indexes and
+ * as bit numbers in a DeckState.
+ *
+ *   CardCode.of(TrigFunction.COS, 4)   ->  17   (cos(π/3))
+ *   CardCode.function(17)              ->  COS
+ *   CardCode.angleIndex(17)            ->  4
+ *   CardCode.question(17)              ->  "cos(π/3)"
+ *
+ * A deck (or any set of questions) is an int[] of codes. Strings are
+ * only made when a card is shown: question() or toFlashcard().
+ *
+ * Holds no state, so any number of threads can use it at once.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + DECK_SIZE: int
+ * -----------------------------------------
+ * + of(TrigFunction func, int angleIndex): int
+ * + of(Flashcard card): int
+ * + function(int code): TrigFunction
+ * + angleIndex(int code): int
+ * + toFlashcard(int code): Flashcard
+ * + question(int code): String
+ * + isValid(int code): boolean
+ * + deck(): int[]
+ * + deck(TrigFunction func): int[]
+ * -----------------------------------------
+ * - check(int code): int
+ * -----------------------------------------
+*/
+
+public final class CardCode
+{
+    /***** CONSTANTS *****/
+
+    /** Number of card codes: every function at every quiz angle */
+    public static final int DECK_SIZE = TrigFunction.count() * TrigEngine.QUIZ_ANGLES;
+
+    /** Private — everything here is static */
+    private CardCode()
+    {
+    }
+
+    /***** ENCODING *****/
+
+    /**
+     * The code for one function at one quiz angle.
+     * @param angleIndex 0 to QUIZ_ANGLES - 1, i.e. angleIndex·π/12 from 0 to π
+     */
+    public static int of(TrigFunction func, int angleIndex)
+    {
+        if (angleIndex < 0 || angleIndex >= TrigEngine.QUIZ_ANGLES)
+        {
+            throw new IndexOutOfBoundsException("angleIndex must be 0 to " + (TrigEngine.QUIZ_ANGLES - 1) + ", got " + angleIndex);
+        }
+        return func.ordinal() * TrigEngine.QUIZ_ANGLES + angleIndex;
+    }
+
+    /** The code for a card from TrigEngine's deck */
+    public static int of(Flashcard card)
+    {
+        return card.getIndex();
+    }
+
+    /***** DECODING *****/
+
+    /** The card's trig function */
+    public static TrigFunction function(int code)
+    {
+        return TrigFunction.fromIndex(check(code) / TrigEngine.QUIZ_ANGLES);
+    }
+
+    /** The card's quiz angle index (the angle is angleIndex·π/12) */
+    public static int angleIndex(int code)
+    {
+        return check(code) % TrigEngine.QUIZ_ANGLES;
+    }
+
+    /** The deck's Flashcard for this code (shared, nothing is made) */
+    public static Flashcard toFlashcard(int code)
+    {
+        return TrigEngine.getFlashcard(check(code));
+    }
+
+    /** The question as text, like "cos(π/3)" — for showing the card */
+    public static String question(int code)
+    {
+        Flashcard card = toFlashcard(code);
+        return card.getTrigFunction() + "(" + card.getRadian() + ")";
+    }
+
+    /** True if code is a card (0 to DECK_SIZE - 1) */
+    public static boolean isValid(int code)
+    {
+        return code >= 0 && code < DECK_SIZE;
+    }
+
+    /***** DECKS *****/
+
+    /** Every card code, in order (a new array each call, so it can be shuffled) */
+    public static int[] deck()
+    {
+        int[] codes = new int[DECK_SIZE];
+        for (int i = 0; i < codes.length; i++)
+        {
+            codes[i] = i;
+        }
+        return codes;
+    }
+
+    /** The codes for one function at every quiz angle, in angle order */
+    public static int[] deck(TrigFunction func)
+    {
+        int[] codes = new int[TrigEngine.QUIZ_ANGLES];
+        int first = func.ordinal() * TrigEngine.QUIZ_ANGLES;
+        for (int i = 0; i < codes.length; i++)
+        {
+            codes[i] = first + i;
+        }
+        return codes;
+    }
+
+    /***** HELPER METHODS *****/
+
+    /** Returns code, or throws if it isn't a card */
+    private static int check(int code)
+    {
+        if (!isValid(code))
+        {
+            throw new IndexOutOfBoundsException("card code must be 0 to " + (DECK_SIZE - 1) + ", got " + code);
+        }
+        return code;
+    }
+}
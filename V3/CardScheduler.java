@@ -0,0 +1,41 @@
+/**
+ * -----------------------------------------
+ * CardScheduler
+ * -----------------------------------------
+ *
+ * Decides which card the quiz asks next, from how the learner has
+ * answered so far. FlashcardFactory.runFlashcard asks it for each
+ * question and tells it each answer:
+ *
+ *   int card = scheduler.nextCard();
+ *   ... ask CardCode.question(card), check the answer ...
+ *   scheduler.recordAnswer(card, right);
+ *
+ * Cards are card codes (see CardCode). A scheduler keeps one learner's
+ * schedule, so each learner gets their own.
+ *
+ * Implementations: LeitnerScheduler (boxes) and SM2Scheduler
+ * (SM-2-style growing intervals), both on IntervalScheduler.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + nextCard(): int
+ * + recordAnswer(int card, boolean correct): void
+ * + getName(): String
+ * -----------------------------------------
+*/
+
+public interface CardScheduler
+{
+    /** The card to ask next. Asking again without recording an answer gives the same card */
+    int nextCard();
+
+    /** Records the learner's answer to card (right or wrong) and reschedules it */
+    void recordAnswer(int card, boolean correct);
+
+    /** Short name to show the learner, like "Leitner boxes" */
+    String getName();
+}
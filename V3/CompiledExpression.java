@@ -0,0 +1,301 @@
+/**
+ * -----------------------------------------
+ * CompiledExpression
+ * -----------------------------------------
+ *
+ * An angle expression that has already been parsed, ready to be
+ * evaluated over and over without looking at the text again.
+ *
+ * Stored as a tiny stack program (postfix "bytecode"):
+ *   "-(3π/4) + 2x"  becomes  PUSH -2.356..  PUSH 2  LOAD x  MUL  ADD
+ * Constant parts are worked out once at compile time, so an
+ * expression with no variables is just one PUSH.
+ *
+ * Variables let one template be reused with different values:
+ *   CompiledExpression e = CompiledExpression.compile("k*π/6", "k");
+ *   e.evaluate(5)  ->  5π/6
+ *
+ * When the whole thing folds to a rational multiple of π, like
+ * "-(3π/4) + 2π" = 5π/4, the exact fraction is kept as well.
+ *
+ * Immutable, so one instance can be shared by many threads.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * ~ PUSH, LOAD, ADD, SUB, MUL, DIV, NEG, SQRT, REM: byte
+ * -----------------------------------------
+ * - code: byte[]
+ * - operands: double[]
+ * - variableNames: String[]
+ * - maxStack: int
+ * - piNumerator: long
+ * - piDenominator: long
+ * - error: ParseResult
+ * -----------------------------------------
+ * + compile(CharSequence input, String... variableNames): CompiledExpression
+ * ~ invalid(ParseResult error): CompiledExpression
+ * ~ apply(byte op, double a, double b): double
+ *
+ * + boolean isValid()
+ * + ParseResult getError()
+ * + boolean isConstant()
+ * + boolean isExactPi()
+ * + long getPiNumerator()
+ * + long getPiDenominator()
+ * + int getVariableCount()
+ * + String[] getVariableNames()
+ * + int getStackSize()
+ *
+ * + double evaluate(double... values)
+ * + double evaluate(double[] values, double[] stack)
+ * + String toString()
+ * -----------------------------------------
+*/
+
+public final class CompiledExpression
+{
+    /***** OPCODES *****/
+    static final byte PUSH = 0;  // push a constant
+    static final byte LOAD = 1;  // push a variable's value
+    static final byte ADD = 2;
+    static final byte SUB = 3;
+    static final byte MUL = 4;
+    static final byte DIV = 5;
+    static final byte NEG = 6;   // unary minus
+    static final byte SQRT = 7;  // square root ("√" or "sqrt")
+    static final byte REM = 8;   // remainder, keeping the sign (whole turns off a "x°")
+
+    /** Opcode names for toString(), indexed by opcode */
+    private static final String[] OP_NAMES = {"PUSH", "LOAD", "ADD", "SUB", "MUL", "DIV", "NEG", "SQRT", "REM"};
+
+    /***** INSTANCE VARIABLES *****/
+    private final byte[] code;             // one opcode per instruction
+    private final double[] operands;       // constant for PUSH, variable slot for LOAD
+    private final String[] variableNames;  // slot order for evaluate(values)
+    private final int maxStack;            // how big the evaluation stack has to be
+    private final long piNumerator;        // exact value as a π fraction ...
+    private final long piDenominator;      // ... or 0 if it isn't one
+    private final ParseResult error;       // null if the compile worked
+
+    /***** CONSTRUCTORS *****/
+
+    /** Used by AngleParser once it has built the program */
+    CompiledExpression(byte[] code, double[] operands, String[] variableNames, int maxStack,
+                       long piNumerator, long piDenominator)
+    {
+        this.code = code;
+        this.operands = operands;
+        this.variableNames = variableNames;
+        this.maxStack = maxStack;
+        this.piNumerator = piNumerator;
+        this.piDenominator = piDenominator;
+        this.error = null;
+    }
+
+    /** Private — use invalid() */
+    private CompiledExpression(ParseResult error)
+    {
+        this.code = new byte[0];
+        this.operands = new double[0];
+        this.variableNames = new String[0];
+        this.maxStack = 0;
+        this.piNumerator = 0;
+        this.piDenominator = 0;
+        this.error = error;
+    }
+
+    /***** FACTORY METHODS *****/
+
+    /**
+     * Compiles an expression. Never throws — check isValid() / getError().
+     * @param input the expression text, like "7*pi/6 - pi/12"
+     * @param variableNames names the expression may use, in the order
+     *                      their values will be passed to evaluate()
+     */
+    public static CompiledExpression compile(CharSequence input, String... variableNames)
+    {
+        return AngleParser.compile(input, variableNames);
+    }
+
+    /** Builds a placeholder for input that failed to compile */
+    static CompiledExpression invalid(ParseResult error)
+    {
+        return new CompiledExpression(error);
+    }
+
+    /** Does one binary operation (shared with the compiler's constant folding) */
+    static double apply(byte op, double a, double b)
+    {
+        switch (op)
+        {
+            case ADD: return a + b;
+            case SUB: return a - b;
+            case MUL: return a * b;
+            case DIV: return a / b;
+            case REM: return a % b;
+            default:  throw new IllegalArgumentException("not a binary opcode: " + op);
+        }
+    }
+
+    /***** GETTERS (accessors) *****/
+
+    /** True if the expression compiled */
+    public boolean isValid()
+    {
+        return error == null;
+    }
+
+    /** Gets the compile error (null if the compile worked) */
+    public ParseResult getError()
+    {
+        return error;
+    }
+
+    /** True if the whole expression folded down to one number */
+    public boolean isConstant()
+    {
+        return code.length == 1 && code[0] == PUSH;
+    }
+
+    /** True if the expression is a constant that is exactly a fraction times π */
+    public boolean isExactPi()
+    {
+        return piDenominator != 0;
+    }
+
+    /** Gets the numerator of the exact π fraction */
+    public long getPiNumerator()
+    {
+        return piNumerator;
+    }
+
+    /** Gets the denominator of the exact π fraction, or 0 if not exact */
+    public long getPiDenominator()
+    {
+        return piDenominator;
+    }
+
+    /** Gets how many values evaluate() expects */
+    public int getVariableCount()
+    {
+        return variableNames.length;
+    }
+
+    /** Gets a copy of the variable names, in slot order */
+    public String[] getVariableNames()
+    {
+        return variableNames.clone();
+    }
+
+    /** Gets the stack length needed by evaluate(values, stack) */
+    public int getStackSize()
+    {
+        return maxStack;
+    }
+
+    /***** EVALUATION *****/
+
+    /**
+     * Evaluates the expression with the given variable values.
+     * Returns NaN if the expression didn't compile.
+     */
+    public double evaluate(double... values)
+    {
+        if (isConstant())
+        {
+            return operands[0]; // nothing to run
+        }
+        return evaluate(values, new double[maxStack]);
+    }
+
+    /**
+     * Evaluates the expression using a caller-supplied stack
+     * (at least getStackSize() long), so a hot loop allocates nothing.
+     * Each thread needs its own stack array.
+     */
+    public double evaluate(double[] values, double[] stack)
+    {
+        if (error != null)
+        {
+            return Double.NaN;
+        }
+        if (values.length < variableNames.length)
+        {
+            throw new IllegalArgumentException("expected " + variableNames.length + " values, got " + values.length);
+        }
+
+        int top = -1; // index of the top of the stack
+
+        for (int i = 0; i < code.length; i++)
+        {
+            switch (code[i])
+            {
+                case PUSH:
+                    stack[++top] = operands[i];
+                    break;
+                case LOAD:
+                    stack[++top] = values[(int) operands[i]];
+                    break;
+                case ADD:
+                    top--;
+                    stack[top] = stack[top] + stack[top + 1];
+                    break;
+                case SUB:
+                    top--;
+                    stack[top] = stack[top] - stack[top + 1];
+                    break;
+                case MUL:
+                    top--;
+                    stack[top] = stack[top] * stack[top + 1];
+                    break;
+                case DIV:
+                    top--;
+                    stack[top] = stack[top] / stack[top + 1];
+                    break;
+                case NEG:
+                    stack[top] = -stack[top];
+                    break;
+                case SQRT:
+                    stack[top] = Math.sqrt(stack[top]);
+                    break;
+                case REM:
+                    top--;
+                    stack[top] = stack[top] % stack[top + 1];
+                    break;
+            }
+        }
+
+        return stack[0];
+    }
+
+    /***** toString *****/
+    public String toString()
+    {
+        if (error != null)
+        {
+            return "invalid (" + error + ")";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < code.length; i++)
+        {
+            if (i > 0)
+            {
+                sb.append("  ");
+            }
+            sb.append(OP_NAMES[code[i]]);
+            if (code[i] == PUSH)
+            {
+                sb.append(' ').append(operands[i]);
+            }
+            else if (code[i] == LOAD)
+            {
+                sb.append(' ').append(variableNames[(int) operands[i]]);
+            }
+        }
+        return sb.toString();
+    }
+}
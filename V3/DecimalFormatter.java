@@ -0,0 +1,214 @@
+/**
+ * -----------------------------------------
+ * DecimalFormatter
+ * -----------------------------------------
+ *
+ * Writes a double with a fixed number of decimal places, like
+ * String.format("%.3f", x) but without the Formatter machinery:
+ * the digits go straight into a char[] (or a StringBuilder).
+ *
+ *   DecimalFormatter.format(0.70710678, 3)   ->  "0.707"
+ *   DecimalFormatter.format(-2.5, 0)         ->  "-2"
+ *   DecimalFormatter.format(0.125, 2)        ->  "0.12"   (half-even)
+ *
+ * Rounding is round-half-even on the double's exact value, so a tie
+ * (only possible when the double is exactly halfway, like 0.125) goes to
+ * the even digit. Math.fma gives the rounding error of x × 10^places,
+ * which settles the cases where that product itself was rounded.
+ * (String.format rounds ties up, so 0.125 gives "0.13" there.)
+ *
+ * NaN prints as "NaN", infinities as "Infinity" / "-Infinity".
+ * -0.0 prints without a sign; a tiny negative number keeps it ("-0.000").
+ * Numbers too big for the fast path (x × 10^places >= 2^53) go
+ * through BigDecimal instead.
+ *
+ * Holds no state, so any number of threads can use it at once.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + MAX_PLACES: int
+ * - POWERS_OF_TEN: double[]
+ * - LONG_POWERS_OF_TEN: long[]
+ * - TWO_TO_53: double
+ * -----------------------------------------
+ * + format(double value, int places): String
+ * + append(StringBuilder sb, double value, int places): StringBuilder
+ * + write(double value, int places, char[] dest, int offset): int
+ * + maxLength(int places): int
+ * -----------------------------------------
+ * - bufferLength(double value, int places): int
+ * - writeText(String text, char[] dest, int offset): int
+ * - checkPlaces(int places): void
+ * -----------------------------------------
+*/
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class DecimalFormatter
+{
+    /***** CONSTANTS *****/
+
+    /** Most decimal places supported (10^places has to be an exact double and fit in a long) */
+    public static final int MAX_PLACES = 18;
+
+    /** 10^0 through 10^18, all exact as doubles */
+    private static final double[] POWERS_OF_TEN =
+    {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+        1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    /** Same, as longs */
+    private static final long[] LONG_POWERS_OF_TEN =
+    {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+        1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+        100000000000000L, 1000000000000000L, 10000000000000000L, 100000000000000000L,
+        1000000000000000000L
+    };
+
+    /** Past this, every double is a whole number and the fast path can't round right */
+    private static final double TWO_TO_53 = 9007199254740992.0;
+
+    /** Private — everything here is static */
+    private DecimalFormatter()
+    {
+    }
+
+    /***** FORMATTING *****/
+
+    /** value with exactly places digits after the point (0 to MAX_PLACES), as a new String */
+    public static String format(double value, int places)
+    {
+        char[] buffer = new char[bufferLength(value, places)];
+        int end = write(value, places, buffer, 0);
+        return new String(buffer, 0, end);
+    }
+
+    /** Same as format, added to the end of sb. Returns sb */
+    public static StringBuilder append(StringBuilder sb, double value, int places)
+    {
+        char[] buffer = new char[bufferLength(value, places)];
+        int end = write(value, places, buffer, 0);
+        return sb.append(buffer, 0, end);
+    }
+
+    /**
+     * Writes value with exactly places digits after the point into dest,
+     * starting at offset. Makes no objects (except for huge numbers, see above),
+     * so one buffer can be used over and over.
+     * @param dest needs room for maxLength(places) chars from offset
+     * @return the index just past the last char written
+     */
+    public static int write(double value, int places, char[] dest, int offset)
+    {
+        checkPlaces(places);
+
+        if (Double.isNaN(value))
+        {
+            return writeText("NaN", dest, offset);
+        }
+        if (Double.isInfinite(value))
+        {
+            return writeText(value > 0 ? "Infinity" : "-Infinity", dest, offset);
+        }
+
+        double magnitude = Math.abs(value);
+        double scale = POWERS_OF_TEN[places];
+        double scaled = magnitude * scale;
+        if (!(scaled < TWO_TO_53))
+        {
+            // Too big to round with a long — rare, so let BigDecimal do it
+            String text = new BigDecimal(value).setScale(places, RoundingMode.HALF_EVEN).toPlainString();
+            return writeText(text, dest, offset);
+        }
+
+        // Round magnitude × 10^places to a whole number, half-even.
+        // scaled is that product rounded to a double; error is exactly what rounding lost.
+        double error = Math.fma(magnitude, scale, -scaled);
+        double whole = Math.floor(scaled);
+        double aboveHalf = (scaled - whole) - 0.5; // its sign can only be overturned by error when it's 0
+        long digits = (long) whole;
+        if (aboveHalf > 0 || (aboveHalf == 0 && (error > 0 || (error == 0 && (digits & 1) == 1))))
+        {
+            digits++;
+        }
+
+        int pos = offset;
+        if (value < 0) // not for -0.0
+        {
+            dest[pos++] = '-';
+        }
+
+        // Whole-number part, then the decimals with leading zeros kept
+        long unit = LONG_POWERS_OF_TEN[places];
+        long intPart = digits / unit;
+        long fracPart = digits % unit;
+
+        int intStart = pos;
+        do
+        {
+            dest[pos++] = (char) ('0' + intPart % 10);
+            intPart /= 10;
+        }
+        while (intPart != 0);
+        for (int i = intStart, j = pos - 1; i < j; i++, j--) // digits came out backwards
+        {
+            char c = dest[i];
+            dest[i] = dest[j];
+            dest[j] = c;
+        }
+
+        if (places > 0)
+        {
+            dest[pos++] = '.';
+            for (int i = pos + places - 1; i >= pos; i--)
+            {
+                dest[i] = (char) ('0' + fracPart % 10);
+                fracPart /= 10;
+            }
+            pos += places;
+        }
+        return pos;
+    }
+
+    /** Most chars write() can need: a sign, 309 digits (Double.MAX_VALUE), the point and the decimals */
+    public static int maxLength(int places)
+    {
+        checkPlaces(places);
+        return 1 + 309 + 1 + places;
+    }
+
+    /***** HELPER METHODS *****/
+
+    /** Room write() needs for this value: small unless it's huge (or NaN, which is short anyway) */
+    private static int bufferLength(double value, int places)
+    {
+        checkPlaces(places);
+        if (Math.abs(value) * POWERS_OF_TEN[places] < TWO_TO_53)
+        {
+            return 1 + 16 + 1 + places; // sign, at most 16 whole digits, the point, the decimals
+        }
+        return maxLength(places);
+    }
+
+    /** Copies text into dest at offset, returns the index just past it */
+    private static int writeText(String text, char[] dest, int offset)
+    {
+        text.getChars(0, text.length(), dest, offset);
+        return offset + text.length();
+    }
+
+    /** Rejects a places outside 0 to MAX_PLACES */
+    private static void checkPlaces(int places)
+    {
+        if (places < 0 || places > MAX_PLACES)
+        {
+            throw new IllegalArgumentException("places must be 0 to " + MAX_PLACES + ", got " + places);
+        }
+    }
+}
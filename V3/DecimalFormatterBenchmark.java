@@ -0,0 +1,195 @@
+/********************************************
+*   DecimalFormatterBenchmark
+*********************************************
+*   AUTHORS:    Jeff Peterson
+*   COLLABORATORS: None
+*   LAST MODIFIED:  05/27/2025
+********************************************
+*   PROGRAM DESCRIPTION:
+*   BENCHMARK of DecimalFormatter against String.format("%.3f").
+*   First checks DecimalFormatter against BigDecimal's HALF_EVEN
+*   rounding of the double's exact value (random values of every size,
+*   0 to 10 places, ties, NaN and infinity), then times format(),
+*   append() into a reused StringBuilder, and write() into a reused
+*   char[] against String.format, with bytes allocated per call.
+*********************************************
+*   ALGORITHM:
+*   Check fixed cases (ties, signs, NaN, infinity) and random values against BigDecimal
+*   Time each way of formatting the same values (best of several rounds, after warm-up)
+*   Print ns and bytes per call and the speedup over String.format
+*********************************************
+*   STATIC METHODS:
+*   main(String[] args)
+*   checkCase(double value, int places, String expected)
+*   checkRandom(SplittableRandom random, int count)
+*   expected(double value, int places): String
+*   timeFormatters(double[] values)
+*   time(int which, double[] values): long
+*********************************************
+*   IMPORTED PACKAGES NEEDED AND PURPOSE:
+*   BigDecimal, RoundingMode - the reference rounding
+*   Arrays - filling the best-time table
+*   SplittableRandom - random values (fixed seed, so runs repeat)
+*********************************************/
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class DecimalFormatterBenchmark
+{
+    /** Timed rounds per formatter (the best one is reported) and untimed warm-up rounds before them */
+    private static final int ROUNDS = 10;
+    private static final int WARM_UP = 10;
+
+    /** Places used for the timing, same as the calculator's output */
+    private static final int PLACES = 3;
+
+    /** Names of the ways to format, in time()'s order */
+    private static final String[] NAMES = {"String.format", "DecimalFormatter.format", "  .append (reused)", "  .write (reused char[])"};
+
+    /** Keeps the JIT from dropping work whose answers nobody reads */
+    private static long sink = 0;
+
+    public static void main(String[] args)
+    {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        SplittableRandom random = new SplittableRandom(18);
+
+        /***** FIXED CASES *****/
+        System.out.println("TESTING fixed cases");
+        checkCase(0.70710678, 3, "0.707");
+        checkCase(0.125, 2, "0.12");          // exact tie: to even
+        checkCase(0.375, 2, "0.38");
+        checkCase(2.5, 0, "2");
+        checkCase(-2.5, 0, "-2");
+        checkCase(1.0005, 3, "1.000");        // 1.0005 is really 1.000499999...
+        checkCase(-0.0, 3, "0.000");
+        checkCase(-0.0001, 3, "-0.000");
+        checkCase(1e20, 2, "100000000000000000000.00");
+        checkCase(Double.NaN, 3, "NaN");
+        checkCase(Double.POSITIVE_INFINITY, 3, "Infinity");
+        checkCase(Double.NEGATIVE_INFINITY, 3, "-Infinity");
+
+        /***** RANDOM VALUES *****/
+        System.out.println("\nTESTING " + count + " random values against BigDecimal HALF_EVEN");
+        checkRandom(random, count);
+
+        /***** SPEED *****/
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++)
+        {
+            values[i] = random.nextDouble(-2, 2); // trig-sized values
+        }
+        System.out.println("\nSPEED (" + count + " values in [-2, 2], " + PLACES + " places, best of " + ROUNDS + " rounds)");
+        timeFormatters(values);
+
+        System.out.println("\n" + TestHarness.summary() + "  (checksum " + sink + ")");
+    }
+
+    /** format(value, places) should be expected */
+    public static void checkCase(double value, int places, String expected)
+    {
+        String got = DecimalFormatter.format(value, places);
+        TestHarness.check(got.equals(expected), "format(" + value + ", " + places + ") = " + got + " (expected " + expected + ")");
+    }
+
+    /** Random values of every size and 0 to 10 places, against BigDecimal; prints the first few mismatches */
+    public static void checkRandom(SplittableRandom random, int count)
+    {
+        int different = 0;
+        for (int i = 0; i < count; i++)
+        {
+            double value;
+            switch (i % 3)
+            {
+                case 0:  value = random.nextDouble(-2, 2); break;
+                case 1:  value = random.nextDouble(-1, 1) * Math.pow(10, random.nextInt(-6, 17)); break;
+                default: value = random.nextInt(-100000, 100000) / 8.0; break; // lots of exact ties
+            }
+            int places = random.nextInt(11);
+            String got = DecimalFormatter.format(value, places);
+            String expected = expected(value, places);
+            if (!got.equals(expected))
+            {
+                different++;
+                if (different <= 5)
+                {
+                    System.out.println("  format(" + value + ", " + places + ") = " + got + ", expected " + expected);
+                }
+            }
+        }
+        TestHarness.check(different == 0, different + " of " + count + " differ");
+    }
+
+    /** The right answer: BigDecimal HALF_EVEN, a "-" kept on a negative that rounds to zero, none on -0.0 */
+    public static String expected(double value, int places)
+    {
+        String text = new BigDecimal(value).setScale(places, RoundingMode.HALF_EVEN).toPlainString();
+        if (value < 0 && !text.startsWith("-"))
+        {
+            text = "-" + text;
+        }
+        return text;
+    }
+
+    /** Times every way of formatting and prints ns and bytes per call */
+    public static void timeFormatters(double[] values)
+    {
+        long[] best = new long[NAMES.length];
+        long[] bytes = new long[NAMES.length];
+        Arrays.fill(best, Long.MAX_VALUE);
+
+        for (int round = 0; round < WARM_UP + ROUNDS; round++)
+        {
+            for (int which = 0; which < NAMES.length; which++)
+            {
+                long before = TestHarness.allocatedBytes();
+                long time = time(which, values);
+                long allocated = TestHarness.allocatedBytes() - before;
+                if (round >= WARM_UP)
+                {
+                    best[which] = Math.min(best[which], time);
+                    bytes[which] = allocated;
+                }
+            }
+        }
+
+        double n = values.length;
+        System.out.println("                              ns/call   bytes/call   vs String.format");
+        for (int which = 0; which < NAMES.length; which++)
+        {
+            System.out.printf("  %-26s %8.1f %12.1f %14.1fx%n", NAMES[which], best[which] / n, bytes[which] / n,
+                              (double) best[0] / best[which]);
+        }
+    }
+
+    /** Nanoseconds to format every value one way (0 = String.format, 1 = format, 2 = append, 3 = write) */
+    public static long time(int which, double[] values)
+    {
+        StringBuilder sb = new StringBuilder(64);
+        char[] buffer = new char[DecimalFormatter.maxLength(PLACES)];
+        long start = System.nanoTime();
+        for (double value : values)
+        {
+            switch (which)
+            {
+                case 0:
+                    sink += String.format("%.3f", value).length();
+                    break;
+                case 1:
+                    sink += DecimalFormatter.format(value, PLACES).length();
+                    break;
+                case 2:
+                    sb.setLength(0);
+                    sink += DecimalFormatter.append(sb, value, PLACES).length();
+                    break;
+                default:
+                    sink += DecimalFormatter.write(value, PLACES, buffer, 0);
+                    break;
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,327 @@
+/**
+ * -----------------------------------------
+ * DeckState
+ * -----------------------------------------
+ *
+ * One learner's progress through the quiz deck: which cards they
+ * have seen, which they missed last time, and which they have
+ * mastered (answered right MASTERY_STREAK times in a row).
+ *
+ * Each of those is a bitset over the card codes (see CardCode):
+ * bit c of a set is card c. All four sets (the three above, plus
+ * "right last time" for counting streaks) live in one long[], so
+ * a learner costs one small object and one array — 2 longs per set
+ * for the 78-card deck — however many cards they've answered.
+ *
+ *   DeckState state = new DeckState();
+ *   state.recordAnswer(CardCode.of(TrigFunction.SIN, 3), true);
+ *   state.isSeen(...)  ->  true,  state.isMastered(...)  ->  false (one right so far)
+ *
+ * toLongArray() / fromLongArray() save and restore the whole state.
+ *
+ * Not thread-safe: each learner's state should be used by one
+ * thread at a time (or guarded by the caller).
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + MASTERY_STREAK: int
+ * - WORDS: int
+ * - SEEN: int
+ * - MISSED: int
+ * - MASTERED: int
+ * - RIGHT_LAST: int
+ * -----------------------------------------
+ * - bits: long[]
+ * -----------------------------------------
+ * + DeckState()
+ * + DeckState(DeckState other)
+ *
+ * + void recordAnswer(int card, boolean correct)
+ * + void reset()
+ *
+ * + boolean isSeen(int card)
+ * + boolean isMissed(int card)
+ * + boolean isMastered(int card)
+ * + int countSeen()
+ * + int countMissed()
+ * + int countMastered()
+ * + int nextUnseen(int fromCard)
+ * + int nextMissed(int fromCard)
+ * + int[] unseenCards()
+ * + int[] missedCards()
+ * + int[] masteredCards()
+ *
+ * + long[] toLongArray()
+ * + DeckState fromLongArray(long[] saved)
+ * -----------------------------------------
+ * - get(int set, int card): boolean
+ * - put(int set, int card, boolean on): void
+ * - count(int set): int
+ * - next(int set, int fromCard, boolean on): int
+ * - cards(int set, boolean on): int[]
+ * - word(int set, int w, boolean on): long
+ * - validMask(int w): long
+ * - checkCard(int card): int
+ * -----------------------------------------
+*/
+
+import java.util.Arrays;
+
+public class DeckState
+{
+    /***** CONSTANTS *****/
+
+    /** Right answers in a row that make a card mastered */
+    public static final int MASTERY_STREAK = 2;
+
+    /** longs per set: one bit per card code */
+    private static final int WORDS = (CardCode.DECK_SIZE + 63) >>> 6;
+
+    /** Where each set starts in bits */
+    private static final int SEEN = 0;
+    private static final int MISSED = WORDS;
+    private static final int MASTERED = 2 * WORDS;
+    private static final int RIGHT_LAST = 3 * WORDS; // right on the last try (streak of 1)
+
+    /***** INSTANCE VARIABLES *****/
+    private final long[] bits;
+
+    /***** CONSTRUCTORS *****/
+
+    /** A learner who hasn't seen any cards */
+    public DeckState()
+    {
+        this.bits = new long[4 * WORDS];
+    }
+
+    /** Copy constructor — the copy and the original change separately */
+    public DeckState(DeckState other)
+    {
+        this.bits = other.bits.clone();
+    }
+
+    /***** UPDATING *****/
+
+    /**
+     * Records one answer to a card: marks it seen, then
+     * a wrong answer marks it missed and ends any streak (so it is no longer mastered);
+     * a right answer clears missed and counts toward mastering it.
+     */
+    public void recordAnswer(int card, boolean correct)
+    {
+        checkCard(card);
+        put(SEEN, card, true);
+        put(MISSED, card, !correct);
+
+        if (!correct)
+        {
+            put(RIGHT_LAST, card, false);
+            put(MASTERED, card, false);
+        }
+        else if (MASTERY_STREAK <= 1 || get(RIGHT_LAST, card))
+        {
+            put(MASTERED, card, true);
+        }
+        else
+        {
+            put(RIGHT_LAST, card, true);
+        }
+    }
+
+    /** Forgets everything, back to no cards seen */
+    public void reset()
+    {
+        Arrays.fill(bits, 0L);
+    }
+
+    /***** QUERIES *****/
+
+    /** True if the card has been asked at least once */
+    public boolean isSeen(int card)
+    {
+        return get(SEEN, checkCard(card));
+    }
+
+    /** True if the card's last answer was wrong */
+    public boolean isMissed(int card)
+    {
+        return get(MISSED, checkCard(card));
+    }
+
+    /** True if the card was answered right MASTERY_STREAK times in a row (and not missed since) */
+    public boolean isMastered(int card)
+    {
+        return get(MASTERED, checkCard(card));
+    }
+
+    /** Number of cards seen */
+    public int countSeen()
+    {
+        return count(SEEN);
+    }
+
+    /** Number of cards whose last answer was wrong */
+    public int countMissed()
+    {
+        return count(MISSED);
+    }
+
+    /** Number of cards mastered */
+    public int countMastered()
+    {
+        return count(MASTERED);
+    }
+
+    /** First unseen card at or after fromCard, or -1 if there's none. Makes no objects */
+    public int nextUnseen(int fromCard)
+    {
+        return next(SEEN, fromCard, false);
+    }
+
+    /** First missed card at or after fromCard, or -1 if there's none. Makes no objects */
+    public int nextMissed(int fromCard)
+    {
+        return next(MISSED, fromCard, true);
+    }
+
+    /** Codes of the cards not seen yet, in order */
+    public int[] unseenCards()
+    {
+        return cards(SEEN, false);
+    }
+
+    /** Codes of the cards whose last answer was wrong, in order */
+    public int[] missedCards()
+    {
+        return cards(MISSED, true);
+    }
+
+    /** Codes of the mastered cards, in order */
+    public int[] masteredCards()
+    {
+        return cards(MASTERED, true);
+    }
+
+    /***** SAVING *****/
+
+    /** The whole state as longs (a copy), for fromLongArray to read back */
+    public long[] toLongArray()
+    {
+        return bits.clone();
+    }
+
+    /**
+     * Rebuilds a state saved by toLongArray().
+     * @throws IllegalArgumentException if saved isn't the right length or has bits past the last card
+     */
+    public static DeckState fromLongArray(long[] saved)
+    {
+        if (saved.length != 4 * WORDS)
+        {
+            throw new IllegalArgumentException("saved deck state must have " + (4 * WORDS) + " longs, got " + saved.length);
+        }
+        DeckState state = new DeckState();
+        for (int i = 0; i < saved.length; i++)
+        {
+            if ((saved[i] & ~validMask(i % WORDS)) != 0)
+            {
+                throw new IllegalArgumentException("saved deck state has bits past the last card");
+            }
+            state.bits[i] = saved[i];
+        }
+        return state;
+    }
+
+    /***** HELPER METHODS *****/
+
+    /** Bit card of a set */
+    private boolean get(int set, int card)
+    {
+        return (bits[set + (card >>> 6)] & (1L << card)) != 0; // shift uses the low 6 bits
+    }
+
+    /** Sets or clears bit card of a set */
+    private void put(int set, int card, boolean on)
+    {
+        long mask = 1L << card;
+        int i = set + (card >>> 6);
+        bits[i] = on ? bits[i] | mask : bits[i] & ~mask;
+    }
+
+    /** Number of cards in a set */
+    private int count(int set)
+    {
+        int total = 0;
+        for (int w = 0; w < WORDS; w++)
+        {
+            total += Long.bitCount(bits[set + w]);
+        }
+        return total;
+    }
+
+    /** First card at or after fromCard that is (on) or isn't (!on) in a set, or -1 */
+    private int next(int set, int fromCard, boolean on)
+    {
+        if (fromCard < 0)
+        {
+            fromCard = 0;
+        }
+        for (int w = fromCard >>> 6; w < WORDS; w++)
+        {
+            long word = word(set, w, on);
+            if (w == fromCard >>> 6)
+            {
+                word &= -1L << fromCard; // drop cards before fromCard
+            }
+            if (word != 0)
+            {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return -1;
+    }
+
+    /** Codes of the cards that are (on) or aren't (!on) in a set */
+    private int[] cards(int set, boolean on)
+    {
+        int size = on ? count(set) : CardCode.DECK_SIZE - count(set);
+        int[] codes = new int[size];
+        int n = 0;
+        for (int w = 0; w < WORDS; w++)
+        {
+            long word = word(set, w, on);
+            while (word != 0)
+            {
+                codes[n++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1; // clear lowest bit
+            }
+        }
+        return codes;
+    }
+
+    /** Word w of a set, flipped when !on, with bits past the last card cleared */
+    private long word(int set, int w, boolean on)
+    {
+        return (on ? bits[set + w] : ~bits[set + w]) & validMask(w);
+    }
+
+    /** The bits of word w that are cards */
+    private static long validMask(int w)
+    {
+        int left = CardCode.DECK_SIZE - (w << 6); // cards in this word and beyond
+        return left >= 64 ? -1L : (1L << left) - 1;
+    }
+
+    /** Returns card, or throws if it isn't a card code */
+    private static int checkCard(int card)
+    {
+        if (!CardCode.isValid(card))
+        {
+            throw new IndexOutOfBoundsException("card code must be 0 to " + (CardCode.DECK_SIZE - 1) + ", got " + card);
+        }
+        return card;
+    }
+}
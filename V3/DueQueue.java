@@ -0,0 +1,230 @@
+/**
+ * -----------------------------------------
+ * DueQueue
+ * -----------------------------------------
+ *
+ * A priority queue of card codes (see CardCode) ordered by due time,
+ * for the spaced-repetition schedulers.
+ *
+ * It is a binary min-heap of ints plus, for each card, where it sits in
+ * the heap, so a card already in the queue can be moved to a new due time
+ * in place. Adding, moving, removing and taking the first card are all
+ * O(log n); looking at the first card is O(1). Cards due at the same time
+ * come out in the order they were (re)scheduled.
+ *
+ *   DueQueue queue = new DueQueue(CardCode.DECK_SIZE);
+ *   queue.schedule(17, 5);
+ *   queue.schedule(3, 2);
+ *   queue.peek()  ->  3,   queue.peekDue()  ->  2
+ *
+ * Makes no objects once built. Not thread-safe.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * - heap: int[]
+ * - position: int[]
+ * - due: long[]
+ * - order: long[]
+ * - size: int
+ * - nextOrder: long
+ * -----------------------------------------
+ * + DueQueue(int codeLimit)
+ *
+ * + void schedule(int card, long dueTime)
+ * + boolean remove(int card)
+ * + int poll()
+ * + int peek()
+ * + long peekDue()
+ * + long getDue(int card)
+ * + boolean contains(int card)
+ * + int size()
+ * + boolean isEmpty()
+ * -----------------------------------------
+ * - siftUp(int i): void
+ * - siftDown(int i): void
+ * - before(int a, int b): boolean
+ * - place(int card, int i): void
+ * -----------------------------------------
+*/
+
+import java.util.Arrays;
+
+public class DueQueue
+{
+    /***** INSTANCE VARIABLES *****/
+    private final int[] heap;      // card codes; heap[0] is due first
+    private final int[] position;  // position[card] = its index in heap, or -1 if not queued
+    private final long[] due;      // due[card] = when it's due
+    private final long[] order;    // order[card] = when it was scheduled, to break ties
+    private int size;
+    private long nextOrder;
+
+    /***** CONSTRUCTORS *****/
+
+    /**
+     * An empty queue.
+     * @param codeLimit cards can be 0 to codeLimit - 1
+     */
+    public DueQueue(int codeLimit)
+    {
+        if (codeLimit < 0)
+        {
+            throw new IllegalArgumentException("codeLimit must be 0 or more, got " + codeLimit);
+        }
+        this.heap = new int[codeLimit];
+        this.position = new int[codeLimit];
+        this.due = new long[codeLimit];
+        this.order = new long[codeLimit];
+        Arrays.fill(position, -1);
+    }
+
+    /***** UPDATING *****/
+
+    /** Adds card due at dueTime, or moves it there if it's already queued */
+    public void schedule(int card, long dueTime)
+    {
+        int i = position[card];
+        due[card] = dueTime;
+        order[card] = nextOrder++;
+        if (i < 0)
+        {
+            place(card, size++);
+            siftUp(size - 1);
+        }
+        else
+        {
+            siftUp(i);
+            siftDown(position[card]);
+        }
+    }
+
+    /** Takes card out of the queue. Returns false if it wasn't in it */
+    public boolean remove(int card)
+    {
+        int i = position[card];
+        if (i < 0)
+        {
+            return false;
+        }
+
+        position[card] = -1;
+        size--;
+        if (i < size) // move the last card into the hole
+        {
+            int moved = heap[size];
+            place(moved, i);
+            siftUp(i);
+            siftDown(position[moved]);
+        }
+        return true;
+    }
+
+    /** Takes out and returns the card due first, or -1 if the queue is empty */
+    public int poll()
+    {
+        int card = peek();
+        if (card >= 0)
+        {
+            remove(card);
+        }
+        return card;
+    }
+
+    /***** QUERIES *****/
+
+    /** The card due first (not taken out), or -1 if the queue is empty */
+    public int peek()
+    {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    /** When the first card is due, or Long.MAX_VALUE if the queue is empty */
+    public long peekDue()
+    {
+        return size == 0 ? Long.MAX_VALUE : due[heap[0]];
+    }
+
+    /** When card is due (only meaningful while contains(card)) */
+    public long getDue(int card)
+    {
+        return due[card];
+    }
+
+    /** True if card is in the queue */
+    public boolean contains(int card)
+    {
+        return position[card] >= 0;
+    }
+
+    /** Number of cards in the queue */
+    public int size()
+    {
+        return size;
+    }
+
+    /** True if no cards are queued */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /***** HELPER METHODS *****/
+
+    /** Moves the card at heap index i up until its parent is due before it */
+    private void siftUp(int i)
+    {
+        int card = heap[i];
+        while (i > 0)
+        {
+            int parent = (i - 1) >>> 1;
+            if (!before(card, heap[parent]))
+            {
+                break;
+            }
+            place(heap[parent], i);
+            i = parent;
+        }
+        place(card, i);
+    }
+
+    /** Moves the card at heap index i down until both children are due after it */
+    private void siftDown(int i)
+    {
+        int card = heap[i];
+        while (true)
+        {
+            int child = 2 * i + 1;
+            if (child >= size)
+            {
+                break;
+            }
+            if (child + 1 < size && before(heap[child + 1], heap[child]))
+            {
+                child++;
+            }
+            if (!before(heap[child], card))
+            {
+                break;
+            }
+            place(heap[child], i);
+            i = child;
+        }
+        place(card, i);
+    }
+
+    /** True if card a comes out before card b */
+    private boolean before(int a, int b)
+    {
+        return due[a] < due[b] || (due[a] == due[b] && order[a] < order[b]);
+    }
+
+    /** Puts card at heap index i */
+    private void place(int card, int i)
+    {
+        heap[i] = card;
+        position[card] = i;
+    }
+}
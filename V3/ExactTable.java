@@ -0,0 +1,231 @@
+/**
+ * -----------------------------------------
+ * ExactTable
+ * -----------------------------------------
+ *
+ * Exact values of all six trig functions at every multiple of
+ * π/12 (15°), π/8 (22.5°) and π/10 (18°) around the whole circle.
+ *
+ * All three fit on one grid of π/120 steps (120 = LCM of 12, 8, 10),
+ * so an angle num/den × π is on the table exactly when den divides 120,
+ * and then its step is num × (120/den). The table holds one interned
+ * AlgebraicValue per (function, step), 6 × 240 of them, with the quadrant
+ * sign already applied. Equal values share one instance, and each carries
+ * its written form, so nothing is built per lookup. It is filled once when
+ * the class loads, and a lookup is one array read.
+ *
+ * Only the first-quadrant closed forms are written out below (13 of them
+ * for sin, tan and csc). Everything else follows:
+ *   cos, cot, sec of θ = sin, tan, csc of (π/2 - θ)
+ *   other quadrants   = same reference angle, sign from TrigFunction
+ *
+ *   ExactTable.lookup(TrigFunction.SIN, 1, 12)   ->  (√6-√2)/4
+ *   ExactTable.lookup(TrigFunction.TAN, 7, 8)    ->  -(√2-1)
+ *
+ * AlgebraicValue.UNDEFINED (written "NaN", same as TrigCalcV3.EXACT_VALUES)
+ * marks an undefined value (tan(π/2), csc(0), ...).
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + GRID: int
+ * - REF_STEPS: int[]
+ * - SIN_FORMS: AlgebraicValue[]
+ * - TAN_FORMS: AlgebraicValue[]
+ * - CSC_FORMS: AlgebraicValue[]
+ * - REF_INDEX: int[]
+ * - VALUES: AlgebraicValue[][]
+ * -----------------------------------------
+ * + getStep(long num, long den): int
+ * + getStep(int quadrant, double refAngle): int
+ * + lookup(TrigFunction func, long num, long den): AlgebraicValue
+ * + lookup(TrigFunction func, int step): AlgebraicValue
+ * -----------------------------------------
+ * - buildRefIndex(): int[]
+ * - buildValues(): AlgebraicValue[][]
+ * - referenceForm(TrigFunction func, int refStep): AlgebraicValue
+ * - simple(long num, long den, long radicand): AlgebraicValue
+ * - compound(String form, double magnitude): AlgebraicValue
+ * -----------------------------------------
+*/
+
+import java.util.Arrays;
+
+public class ExactTable
+{
+    /***** CONSTANTS *****/
+
+    /** Grid steps per π (π/120 each) */
+    public static final int GRID = 120;
+
+    /** Reference angles (in π/120 steps, 0 to π/2) that have closed forms */
+    private static final int[] REF_STEPS = {0, 10, 12, 15, 20, 24, 30, 36, 40, 45, 48, 50, 60};
+
+    private static final double R2 = Math.sqrt(2);
+    private static final double R3 = Math.sqrt(3);
+    private static final double R5 = Math.sqrt(5);
+    private static final double R6 = Math.sqrt(6);
+
+    // One entry per REF_STEPS column: 0, π/12, π/10, π/8, π/6, π/5, π/4, 3π/10, π/3, 3π/8, 2π/5, 5π/12, π/2
+    private static final AlgebraicValue[] SIN_FORMS =
+    {
+        AlgebraicValue.ZERO, compound("(√6-√2)/4", (R6 - R2) / 4), compound("(√5-1)/4", (R5 - 1) / 4),
+        compound("√(2-√2)/2", Math.sqrt(2 - R2) / 2), simple(1, 2, 1), compound("√(10-2√5)/4", Math.sqrt(10 - 2 * R5) / 4),
+        simple(1, 2, 2), compound("(√5+1)/4", (R5 + 1) / 4), simple(1, 2, 3),
+        compound("√(2+√2)/2", Math.sqrt(2 + R2) / 2), compound("√(10+2√5)/4", Math.sqrt(10 + 2 * R5) / 4),
+        compound("(√6+√2)/4", (R6 + R2) / 4), AlgebraicValue.ONE
+    };
+    private static final AlgebraicValue[] TAN_FORMS =
+    {
+        AlgebraicValue.ZERO, compound("2-√3", 2 - R3), compound("√(25-10√5)/5", Math.sqrt(25 - 10 * R5) / 5),
+        compound("√2-1", R2 - 1), simple(1, 3, 3), compound("√(5-2√5)", Math.sqrt(5 - 2 * R5)),
+        AlgebraicValue.ONE, compound("√(25+10√5)/5", Math.sqrt(25 + 10 * R5) / 5), simple(1, 1, 3),
+        compound("√2+1", R2 + 1), compound("√(5+2√5)", Math.sqrt(5 + 2 * R5)),
+        compound("2+√3", 2 + R3), AlgebraicValue.UNDEFINED
+    };
+    private static final AlgebraicValue[] CSC_FORMS =
+    {
+        AlgebraicValue.UNDEFINED, compound("√6+√2", R6 + R2), compound("√5+1", R5 + 1),
+        compound("√(4+2√2)", Math.sqrt(4 + 2 * R2)), simple(2, 1, 1), compound("√(50+10√5)/5", Math.sqrt(50 + 10 * R5) / 5),
+        simple(1, 1, 2), compound("√5-1", R5 - 1), simple(2, 3, 3),
+        compound("√(4-2√2)", Math.sqrt(4 - 2 * R2)), compound("√(50-10√5)/5", Math.sqrt(50 - 10 * R5) / 5),
+        compound("√6-√2", R6 - R2), AlgebraicValue.ONE
+    };
+
+    /** How close (in radians) a decimal angle must be to a grid point to count as special */
+    private static final double ANGLE_TOLERANCE = 1e-12;
+
+    /** π/120 in radians */
+    private static final double STEP = Math.PI / GRID;
+
+    /** REF_INDEX[s] = position of reference step s in REF_STEPS, or -1 */
+    private static final int[] REF_INDEX = buildRefIndex();
+
+    /** VALUES[function][step] = signed exact value, or null if the step isn't special */
+    private static final AlgebraicValue[][] VALUES = buildValues();
+
+    /***** LOOKUP *****/
+
+    /**
+     * Grid step (0 to 2·GRID - 1) of an angle num/den × π,
+     * or -1 if it isn't on the grid.
+     * @param num numerator, already in [0, 2·den) (see PiCleaner.normalizePiNumerator)
+     * @param den denominator, positive and reduced
+     */
+    public static int getStep(long num, long den)
+    {
+        if (den <= 0 || den > GRID || GRID % den != 0)
+        {
+            return -1;
+        }
+        return (int) (num * (GRID / den));
+    }
+
+    /**
+     * Grid step of a decimal angle given as its quadrant (1–4) and reference
+     * angle (0 to π/2), or -1 if it isn't within ANGLE_TOLERANCE of a grid point.
+     */
+    public static int getStep(int quadrant, double refAngle)
+    {
+        double steps = refAngle / STEP;
+        double nearest = Math.rint(steps);
+        if (!(Math.abs(steps - nearest) * STEP <= ANGLE_TOLERANCE) || nearest < 0 || nearest > GRID / 2)
+        {
+            return -1;
+        }
+
+        int ref = (int) nearest;
+        switch (quadrant)
+        {
+            case 1:  return ref;
+            case 2:  return GRID - ref;
+            case 3:  return GRID + ref;
+            default: return (2 * GRID - ref) % (2 * GRID); // 2π is the same step as 0
+        }
+    }
+
+    /**
+     * Exact value of func at num/den × π, or null if the angle isn't special.
+     * @param num numerator, already in [0, 2·den)
+     * @param den denominator, positive and reduced
+     */
+    public static AlgebraicValue lookup(TrigFunction func, long num, long den)
+    {
+        int step = getStep(num, den);
+        return step < 0 ? null : VALUES[func.ordinal()][step];
+    }
+
+    /** Exact value of func at a grid step (0 to 2·GRID - 1), or null if the step isn't special */
+    public static AlgebraicValue lookup(TrigFunction func, int step)
+    {
+        return VALUES[func.ordinal()][step];
+    }
+
+    /***** HELPER METHODS *****/
+
+    /** Builds REF_INDEX */
+    private static int[] buildRefIndex()
+    {
+        int[] index = new int[GRID / 2 + 1];
+        Arrays.fill(index, -1);
+        for (int i = 0; i < REF_STEPS.length; i++)
+        {
+            index[REF_STEPS[i]] = i;
+        }
+        return index;
+    }
+
+    /** Builds every signed value once, for every function and every step */
+    private static AlgebraicValue[][] buildValues()
+    {
+        AlgebraicValue[][] values = new AlgebraicValue[TrigFunction.count()][2 * GRID];
+
+        for (int step = 0; step < 2 * GRID; step++)
+        {
+            int quadrant = PiCleaner.getQuadrant(step, GRID);
+            int refStep = (int) PiCleaner.getReferenceNumerator(step, GRID);
+            if (REF_INDEX[refStep] < 0)
+            {
+                continue; // not special
+            }
+
+            for (int f = 0; f < TrigFunction.count(); f++)
+            {
+                TrigFunction func = TrigFunction.fromIndex(f);
+                values[f][step] = PiCleaner.applySign(func, quadrant, referenceForm(func, refStep));
+            }
+        }
+        return values;
+    }
+
+    /** First-quadrant closed form of func at a special reference step */
+    private static AlgebraicValue referenceForm(TrigFunction func, int refStep)
+    {
+        int same = REF_INDEX[refStep];              // θ
+        int mirror = REF_INDEX[GRID / 2 - refStep]; // π/2 - θ
+
+        switch (func)
+        {
+            case SIN: return SIN_FORMS[same];
+            case COS: return SIN_FORMS[mirror];
+            case TAN: return TAN_FORMS[same];
+            case CSC: return CSC_FORMS[same];
+            case SEC: return CSC_FORMS[mirror];
+            default:  return TAN_FORMS[mirror]; // COT
+        }
+    }
+
+    /** Shorthand for AlgebraicValue.of, to keep the tables above readable */
+    private static AlgebraicValue simple(long num, long den, long radicand)
+    {
+        return AlgebraicValue.of(num, den, radicand);
+    }
+
+    /** Shorthand for AlgebraicValue.compound */
+    private static AlgebraicValue compound(String form, double magnitude)
+    {
+        return AlgebraicValue.compound(form, magnitude);
+    }
+}
@@ -2,143 +2,134 @@
  * -----------------------------------------
  * Flashcard
  * -----------------------------------------
- * 
- * Holds data for a single flashcard used 
+ *
+ * Holds data for a single flashcard used
  * in the unit circle quiz.
- * 
- * Stores a trig function, a radian angle,
- * and the correct exact trig value.
- * 
- * Used to compare answers and display
- * results during the flashcard quiz.
- * 
+ *
+ * Stores a trig function, a quiz angle (as its index and as
+ * radian text), and the correct exact trig value (an AlgebraicValue,
+ * so comparing two values is one == check).
+ *
+ * Flashcards can't be changed, and TrigEngine builds every one
+ * of them once, up front: TrigEngine.getFlashcard hands back the
+ * same object for the same question every time. So a card can be
+ * kept, shared between threads, or compared with == freely.
+ * getIndex() is the card's place in that deck.
+ *
  * Author: Jeff Peterson
- * 
+ *
  * -----------------------------------------
  * UML CLASS DIAGRAM
  * -----------------------------------------
- * - trigFunction: String
+ * - function: TrigFunction
+ * - angleIndex: int
  * - radian: String
- * - exactValue: String
+ * - exactValue: AlgebraicValue
  * -----------------------------------------
- * + Flashcard()
- * + Flashcard(String func, String radian, String exactValue)
- * + Flashcard(Flashcard other)
- * 
- * + void setAll(String, String, String)
- * + void setTrigFunction(String)
- * + void setRadian(String)
- * + void setExactValue(String)
- * 
+ * ~ Flashcard(TrigFunction func, int angleIndex, String radian, AlgebraicValue exactValue)
+ *
+ * + TrigFunction getFunction()
  * + String getTrigFunction()
+ * + int getAngleIndex()
+ * + int getIndex()
  * + String getRadian()
- * + String getExactValue()
- * 
+ * + AlgebraicValue getExactValue()
+ *
  * + String toString()
- * + boolean equals(Flashcard)
+ * + boolean equals(Object)
+ * + int hashCode()
  * -----------------------------------------
 */
 
-public class Flashcard
+public final class Flashcard
 {
-        
+
     /***** INSTANCE VARIABLES *****/
-    private String trigFunction;  // e.g. "Sine"
-    private String radian;        // e.g. "π/4"
-    private String exactValue;    // e.g. "√2/2"
+    private final TrigFunction function;     // e.g. SIN
+    private final int angleIndex;            // e.g. 3, for 3·π/12
+    private final String radian;             // e.g. "π/4"
+    private final AlgebraicValue exactValue; // e.g. √2/2
 
     /***** CONSTRUCTORS *****/
 
-    /** Default constructor */
-    public Flashcard() 
-    {
-        this.setAll("Sine", "π/2", "1");
-    }
-
-    /**  Full constructor — sets all values using parameters */
-    public Flashcard(String trigFunction, String radian, String exactValue) 
-    {
-        this.setAll(trigFunction, radian, exactValue);
-    }
-
-    /** Copy constructor — creates a new Flashcard from an existing one */
-    public Flashcard(Flashcard original) 
+    /**
+     * Full constructor — only TrigEngine makes cards, once each
+     * (use TrigEngine.getFlashcard to get one).
+     */
+    Flashcard(TrigFunction function, int angleIndex, String radian, AlgebraicValue exactValue)
     {
-        if (original != null) 
-        {
-            this.setAll(original.trigFunction, original.radian, original.exactValue);
-        } 
-        else 
-        {
-            System.out.println("ERROR: attempt to copy null Flashcard. Exiting.");
-            System.exit(0);
-        }
+        this.function = function;
+        this.angleIndex = angleIndex;
+        this.radian = radian;
+        this.exactValue = exactValue;
     }
 
-    /***** SETTERS (mutators) *****/
-
-    /** Sets the trig function */
-    public void setTrigFunction(String trigFunction) 
-    {
-        this.trigFunction = trigFunction;
-    }
+    /***** GETTERS (accessors) *****/
 
-    /** Sets the radian */
-    public void setRadian(String radian) 
+    /** Gets the trig function */
+    public TrigFunction getFunction()
     {
-        this.radian = radian;
+        return function;
     }
 
-    /** Sets the exact value */
-    public void setExactValue(String exactValue) 
+    /** Gets the trig function's short name (e.g. "sin") */
+    public String getTrigFunction()
     {
-        this.exactValue = exactValue;
+        return function.getShortName();
     }
 
-    /** setAll */
-    public void setAll(String trigFunction, String radian, String exactValue) 
+    /** Gets the quiz angle index: the angle is angleIndex·π/12 */
+    public int getAngleIndex()
     {
-        this.trigFunction = trigFunction;
-        this.radian = radian;
-        this.exactValue = exactValue;
+        return angleIndex;
     }
 
-    /***** GETTERS (accessors) *****/
-
-    /** Gets the trig function name (e.g. "Sine") */
-    public String getTrigFunction() 
+    /** Gets this card's place in the deck (0 to TrigEngine.getDeckSize() - 1) */
+    public int getIndex()
     {
-        return trigFunction;
+        return function.ordinal() * TrigEngine.QUIZ_ANGLES + angleIndex;
     }
 
     /** Gets the radian value (e.g. "π/4") */
-    public String getRadian() 
+    public String getRadian()
     {
         return radian;
     }
 
-    /** Gets the exact trig value (e.g. "√2/2") */
-    public String getExactValue() 
+    /** Gets the exact trig value (e.g. √2/2) */
+    public AlgebraicValue getExactValue()
     {
         return exactValue;
     }
 
     /***** toString *****/
-    public String toString() 
+    public String toString()
     {
-        return trigFunction + "("+ radian + ")" + " = " + exactValue;
+        return getTrigFunction() + "("+ radian + ")" + " = " + exactValue;
     }
-     /***** equals *****/
-    public boolean equals(Flashcard other)
+
+    /***** equals *****/
+    public boolean equals(Object other)
     {
-        if (other == null) 
+        if (this == other)
+        {
+            return true; // the usual case: cards are canonical
+        }
+        if (!(other instanceof Flashcard))
         {
             return false;
         }
 
-        return this.trigFunction.equals(other.trigFunction)
-            && this.radian.equals(other.radian)
-            && this.exactValue.equals(other.exactValue);
+        Flashcard card = (Flashcard) other;
+        return this.function == card.function
+            && this.angleIndex == card.angleIndex
+            && this.exactValue == card.exactValue; // canonical, so == is enough
+    }
+
+    /***** hashCode *****/
+    public int hashCode()
+    {
+        return getIndex(); // different for every card in the deck
     }
 
-}
\ No newline at end of file
+}
@@ -4,23 +4,53 @@
  * -----------------------------------------
  * 
  * Runs the flashcard quiz portion of the trig tool.
- * Randomly selects a trig function and angle, then quizzes the user
- * on the exact trig value. Tracks score and offers multiple attempts.
+ * A CardScheduler (Leitner boxes unless another is passed in) picks each
+ * trig function and angle, then quizzes the user on the exact trig value;
+ * every answer goes back to the scheduler, so missed cards come back soon
+ * and known ones less often. Tracks score and offers multiple attempts.
+ * Answer choices and checking come from TrigEngine — this class is the console front-end.
+ * Cards come from TrigEngine's deck, built once, so asking and checking a
+ * question makes no new Flashcard objects. Progress (seen, missed, mastered)
+ * is kept per run as a DeckState of card codes.
+ * Randomness comes from a SplittableRandom (see QuizRandom): this thread's
+ * own by default, or a seeded one to repeat a run exactly.
  * 
  * Author: Jeff Peterson
  * 
  * -----------------------------------------
  * UML CLASS DIAGRAM
  * -----------------------------------------
+ * - THREAD_BAG: ThreadLocal<ShuffleBag>
+ * - LINE_WIDTH: int
+ * - ANSWER_BOX_WIDTH: int
+ * -----------------------------------------
  * + getRandomFlashcard()
+ * + getRandomFlashcard(ShuffleBag bag)
  * + runFlashcard()
+ * + runFlashcard(Scanner input)
+ * + runFlashcard(Scanner input, SplittableRandom random)
+ * + runFlashcard(Scanner input, CardScheduler scheduler)
+ * -----------------------------------------
+ * - printChoices(TrigFunction func, int choiceCount): void
+ * - printAnswerBox(Flashcard card): void
+ * - answerBoxWidth(): int
  * -----------------------------------------
 */
 
 import java.util.Scanner;
+import java.util.SplittableRandom;
 
 public class FlashcardFactory
 {
+    /** Each thread's bag of card codes for getRandomFlashcard() */
+    private static final ThreadLocal<ShuffleBag> THREAD_BAG =
+        ThreadLocal.withInitial(() -> new ShuffleBag(CardCode.deck(), QuizRandom.forThread()));
+
+    /** Width of the ═ rules; the answer choices wrap to fit inside it */
+    private static final int LINE_WIDTH = 70;
+
+    /** Inside width of the right-answer box: fits the longest card in the deck */
+    private static final int ANSWER_BOX_WIDTH = answerBoxWidth();
 
     /**
      * Main flashcard quiz loop.
@@ -29,10 +59,38 @@ public class FlashcardFactory
      */
     public static void runFlashcard()
     {
-        Scanner input = new Scanner(System.in);
+        runFlashcard(new Scanner(System.in));
+    }
+
+    /**
+     * Same as runFlashcard(), reading from the given Scanner
+     * (so the main menu can share its Scanner instead of opening a second one).
+     * Cards are scheduled with Leitner boxes over the whole deck, new cards in random order.
+     */
+    public static void runFlashcard(Scanner input)
+    {
+        runFlashcard(input, QuizRandom.forThread());
+    }
+
+    /**
+     * Same as runFlashcard(Scanner), with the order of new cards drawn from random.
+     * A SplittableRandom with a fixed seed (and the same answers) gives the same quiz every time.
+     */
+    public static void runFlashcard(Scanner input, SplittableRandom random)
+    {
+        runFlashcard(input, new LeitnerScheduler(QuizRandom.shuffle(CardCode.deck(), random)));
+    }
+
+    /**
+     * Same as runFlashcard(Scanner), asking the cards scheduler picks
+     * and telling it each answer.
+     */
+    public static void runFlashcard(Scanner input, CardScheduler scheduler)
+    {
         boolean keepGoing = true;
         int correctCount = 0;
         int totalCount = 0;
+        DeckState progress = new DeckState();
 
         // Welcome banner
         System.out.println("\n                    ╔═══════════════════════════╗");
@@ -42,33 +100,26 @@ public class FlashcardFactory
         // Loop through questions until user quits or returns to menu
         while (keepGoing) 
         {
-            // Generate random flashcard (function, angle, exact value)
-            Flashcard correct = getRandomFlashcard();
+            // Ask the scheduler for the next card (function, angle, exact value)
+            int card = scheduler.nextCard();
+            Flashcard correct = CardCode.toFlashcard(card);
 
             // Ask the question
             System.out.println("\n    What is " + correct.getTrigFunction() + "(" + correct.getRadian() + ")?");
             System.out.println("══════════════════════════════════════════════════════════════════════");
                 
 
-            // Show options 1–7 from Cosine row
-            for (int i = 1; i <= 7; i++) 
-            {
-                System.out.printf("%2d. %-6s", i, TrigCalcV3.EXACT_VALUES[1][i]);
-            }
-            System.out.println("\n");
-            
-            // Show options 8–14 from Tangent row
-            for (int i = 1; i <= 7; i++) 
-            {
-                System.out.printf("%2d. %-6s", i + 7, TrigCalcV3.EXACT_VALUES[2][i]);
-            }
+            // Show this function's possible values, as many to a row as fit
+            TrigFunction func = correct.getFunction();
+            int choiceCount = TrigEngine.getAnswerChoiceCount(func);
+            printChoices(func, choiceCount);
             System.out.println("\n══════════════════════════════════════════════════════════════════════");
 
-            // Get a valid user input (must be 1–14)
+            // Get a valid user input (must be one of the choices)
             int userChoice = -1;
-            while (userChoice < 1 || userChoice > 14) 
+            while (userChoice < 1 || userChoice > choiceCount) 
             {
-                System.out.print("Select your answer (1–14): ");
+                System.out.print("Select your answer (1–" + choiceCount + "): ");
 
                 if (input.hasNextInt()) 
                 {
@@ -82,26 +133,20 @@ public class FlashcardFactory
             }
 
             // Get the value associated with that answer number
-            String userValue;
-            if (userChoice <= 7) 
-            {
-                userValue = TrigCalcV3.EXACT_VALUES[1][userChoice]; // Cosine
-            } 
-            else 
-            {
-                userValue = TrigCalcV3.EXACT_VALUES[2][userChoice - 7]; // Tangent
-            }
+            AlgebraicValue userValue = TrigEngine.getAnswerChoice(func, userChoice);
 
-            // Build the user's flashcard and check correctness
-            Flashcard userCard = new Flashcard(correct.getTrigFunction(), correct.getRadian(), userValue);
+            // Checked against the deck's card by answer number — no card is built for the guess
             totalCount++;
             
             System.out.println();
-            System.out.println("    You chose: " + userCard);
+            System.out.println("    You chose: " + correct.getTrigFunction() + "(" + correct.getRadian() + ") = " + userValue);
             System.out.println();
 
             // Give feedback
-            if (userCard.equals(correct)) 
+            boolean right = TrigEngine.isCorrect(correct, userChoice);
+            progress.recordAnswer(card, right);
+            scheduler.recordAnswer(card, right);
+            if (right) 
             {
                 correctCount++;
                 System.out.println("                            ✨ Correct!✨");
@@ -112,14 +157,11 @@ public class FlashcardFactory
             }
 
             // Show the right answer
-            System.out.println("                    ╔═══════════════════════════╗");
-            System.out.println("                    ║                           ║");
-            System.out.printf("                    ║%5s%-18s%4s║%n", "", correct, "");
-            System.out.println("                    ║                           ║");
-            System.out.println("                    ╚═══════════════════════════╝");
+            printAnswerBox(correct);
 
             // Score so far
             System.out.println("                          Score: " + correctCount + " out of " + totalCount);
+            System.out.println("                       Mastered: " + progress.countMastered() + " of " + CardCode.DECK_SIZE + " cards");
             System.out.println("\n══════════════════════════════════════════════════════════════════════");
 
             // Ask what to do next. Keep asking until the user enters "g", "m", or "q"
@@ -149,22 +191,72 @@ public class FlashcardFactory
         }
     }
 
+    /** Prints func's answer choices numbered from 1, in columns as wide as its longest choice */
+    private static void printChoices(TrigFunction func, int choiceCount)
+    {
+        int longest = 0;
+        for (int i = 1; i <= choiceCount; i++)
+        {
+            longest = Math.max(longest, TrigEngine.getAnswerChoice(func, i).toString().length());
+        }
+        int cellWidth = longest + 2;
+        int perRow = Math.max(1, LINE_WIDTH / (cellWidth + 4)); // 4 for the "12. "
+
+        for (int i = 1; i <= choiceCount; i++)
+        {
+            System.out.printf("%2d. %-" + cellWidth + "s", i, TrigEngine.getAnswerChoice(func, i));
+            if (i % perRow == 0 && i < choiceCount)
+            {
+                System.out.println("\n");
+            }
+        }
+    }
+
+    /** Prints the card ("sin(π/6) = 1/2") centered in a box as wide as the longest card */
+    private static void printAnswerBox(Flashcard card)
+    {
+        String text = card.toString();
+        int left = (ANSWER_BOX_WIDTH - text.length()) / 2;
+        String margin = "                    ";
+        String rule = "═".repeat(ANSWER_BOX_WIDTH);
+        String blank = " ".repeat(ANSWER_BOX_WIDTH);
+
+        System.out.println(margin + "╔" + rule + "╗");
+        System.out.println(margin + "║" + blank + "║");
+        System.out.println(margin + "║" + " ".repeat(left) + text + " ".repeat(ANSWER_BOX_WIDTH - left - text.length()) + "║");
+        System.out.println(margin + "║" + blank + "║");
+        System.out.println(margin + "╚" + rule + "╝");
+    }
+
+    /** Longest card text in the deck plus 4 spaces each side, and never narrower than the 27-wide banner */
+    private static int answerBoxWidth()
+    {
+        int longest = 0;
+        for (int i = 0; i < TrigEngine.getDeckSize(); i++)
+        {
+            longest = Math.max(longest, TrigEngine.getFlashcard(i).toString().length());
+        }
+        return Math.max(27, longest + 8);
+    }
 
     /**
-     * Randomly generates a Flashcard by selecting a trig function and angle.
-     * Pulls the correct value from the exact value table based on row/col.
+     * Randomly picks a Flashcard (any trig function, any quiz angle) from TrigEngine's deck.
+     * Draws from this thread's ShuffleBag, so every card comes up once before any repeats.
+     * The card is shared, not a copy — Flashcards can't be changed, so that's safe.
      * 
      * @return a Flashcard with the function, angle, and correct value
      */
     public static Flashcard getRandomFlashcard() 
     {
-        int funcIndex = (int)(Math.random() * TrigCalcV3.TRIG_FUNCTIONS.length);
-        int angleIndex = (int)(Math.random() * TrigCalcV3.EXACT_VALUES[0].length);
-
-        String func = TrigCalcV3.TRIG_FUNCTIONS[funcIndex];
-        String angle = TrigCalcV3.RADIANS[angleIndex];
-        String exact = TrigCalcV3.EXACT_VALUES[funcIndex][angleIndex];
+        return getRandomFlashcard(THREAD_BAG.get());
+    }
 
-        return new Flashcard(func, angle, exact);
+    /**
+     * Same as getRandomFlashcard(), drawing from the given bag of card codes
+     * (e.g. new ShuffleBag(CardCode.deck(), new SplittableRandom(seed)) for a repeatable run).
+     */
+    public static Flashcard getRandomFlashcard(ShuffleBag bag) 
+    {
+        return CardCode.toFlashcard(bag.next());
     }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+/**
+ * -----------------------------------------
+ * IntervalScheduler
+ * -----------------------------------------
+ *
+ * The part of a spaced-repetition CardScheduler that doesn't depend on
+ * the algorithm: a clock, the not-yet-asked cards, and a DueQueue of
+ * the cards already asked, keyed by when each is due again.
+ *
+ * Time is counted in answers, not hours: every recordAnswer moves the
+ * clock on by one. So an interval of 3 means "ask it again once three
+ * more questions have been answered" — which suits a quiz sitting,
+ * where the learner answers a card every few seconds.
+ *
+ * nextCard picks, in this order:
+ *   1. the next card not asked yet (in deck order), if NEW_CARD_GAP answers
+ *      have gone by without one — so a learner stuck on hard cards still
+ *      moves on through the deck
+ *   2. the card due first, if it is due now (or overdue)
+ *   3. otherwise the next card not asked yet
+ *   4. otherwise (everything asked, nothing due) the card due first anyway
+ * Each pick is O(log n) or better (a heap peek), however big the deck.
+ *
+ * Subclasses only say how far off a card's next showing is after
+ * an answer (nextInterval).
+ *
+ * Not thread-safe: one learner, one thread at a time.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + NEW_CARD_GAP: int
+ * -----------------------------------------
+ * - newCards: int[]
+ * - nextNew: int
+ * - queue: DueQueue
+ * - inDeck: boolean[]
+ * - now: long
+ * - lastNew: long
+ * -----------------------------------------
+ * # IntervalScheduler(int[] deck)
+ *
+ * + int nextCard()
+ * + void recordAnswer(int card, boolean correct)
+ * + long getTime()
+ * + int getDeckSize()
+ * # int getCodeLimit()
+ * # long nextInterval(int card, boolean correct)   (abstract)
+ * -----------------------------------------
+ * - skipAsked(): void
+ * -----------------------------------------
+*/
+
+public abstract class IntervalScheduler implements CardScheduler
+{
+    /***** CONSTANTS *****/
+
+    /** Most answers in a row before a new card is brought in, even with cards due */
+    public static final int NEW_CARD_GAP = 4;
+
+    /***** INSTANCE VARIABLES *****/
+    private final int[] newCards;   // the deck, in the order cards are first asked
+    private int nextNew;            // newCards[nextNew] is the next card not asked yet
+    private final DueQueue queue;   // cards asked at least once, by due time
+    private final boolean[] inDeck; // inDeck[card] = card is one of newCards
+    private long now;               // answers recorded so far
+    private long lastNew;           // now when the last new card was answered
+
+    /***** CONSTRUCTORS *****/
+
+    /**
+     * A schedule for deck, with no cards asked yet.
+     * @param deck card codes (0 or more, no repeats), in the order to introduce them
+     */
+    protected IntervalScheduler(int[] deck)
+    {
+        int limit = 0;
+        for (int card : deck)
+        {
+            if (card < 0)
+            {
+                throw new IllegalArgumentException("card codes must be 0 or more, got " + card);
+            }
+            limit = Math.max(limit, card + 1);
+        }
+
+        this.inDeck = new boolean[limit];
+        for (int card : deck)
+        {
+            if (inDeck[card])
+            {
+                throw new IllegalArgumentException("card " + card + " is in the deck twice");
+            }
+            inDeck[card] = true;
+        }
+        if (deck.length == 0)
+        {
+            throw new IllegalArgumentException("deck is empty");
+        }
+
+        this.newCards = deck.clone();
+        this.queue = new DueQueue(limit);
+    }
+
+    /***** SCHEDULING *****/
+
+    /** The card to ask next (see the class comment for the order) */
+    public int nextCard()
+    {
+        boolean newLeft = nextNew < newCards.length;
+        if (newLeft && now - lastNew >= NEW_CARD_GAP)
+        {
+            return newCards[nextNew];
+        }
+        if (queue.peekDue() <= now || !newLeft)
+        {
+            return queue.peek();
+        }
+        return newCards[nextNew];
+    }
+
+    /** Moves the clock on one answer and puts card back in the queue, due nextInterval from now */
+    public void recordAnswer(int card, boolean correct)
+    {
+        if (card < 0 || card >= inDeck.length || !inDeck[card])
+        {
+            throw new IllegalArgumentException("card " + card + " is not in this deck");
+        }
+
+        now++;
+        if (!queue.contains(card))
+        {
+            lastNew = now;
+        }
+        long interval = Math.max(1, nextInterval(card, correct));
+        long due = now + interval;
+        queue.schedule(card, due < now ? Long.MAX_VALUE : due); // overflowed: just "last of all"
+        skipAsked();
+    }
+
+    /** Answers recorded so far (the scheduler's clock) */
+    public long getTime()
+    {
+        return now;
+    }
+
+    /** Number of cards in the deck */
+    public int getDeckSize()
+    {
+        return newCards.length;
+    }
+
+    /** Card codes are below this, so subclasses can size per-card arrays with it */
+    protected int getCodeLimit()
+    {
+        return inDeck.length;
+    }
+
+    /**
+     * How many answers from now card should be asked again, after this answer.
+     * Called once per recordAnswer, before card is rescheduled; 1 is the least
+     * (anything smaller is taken as 1).
+     */
+    protected abstract long nextInterval(int card, boolean correct);
+
+    /***** HELPER METHODS *****/
+
+    /** Moves nextNew past cards that have been asked already (answered out of turn) */
+    private void skipAsked()
+    {
+        while (nextNew < newCards.length && queue.contains(newCards[nextNew]))
+        {
+            nextNew++;
+        }
+    }
+}
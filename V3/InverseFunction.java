@@ -0,0 +1,183 @@
+/**
+ * -----------------------------------------
+ * InverseFunction
+ * -----------------------------------------
+ *
+ * The inverse trig functions: arcsine, arccosine and arctangent.
+ * Each one knows which TrigFunction it undoes, and keeps a reverse
+ * index from exact values to the angles that give them:
+ *
+ *   InverseFunction.ASIN.findExactStep("√2/2")   ->  30  (30 steps of π/120 = π/4)
+ *   TrigEngine.evaluate("asin", "√2/2")          ->  asin(√2/2) = π/4
+ *
+ * The index is built once (when the class loads) by reading ExactTable
+ * across the function's principal range, and can't be changed after:
+ *   asin: -π/2 to π/2    acos: 0 to π    atan: -π/2 to π/2
+ * Any value not in the index is worked out with Math.asin/acos/atan instead.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * ASIN, ACOS, ATAN
+ * -----------------------------------------
+ * - ALL: InverseFunction[]
+ * -----------------------------------------
+ * - shortName: String
+ * - displayName: String
+ * - inverse: TrigFunction
+ * - exactSteps: Map<String, Integer>
+ * -----------------------------------------
+ * + getShortName(): String
+ * + getDisplayName(): String
+ * + getInverse(): TrigFunction
+ * + findExactStep(String value): Integer
+ * + fromIndex(int index): InverseFunction
+ * + fromName(String name): InverseFunction
+ * + count(): int
+ * -----------------------------------------
+ * ~ fromValue(double x): double
+ * - buildExactSteps(TrigFunction func, int lowStep, int highStep): Map<String, Integer>
+ * -----------------------------------------
+*/
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public enum InverseFunction
+{
+    //   short   display       undoes            principal range, in ExactTable steps
+    ASIN("asin", "Arcsine",    TrigFunction.SIN, -ExactTable.GRID / 2, ExactTable.GRID / 2)
+    {
+        double fromValue(double x)
+        {
+            return Math.asin(x);
+        }
+    },
+    ACOS("acos", "Arccosine",  TrigFunction.COS, 0, ExactTable.GRID)
+    {
+        double fromValue(double x)
+        {
+            return Math.acos(x);
+        }
+    },
+    ATAN("atan", "Arctangent", TrigFunction.TAN, -ExactTable.GRID / 2, ExactTable.GRID / 2)
+    {
+        double fromValue(double x)
+        {
+            return Math.atan(x);
+        }
+    };
+
+    /** All inverse functions in order (values() makes a new array on every call) */
+    private static final InverseFunction[] ALL = values();
+
+    /***** INSTANCE VARIABLES *****/
+    private final String shortName;               // e.g. "asin"
+    private final String displayName;             // e.g. "Arcsine", used in menus
+    private final TrigFunction inverse;           // the function this one undoes
+    private final Map<String, Integer> exactSteps; // exact value -> angle in ExactTable steps (read-only)
+
+    /***** CONSTRUCTOR *****/
+    InverseFunction(String shortName, String displayName, TrigFunction inverse, int lowStep, int highStep)
+    {
+        this.shortName = shortName;
+        this.displayName = displayName;
+        this.inverse = inverse;
+        this.exactSteps = buildExactSteps(inverse, lowStep, highStep);
+    }
+
+    /***** GETTERS (accessors) *****/
+
+    /** Gets the short name (e.g. "asin") */
+    public String getShortName()
+    {
+        return shortName;
+    }
+
+    /** Gets the name shown in menus (e.g. "Arcsine") */
+    public String getDisplayName()
+    {
+        return displayName;
+    }
+
+    /** Gets the function this one undoes (ASIN -> SIN) */
+    public TrigFunction getInverse()
+    {
+        return inverse;
+    }
+
+    /***** EVALUATION *****/
+
+    /**
+     * Finds the angle, in ExactTable steps of π/120, whose value is
+     * exactly value (written the way AlgebraicValue writes it, e.g. "√3/2").
+     * The step is in the principal range, so it can be negative.
+     * Returns null if value isn't one of the exact values.
+     */
+    public Integer findExactStep(String value)
+    {
+        return exactSteps.get(value);
+    }
+
+    /** Decimal angle (radians, principal range) for a decimal value; NaN if out of range */
+    abstract double fromValue(double x);
+
+    /***** LOOKUP *****/
+
+    /** Gets the inverse function at an index (0 = asin, 1 = acos, 2 = atan) */
+    public static InverseFunction fromIndex(int index)
+    {
+        return ALL[index];
+    }
+
+    /**
+     * Finds an inverse function by short name ("asin"), "arc" name ("arcsin")
+     * or display name ("Arcsine"), any case. Returns null if there's no such function.
+     */
+    public static InverseFunction fromName(String name)
+    {
+        if (name == null)
+        {
+            return null;
+        }
+        for (InverseFunction func : ALL)
+        {
+            if (name.equalsIgnoreCase(func.shortName) || name.equalsIgnoreCase(func.displayName)
+                || name.equalsIgnoreCase("arc" + func.inverse.getShortName()))
+            {
+                return func;
+            }
+        }
+        return null;
+    }
+
+    /** Number of inverse functions */
+    public static int count()
+    {
+        return ALL.length;
+    }
+
+    /***** HELPER METHODS *****/
+
+    /**
+     * Builds the reverse index: every exact value func takes between
+     * lowStep and highStep (inclusive), by its written form, mapped to its step.
+     * Each value appears once in a principal range, so no step is lost.
+     */
+    private static Map<String, Integer> buildExactSteps(TrigFunction func, int lowStep, int highStep)
+    {
+        Map<String, Integer> steps = new HashMap<>();
+        for (int step = lowStep; step <= highStep; step++)
+        {
+            AlgebraicValue value = ExactTable.lookup(func, (step + 2 * ExactTable.GRID) % (2 * ExactTable.GRID));
+            if (value != null && !value.isUndefined())
+            {
+                steps.put(value.toString(), step);
+            }
+        }
+        return Collections.unmodifiableMap(steps);
+    }
+}
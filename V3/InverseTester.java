@@ -0,0 +1,103 @@
+/********************************************
+*   InverseTester
+*********************************************
+*   AUTHORS:    Jeff Peterson
+*   COLLABORATORS: None
+*   LAST MODIFIED:  05/27/2025
+********************************************
+*   PROGRAM DESCRIPTION:
+*   TESTER of TrigEngine.evaluateInverse (and of the "√" / "sqrt"
+*   that AngleParser reads for it).
+*   Checks that values from ExactTable give exact angles, that other
+*   radicals are worked out as numbers, and that asin/acos reject
+*   values outside -1 to 1 while atan takes any value.
+*   Prints one line per check and a PASS/FAIL count at the end.
+*********************************************
+*   ALGORITHM:
+*   Check exact values (the reverse index) give exact angles
+*   Check other radicals and decimals give the right decimal angle
+*   Check out-of-range and unreadable values give the right error
+*   Check "√" in a compiled expression with a variable
+*********************************************
+*   STATIC METHODS:
+*   main(String[] args)
+*   checkExact(String function, String value, String expected)
+*   checkApprox(String function, String value, double expected)
+*   checkError(String function, String value, String expected)
+*********************************************
+*   IMPORTED PACKAGES NEEDED AND PURPOSE:
+*   None
+*********************************************/
+
+public class InverseTester
+{
+    public static void main(String[] args)
+    {
+        /***** EXACT VALUES *****/
+        System.out.println("TESTING exact values");
+        checkExact("asin", "√2/2", "π/4");
+        checkExact("acos", "sqrt(2)/2", "π/4");
+        checkExact("asin", "sqrt2/2", "π/4");
+        checkExact("atan", "SQRT(3)", "π/3");
+        checkExact("acos", "√(2-√2)/2", "3π/8");
+        checkExact("asin", "-1/2", "-π/6");
+
+        /***** RADICALS AND DECIMALS *****/
+        System.out.println("\nTESTING values worked out as numbers");
+        checkApprox("atan", "√2/2", Math.atan(Math.sqrt(2) / 2));
+        checkApprox("atan", "√3/2", Math.atan(Math.sqrt(3) / 2));
+        checkApprox("atan", "sqrt(3)/2", Math.atan(Math.sqrt(3) / 2));
+        checkApprox("asin", "1/√2", Math.asin(1 / Math.sqrt(2)));
+        checkApprox("atan", "2√3", Math.atan(2 * Math.sqrt(3)));
+        checkApprox("atan", "sqrt2/2", Math.atan(Math.sqrt(2) / 2));       // digits after "sqrt" are its operand
+        checkApprox("atan", "2sqrt3/3", Math.atan(2 * Math.sqrt(3) / 3));
+        checkApprox("acos", "(√5-1)/3", Math.acos((Math.sqrt(5) - 1) / 3));
+        checkApprox("atan", "5", Math.atan(5));        // atan takes any value
+        checkApprox("atan", "-1e6", Math.atan(-1e6));
+        checkApprox("asin", "0.3", Math.asin(0.3));
+
+        /***** ERRORS *****/
+        System.out.println("\nTESTING bad values");
+        checkError("asin", "√3", "value must be between -1 and 1");
+        checkError("acos", "sqrt3", "value must be between -1 and 1");    // not an unknown name
+        checkError("acos", "-1.5", "value must be between -1 and 1");
+        checkError("asin", "sqrt(-2)", "square root of a negative number at position 0");
+        checkError("atan", "√x", "unknown name at position 1");
+        checkError("atan", "1e400", "value must be a finite number");
+
+        /***** COMPILED *****/
+        System.out.println("\nTESTING √ with a variable");
+        CompiledExpression root = CompiledExpression.compile("√x/2", "x");
+        TestHarness.check(root.evaluate(3) == Math.sqrt(3) / 2, "√x/2 at x = 3: " + root.evaluate(3) + "  (" + root + ")");
+        TestHarness.check(Double.isNaN(root.evaluate(-1)), "√x/2 at x = -1: " + root.evaluate(-1));
+
+        System.out.println("\n" + TestHarness.summary());
+    }
+
+    /** function(value) should be the exact angle expected */
+    public static void checkExact(String function, String value, String expected)
+    {
+        TrigResult result = TrigEngine.evaluate(function, value);
+        boolean ok = result.isExact() && expected.equals(result.getExactValue());
+        TestHarness.check(ok, function + "(" + value + ") = " + result.getValueText() + " (expected " + expected + ")");
+    }
+
+    /** function(value) should be a decimal angle within a few ulps of expected */
+    public static void checkApprox(String function, String value, double expected)
+    {
+        TrigResult result = TrigEngine.evaluate(function, value);
+        boolean ok = result.isValid() && !result.isExact()
+                     && Math.abs(result.getDecimalValue() - expected) <= 4 * Math.ulp(expected);
+        TestHarness.check(ok, function + "(" + value + ") = " + (!result.isValid() ? result.getError() : result.getDecimalValue())
+                              + " (expected " + expected + ")");
+    }
+
+    /** function(value) should be an error with the message expected */
+    public static void checkError(String function, String value, String expected)
+    {
+        TrigResult result = TrigEngine.evaluate(function, value);
+        boolean ok = !result.isValid() && expected.equals(result.getError());
+        TestHarness.check(ok, function + "(" + value + ") = " + (!result.isValid() ? result.getError() : result.getValueText())
+                              + " (expected error: " + expected + ")");
+    }
+}
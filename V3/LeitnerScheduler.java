@@ -0,0 +1,83 @@
+/**
+ * -----------------------------------------
+ * LeitnerScheduler
+ * -----------------------------------------
+ *
+ * The Leitner box system: every card sits in one of BOX_INTERVALS.length
+ * boxes. A right answer moves it up a box (up to the last one), a wrong
+ * answer sends it back to the first. Cards in higher boxes wait longer
+ * before they're asked again:
+ *
+ *   box        0   1   2   3   4
+ *   interval   1   3   9   27  81    (answers, see IntervalScheduler)
+ *
+ * A new card starts in box 0, so one right answer moves it to box 1.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + BOX_INTERVALS: long[]   (read only)
+ * -----------------------------------------
+ * - box: byte[]
+ * -----------------------------------------
+ * + LeitnerScheduler(int[] deck)
+ *
+ * + int getBox(int card)
+ * + String getName()
+ * # long nextInterval(int card, boolean correct)
+ * -----------------------------------------
+*/
+
+public class LeitnerScheduler extends IntervalScheduler
+{
+    /***** CONSTANTS *****/
+
+    /** BOX_INTERVALS[b] = answers before a card in box b comes back. Don't change the contents */
+    public static final long[] BOX_INTERVALS = {1, 3, 9, 27, 81};
+
+    /***** INSTANCE VARIABLES *****/
+    private final byte[] box; // box[card], 0 to BOX_INTERVALS.length - 1
+
+    /***** CONSTRUCTORS *****/
+
+    /**
+     * Every card of deck in box 0, none asked yet.
+     * @param deck card codes, in the order to introduce them
+     */
+    public LeitnerScheduler(int[] deck)
+    {
+        super(deck);
+        this.box = new byte[getCodeLimit()];
+    }
+
+    /***** GETTERS *****/
+
+    /** Which box card is in (0 = new or just missed) */
+    public int getBox(int card)
+    {
+        return box[card];
+    }
+
+    public String getName()
+    {
+        return "Leitner boxes";
+    }
+
+    /***** SCHEDULING *****/
+
+    /** Up a box if right, back to box 0 if wrong; the interval is the new box's */
+    protected long nextInterval(int card, boolean correct)
+    {
+        if (!correct)
+        {
+            box[card] = 0;
+        }
+        else if (box[card] < BOX_INTERVALS.length - 1)
+        {
+            box[card]++;
+        }
+        return BOX_INTERVALS[box[card]];
+    }
+}
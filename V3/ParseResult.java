@@ -0,0 +1,169 @@
+/**
+ * -----------------------------------------
+ * ParseResult
+ * -----------------------------------------
+ *
+ * Holds the outcome of parsing one angle string.
+ * Either a valid radian value, or an error code
+ * plus the position in the input where parsing stopped.
+ *
+ * Replaces the old -999 "error value" from PiCleaner.parse,
+ * since -999 is also a perfectly good radian angle.
+ *
+ * When the angle is a rational multiple of π (like "15π/4"),
+ * it also holds that exact fraction, reduced: 15π/4 -> 15 and 4.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + OK: int
+ * + EMPTY: int
+ * + UNEXPECTED_CHARACTER: int
+ * + MALFORMED_NUMBER: int
+ * + DIVIDE_BY_ZERO: int
+ * + UNEXPECTED_END: int
+ * + UNKNOWN_NAME: int
+ * + NEGATIVE_ROOT: int
+ * -----------------------------------------
+ * - errorCode: int
+ * - errorPosition: int
+ * - value: double
+ * - piNumerator: long
+ * - piDenominator: long
+ * -----------------------------------------
+ * + success(double value): ParseResult
+ * + success(double value, long piNumerator, long piDenominator): ParseResult
+ * + failure(int errorCode, int position): ParseResult
+ *
+ * + boolean isValid()
+ * + double getValue()
+ * + boolean isExactPi()
+ * + long getPiNumerator()
+ * + long getPiDenominator()
+ * + int getErrorCode()
+ * + int getErrorPosition()
+ * + String getErrorMessage()
+ * + String toString()
+ * -----------------------------------------
+*/
+
+public final class ParseResult
+{
+    /***** ERROR CODES *****/
+    public static final int OK = 0;                    // parsed fine
+    public static final int EMPTY = 1;                 // nothing to parse
+    public static final int UNEXPECTED_CHARACTER = 2;  // a character we don't understand (or one in the wrong place)
+    public static final int MALFORMED_NUMBER = 3;      // something like "." or "2e"
+    public static final int DIVIDE_BY_ZERO = 4;        // something like "π/0"
+    public static final int UNEXPECTED_END = 5;        // input stops early, like "3π/"
+    public static final int UNKNOWN_NAME = 6;          // a variable name nobody told us about
+    public static final int NEGATIVE_ROOT = 7;         // something like "√-2"
+
+    /** Messages for each error code, indexed by the code itself */
+    private static final String[] MESSAGES =
+    {
+        "ok", "empty input", "unexpected character", "malformed number", "division by zero",
+        "unexpected end of input", "unknown name", "square root of a negative number"
+    };
+
+    /***** INSTANCE VARIABLES *****/
+    private final int errorCode;      // OK or one of the error codes above
+    private final int errorPosition;  // index into the input where the error was found (-1 if OK)
+    private final double value;       // the radian value (only meaningful if OK)
+    private final long piNumerator;   // value = piNumerator/piDenominator × π ...
+    private final long piDenominator; // ... or 0 if the value isn't a rational multiple of π
+
+    /***** CONSTRUCTOR *****/
+
+    /** Private — use success() or failure() */
+    private ParseResult(int errorCode, int errorPosition, double value, long piNumerator, long piDenominator)
+    {
+        this.errorCode = errorCode;
+        this.errorPosition = errorPosition;
+        this.value = value;
+        this.piNumerator = piNumerator;
+        this.piDenominator = piDenominator;
+    }
+
+    /***** FACTORY METHODS *****/
+
+    /** Builds a result for a successfully parsed radian value */
+    public static ParseResult success(double value)
+    {
+        return new ParseResult(OK, -1, value, 0, 0);
+    }
+
+    /** Builds a result for a value that is exactly piNumerator/piDenominator × π (already reduced) */
+    public static ParseResult success(double value, long piNumerator, long piDenominator)
+    {
+        return new ParseResult(OK, -1, value, piNumerator, piDenominator);
+    }
+
+    /** Builds a result for a failed parse */
+    public static ParseResult failure(int errorCode, int position)
+    {
+        return new ParseResult(errorCode, position, Double.NaN, 0, 0);
+    }
+
+    /***** GETTERS (accessors) *****/
+
+    /** True if the input parsed into a radian value */
+    public boolean isValid()
+    {
+        return errorCode == OK;
+    }
+
+    /** Gets the radian value (NaN if the parse failed) */
+    public double getValue()
+    {
+        return value;
+    }
+
+    /** True if the value is exactly a fraction times π (so the π-fraction getters mean something) */
+    public boolean isExactPi()
+    {
+        return piDenominator != 0;
+    }
+
+    /** Gets the numerator of the exact π fraction (15 for 15π/4) */
+    public long getPiNumerator()
+    {
+        return piNumerator;
+    }
+
+    /** Gets the denominator of the exact π fraction (4 for 15π/4), or 0 if not exact */
+    public long getPiDenominator()
+    {
+        return piDenominator;
+    }
+
+    /** Gets the error code (OK if the parse worked) */
+    public int getErrorCode()
+    {
+        return errorCode;
+    }
+
+    /** Gets the index in the input where parsing failed (-1 if OK) */
+    public int getErrorPosition()
+    {
+        return errorPosition;
+    }
+
+    /** Gets a short readable description of the error code */
+    public String getErrorMessage()
+    {
+        return MESSAGES[errorCode];
+    }
+
+    /***** toString *****/
+    public String toString()
+    {
+        if (isValid())
+        {
+            return String.valueOf(value);
+        }
+        return getErrorMessage() + " at position " + errorPosition;
+    }
+}
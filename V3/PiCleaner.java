@@ -4,9 +4,15 @@
  * -----------------------------------------
  * 
  * Parses and analyzes user-entered trig input like "2pi/3" or "π/4".
- * Converts strings to radian values, finds reference angles, 
+ * Converts strings to radian values (through AngleParser, which also reads
+ * degree and gradian input like "30°" or "50grad"), finds reference angles, 
  * and applies correct trig signs based on quadrant.
  * 
+ * Angles that are exact fractions of π (num/den × π) are handled
+ * with whole-number math only — no floating-point mod, no tolerance.
+ * Decimal angles can be split by RangeReducer into n·(π/2) + r first,
+ * which stays correct even for huge angles like 1e15.
+ * 
  * Author: Jeff Peterson
  * 
  * -----------------------------------------
@@ -14,9 +20,17 @@
  * -----------------------------------------
  * + parse(String input): double
  * + getReferenceAngle(double rad): double
+ * + getQuadrant(double rad): int
  * + applySign(String func, double rad, String value): String
- * -----------------------------------------
- * - eval(String expr): double
+ * + applySign(String func, int quadrant, String value): String
+ * + applySign(TrigFunction func, int quadrant, String value): String
+ * + applySign(TrigFunction func, int quadrant, AlgebraicValue value): AlgebraicValue
+ * + normalizePiNumerator(long num, long den): long
+ * + getQuadrant(long num, long den): int
+ * + getReferenceNumerator(long num, long den): long
+ * + formatPiFraction(long num, long den): String
+ * + getReducedQuadrant(int n, double r): int
+ * + getReducedReferenceAngle(int n, double r): double
  * -----------------------------------------
 */
 
@@ -24,98 +38,170 @@ public class PiCleaner
 {
     /**
      * Breaks up (parses) user input string into into a radian value.
-     * "π" and "pi" to Math.PI
-     * implied multiplication like "2pi" to "2 * Math.PI"
-     * fractions like "3pi/4"
+     * Kept for older callers — the real work is done by AngleParser,
+     * which also tells you *why* a parse failed.
      * Returns -999 if parsing fails.
      */
     public static double parse(String input)
     {
-        try 
-        {
-            input = input.replace("\u03c0", "pi"); // support unicode pi symbol
-            input = input.replaceAll("(?i)pi", "Math.PI"); // uses regex (pattern-matching rules) (?i) makes it case-insensitive
-            input = input.replaceAll("([0-9])Math\\.PI", "$1*Math.PI"); // If a digit comes right before "Math.PI", insert a * so "2Math.PI" becomes "2*Math.PI"
-
-            if (input.contains("/")) 
-            {
-                String[] parts = input.split("/"); // Split the input into top and bottom if it looks like a fraction like 3pi/4
-                if (parts.length == 2) 
-                {
-                    double numerator = eval(parts[0]);   // Turn the part before the slash into a number
-                    double denominator = eval(parts[1]); // Turn the part after the slash into a number
-                    return numerator / denominator;  
-                }
-            }
-
-            return eval(input); // evaluate as simple expression using eval() method
-        } 
-        catch (Exception e) // "e" is the error object. Java gives it to us if something crashes above
+        ParseResult result = AngleParser.parse(input);
+        if (!result.isValid())
         {
             return -999; // return error code if parsing fails
         }
+        return result.getValue();
     }
 
     /**
-     * Basic evaluator for simple expressions like "2*Math.PI" or "3.14".
-     * Turns a math string into a number.
-     * Only supports one operator.
+     * Applies a negative sign if the trig function is negative in the current quadrant.
+     * Assumes rad already normalized to [0,2π].
+     * func can be a short name ("sin") or a display name ("Sine").
      */
-    private static double eval(String expr)
+    public static String applySign(String func, double rad, String value)
     {
-        expr = expr.replace("Math.PI", String.valueOf(Math.PI)); // replace Math.PI with its numeric value
+        return applySign(func, getQuadrant(rad), value);
+    }
+
+    /**
+     * Same as applySign above, but for a quadrant (1–4) worked out already,
+     * e.g. by getQuadrant(num, den).
+     */
+    public static String applySign(String func, int quadrant, String value)
+    {
+        TrigFunction function = TrigFunction.fromName(func);
+        if (function == null)
+        {
+            return value; // not a trig function we know, leave it alone
+        }
+        return applySign(function, quadrant, value);
+    }
 
-        if (expr.contains("*")) 
+    /**
+     * Applies a negative sign if func is negative in the quadrant (1–4).
+     * The sign is one read of the function's quadrant bitmask — no name checks.
+     */
+    public static String applySign(TrigFunction func, int quadrant, String value)
+    {
+        if (func.isNegativeIn(quadrant) && !value.equals("0") && !value.equals("undef") && !value.equals(AlgebraicValue.UNDEFINED.toString())) 
         {
-            String[] parts = expr.split("\\*"); // Split the string around the * sign (\\ because * means repeat in regex)
-            return Double.parseDouble(parts[0]) * Double.parseDouble(parts[1]); // Multiply the two parts as numbers
+            return "-" + value; // only apply sign to meaningful values
+        }
+
+        return value;
+    }
+
+    /**
+     * Same as above for an AlgebraicValue. negate() hands back a ready-made
+     * value (0 and UNDEFINED stay as they are), so nothing is built or compared.
+     */
+    public static AlgebraicValue applySign(TrigFunction func, int quadrant, AlgebraicValue value)
+    {
+        return func.isNegativeIn(quadrant) ? value.negate() : value;
+    }
+
+    /***** EXACT π-FRACTION METHODS *****/
+    // An angle num/den × π (den > 0, already reduced) is worked on as the
+    // two whole numbers only. All results keep the same denominator.
+
+    /**
+     * Converts num/den × π into the range [0, 2π) and returns the new numerator.
+     * e.g. 15π/4 -> 7 (so 7π/4), -π/4 -> 7 (so 7π/4)
+     */
+    public static long normalizePiNumerator(long num, long den)
+    {
+        return Math.floorMod(num, 2 * den);
+    }
+
+    /**
+     * Returns the quadrant (1–4) of a normalized angle num/den × π.
+     * Uses the same boundaries as getReferenceAngle: π/2 counts as Q1,
+     * π as Q2, and 3π/2 as Q3.
+     */
+    public static int getQuadrant(long num, long den)
+    {
+        if (2 * num <= den) 
+        {
+            return 1; // up to π/2
+        } 
+        else if (num <= den) 
+        {
+            return 2; // up to π
         } 
-        else if (expr.contains("/")) 
+        else if (2 * num <= 3 * den) 
         {
-            String[] parts = expr.split("/"); // Split the string around the / sign
-            return Double.parseDouble(parts[0]) / Double.parseDouble(parts[1]); // Divide the first number by the second
+            return 3; // up to 3π/2
         } 
         else 
         {
-            return Double.parseDouble(expr); // handle plain numbers
+            return 4;
         }
     }
 
     /**
-     * Applies a negative sign if the trig function is negative in the current quadrant.
-     * Assumes rad already normalized to [0,2π]
+     * Returns the numerator of the reference angle (over the same den)
+     * for a normalized angle num/den × π. e.g. 7π/4 -> 1 (so π/4)
      */
-    public static String applySign(String func, double rad, String value)
+    public static long getReferenceNumerator(long num, long den)
     {
-        boolean negative = false;
-
-        if (func.equalsIgnoreCase("Sine")) 
-        { // built-in String method, checks if func matches "Sine" (case-insensitive)
-            if (rad >= Math.PI && rad < 2 * Math.PI) 
-            {
-                negative = true; // Sine is negative in Q3 and Q4
-            }
-        } 
-        else if (func.equalsIgnoreCase("Cosine")) 
+        switch (getQuadrant(num, den))
         {
-            if (rad >= Math.PI / 2 && rad < 3 * Math.PI / 2) 
-            {
-                negative = true; // Cosine is negative in Q2 and Q3
-            }
-        } 
-        else if (func.equalsIgnoreCase("Tangent")) 
+            case 1:  return num;           // Quadrant I
+            case 2:  return den - num;     // Quadrant II
+            case 3:  return num - den;     // Quadrant III
+            default: return 2 * den - num; // Quadrant IV
+        }
+    }
+
+    /**
+     * Writes num/den × π the way the user would type it.
+     * e.g. (0, 1) -> "0", (1, 1) -> "π", (3, 4) -> "3π/4", (-1, 6) -> "-π/6"
+     */
+    public static String formatPiFraction(long num, long den)
+    {
+        if (num == 0)
         {
-            if ((rad > Math.PI / 2 && rad < Math.PI) || (rad > 3 * Math.PI / 2 && rad < 2 * Math.PI)) {
-                negative = true; // Tangent is negative in Q2 and Q4
-            }
+            return "0";
         }
 
-        if (negative && !value.equals("0") && !value.equals("undef")) 
+        StringBuilder sb = new StringBuilder();
+        if (num < 0)
         {
-            return "-" + value; // only apply sign to meaningful values
+            sb.append('-');
+        }
+        if (Math.abs(num) != 1)
+        {
+            sb.append(Math.abs(num));
+        }
+        sb.append('π');
+        if (den != 1)
+        {
+            sb.append('/').append(den);
         }
+        return sb.toString();
+    }
 
-        return value;
+    /**
+     * Returns the quadrant (1–4) of an angle already normalized to [0, 2π).
+     * Same boundaries as getReferenceAngle.
+     */
+    public static int getQuadrant(double rad)
+    {
+        if (rad <= Math.PI / 2) 
+        {
+            return 1;
+        } 
+        else if (rad <= Math.PI) 
+        {
+            return 2;
+        } 
+        else if (rad <= 3 * Math.PI / 2) 
+        {
+            return 3;
+        } 
+        else 
+        {
+            return 4;
+        }
     }
 
     /**
@@ -142,4 +228,37 @@ public class PiCleaner
             return 2 * Math.PI - rad; // Quadrant IV
         }
     }
+
+    /***** REDUCED-ANGLE METHODS *****/
+    // For an angle split by RangeReducer into n·(π/2) + r,
+    // with n = 0–3 and |r| <= π/4.
+
+    /**
+     * Returns the quadrant (1–4) of n·(π/2) + r.
+     * Same boundaries as getQuadrant(double): π/2 counts as Q1,
+     * π as Q2, and 3π/2 as Q3.
+     */
+    public static int getReducedQuadrant(int n, double r)
+    {
+        switch (n)
+        {
+            case 0:  return r < 0 ? 4 : 1;  // around 0
+            case 1:  return r <= 0 ? 1 : 2; // around π/2
+            case 2:  return r <= 0 ? 2 : 3; // around π
+            default: return r <= 0 ? 3 : 4; // around 3π/2
+        }
+    }
+
+    /**
+     * Returns the reference angle (0 to π/2) of n·(π/2) + r.
+     * Near 0 or π it's just |r|; near π/2 or 3π/2 it's π/2 - |r|.
+     */
+    public static double getReducedReferenceAngle(int n, double r)
+    {
+        if ((n & 1) == 0)
+        {
+            return Math.abs(r);
+        }
+        return Math.PI / 2 - Math.abs(r);
+    }
 }
@@ -0,0 +1,222 @@
+/**
+ * -----------------------------------------
+ * PiRecognizer
+ * -----------------------------------------
+ *
+ * Spots decimals that are really fractions of π, so that typing
+ * "0.5235987756" gets the same exact answer as typing "π/6".
+ *
+ * How: divide by π and expand x/π as a continued fraction. Each step
+ * gives the next convergent h/k, the closest fraction there is for its
+ * size of denominator. The first convergent with h·π/k close enough to x
+ * wins. If k goes past the denominator limit first, x isn't one.
+ *
+ *   0.5235987756 / π = 0.16666666667...  ->  0 + 1/(6 + ...)  ->  1/6
+ *
+ * "Close enough" is a few ulps of x (for full-precision doubles like
+ * Math.PI / 6). A number typed with MIN_TYPED_DIGITS to MAX_TYPED_DIGITS
+ * significant digits (trailing zeros don't count) also gets half a unit
+ * in its last digit (for "2.35619449"), but never more than
+ * MAX_TYPED_TOLERANCE (1e-9, about 1/26,000,000 of the π/120 ≈ 0.026
+ * spacing between the angles ExactTable knows), so an ordinary decimal
+ * is almost never mistaken for one. So:
+ *   "1.2", "0.52359878" (too few digits)        ->  judged in ulps only, not π/6
+ *   "1000000.0" (one significant digit)         ->  judged in ulps only
+ *   "3.14159265358979" (more than 12 digits)    ->  judged in ulps only, not π
+ *   "0.5235987756", "2.35619449"                ->  π/6, 3π/4
+ *
+ * Creates no objects: the answer comes back packed into one long
+ * (see numerator() and denominator()), NONE if there isn't one.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + NONE: long
+ * + MIN_TYPED_DIGITS: int
+ * + MAX_TYPED_DIGITS: int
+ * + MAX_TYPED_TOLERANCE: double
+ * - ULP_TOLERANCE: double
+ * - MAX_TERMS: int
+ * - MAX_MULTIPLE: double
+ * - POWERS_OF_TEN: double[]
+ * -----------------------------------------
+ * + recognize(double x, double tolerance, int maxDenominator): long
+ * + typedTolerance(CharSequence input): double
+ * + numerator(long fraction): long
+ * + denominator(long fraction): long
+ * -----------------------------------------
+*/
+
+public class PiRecognizer
+{
+    /***** CONSTANTS *****/
+
+    /** recognize() found no fraction */
+    public static final long NONE = 0L;
+
+    /** Fewest significant digits a typed decimal needs before its last digit sets the tolerance */
+    public static final int MIN_TYPED_DIGITS = 9;
+
+    /** Past this many significant digits a typed number is taken as a full double and judged in ulps */
+    public static final int MAX_TYPED_DIGITS = 12;
+
+    /** Most a typed number's last digit can widen the tolerance, in radians */
+    public static final double MAX_TYPED_TOLERANCE = 1.0e-9;
+
+    /** Always allow this many ulps of x (covers rounding in x and in h·π/k) */
+    private static final double ULP_TOLERANCE = 4.0;
+
+    /** Most continued-fraction terms tried (denominators grow at least like Fibonacci numbers) */
+    private static final int MAX_TERMS = 40;
+
+    /** Past this many π, a double can't tell fractions apart anyway */
+    private static final double MAX_MULTIPLE = 1.0e6;
+
+    /** 10^0 through 10^22, all exact */
+    private static final double[] POWERS_OF_TEN =
+    {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /***** RECOGNIZING *****/
+
+    /**
+     * Finds the fraction num/den (den <= maxDenominator, smallest den first)
+     * with num/den × π within tolerance of x, or ULP_TOLERANCE ulps if that's bigger.
+     * @param x angle in radians
+     * @param tolerance extra slack in radians, e.g. from typedTolerance() (0 for none)
+     * @param maxDenominator biggest denominator to accept
+     * @return the fraction packed into a long (read with numerator() and denominator()), or NONE
+     */
+    public static long recognize(double x, double tolerance, int maxDenominator)
+    {
+        double y = Math.abs(x) / Math.PI;
+        if (!(y <= MAX_MULTIPLE) || maxDenominator < 1) // also catches NaN
+        {
+            return NONE;
+        }
+        double allowed = Math.max(tolerance, ULP_TOLERANCE * Math.ulp(x));
+
+        // Convergents h/k from h(i) = a·h(i-1) + h(i-2), same for k
+        long h = 1, hPrev = 0;
+        long k = 0, kPrev = 1;
+        double z = y;
+
+        for (int term = 0; term < MAX_TERMS; term++)
+        {
+            double a = Math.floor(z);
+            if (term > 0 && a > maxDenominator)
+            {
+                return NONE; // the next denominator would be at least a
+            }
+            long ai = (long) a;
+            long hNext = ai * h + hPrev;
+            long kNext = ai * k + kPrev;
+            if (kNext > maxDenominator || hNext > Integer.MAX_VALUE)
+            {
+                return NONE; // too big to be what the user meant (or to pack)
+            }
+            hPrev = h;
+            kPrev = k;
+            h = hNext;
+            k = kNext;
+
+            if (Math.abs(Math.abs(x) - h * Math.PI / k) <= allowed)
+            {
+                long num = x < 0 ? -h : h;
+                return (num << 32) | k;
+            }
+
+            double rest = z - a;
+            if (rest == 0)
+            {
+                return NONE; // y was exactly h/k, but h·π/k still wasn't x
+            }
+            z = 1.0 / rest;
+        }
+        return NONE;
+    }
+
+    /**
+     * Tolerance that matches what the user typed: half a unit in the last
+     * significant decimal place of a plain number like "2.35619449" (5e-9,
+     * capped to MAX_TYPED_TOLERANCE = 1e-9 here). Trailing zeros aren't
+     * significant, so "2.356194490" is the same as "2.35619449".
+     * Returns 0 for anything else — expressions, exponents, or numbers with
+     * fewer than MIN_TYPED_DIGITS or more than MAX_TYPED_DIGITS significant digits.
+     */
+    public static double typedTolerance(CharSequence input)
+    {
+        int length = input.length();
+        int i = 0;
+        while (i < length && Character.isWhitespace(input.charAt(i)))
+        {
+            i++;
+        }
+        if (i < length && (input.charAt(i) == '-' || input.charAt(i) == '+'))
+        {
+            i++;
+        }
+
+        int digits = 0;         // digits from the first non-zero one on, trailing zeros included
+        int significant = 0;    // same, up to the last non-zero digit
+        int decimals = -1;      // digits after the ".", -1 until we see one
+        int lastPlace = 0;      // decimal place of the last non-zero digit (0 if it's left of the point)
+        for (; i < length; i++)
+        {
+            char c = input.charAt(i);
+            if (c >= '0' && c <= '9')
+            {
+                if (decimals >= 0)
+                {
+                    decimals++;
+                }
+                if (digits > 0 || c != '0')
+                {
+                    digits++;
+                }
+                if (c != '0')
+                {
+                    significant = digits;
+                    lastPlace = Math.max(decimals, 0);
+                }
+            }
+            else if (c == '.' && decimals < 0)
+            {
+                decimals = 0;
+            }
+            else
+            {
+                break;
+            }
+        }
+        while (i < length && Character.isWhitespace(input.charAt(i)))
+        {
+            i++;
+        }
+
+        if (i < length || decimals < 0 || significant < MIN_TYPED_DIGITS || significant > MAX_TYPED_DIGITS
+            || lastPlace <= 0 || lastPlace >= POWERS_OF_TEN.length)
+        {
+            return 0.0; // a last non-zero digit left of the point is far too coarse anyway
+        }
+        return Math.min(0.5 / POWERS_OF_TEN[lastPlace], MAX_TYPED_TOLERANCE);
+    }
+
+    /***** UNPACKING *****/
+
+    /** Numerator of a fraction from recognize() (negative for negative angles) */
+    public static long numerator(long fraction)
+    {
+        return fraction >> 32;
+    }
+
+    /** Denominator of a fraction from recognize() (always positive) */
+    public static long denominator(long fraction)
+    {
+        return fraction & 0xFFFFFFFFL;
+    }
+}
@@ -0,0 +1,124 @@
+/********************************************
+*   PiRecognizerTester
+*********************************************
+*   AUTHORS:    Jeff Peterson
+*   COLLABORATORS: None
+*   LAST MODIFIED:  05/27/2025
+********************************************
+*   PROGRAM DESCRIPTION:
+*   TESTER of PiRecognizer (and of TrigEngine's use of it).
+*   Checks that decimals that really are fractions of π get exact
+*   answers, and that ordinary decimals — large ones, and ones that
+*   only come close to a special angle — don't.
+*   Prints one line per check and a PASS/FAIL count at the end.
+*********************************************
+*   ALGORITHM:
+*   Check typedTolerance on typed numbers (trailing zeros, digit limits)
+*   Check recognize on computed doubles (exact, off by ulps, off by more)
+*   Check TrigEngine.evaluate on typed inputs, large and near-miss
+*   Count random 5-decimal inputs in [-1000, 1000] that get an exact value
+*********************************************
+*   STATIC METHODS:
+*   main(String[] args)
+*   checkTolerance(String input, boolean expectTyped)
+*   checkRecognize(String label, double x, long num, long den)
+*   checkExact(String function, String angle, String expected)
+*********************************************
+*   IMPORTED PACKAGES NEEDED AND PURPOSE:
+*   SplittableRandom - random inputs for the sweep (fixed seed, so runs repeat)
+*********************************************/
+
+import java.util.SplittableRandom;
+
+public class PiRecognizerTester
+{
+    public static void main(String[] args)
+    {
+        /***** TYPED TOLERANCE *****/
+        System.out.println("TESTING typedTolerance");
+        checkTolerance("2.35619449", true);         // 9 digits
+        checkTolerance("2.356194490", true);        // same number, trailing zero doesn't count
+        checkTolerance("0.5235987756", true);       // 10 digits
+        checkTolerance("0.52359878", false);        // 8 digits: too few
+        checkTolerance("1000000.0", false);         // 1 significant digit, not 8
+        checkTolerance("1000000.000000", false);    // still 1
+        checkTolerance("3.14159265358979", false);  // 15 digits: a pasted double, judged in ulps
+        checkTolerance("123456789", false);         // no decimal point
+        checkTolerance("1.5e3", false);             // not a plain number
+        checkTolerance("π/6", false);
+
+        /***** RECOGNIZING COMPUTED DOUBLES *****/
+        System.out.println("\nTESTING recognize (no typed tolerance)");
+        checkRecognize("π/6", Math.PI / 6, 1, 6);
+        checkRecognize("-3π/4", -3 * Math.PI / 4, -3, 4);
+        checkRecognize("next double above π/6", Math.nextUp(Math.PI / 6), 1, 6);
+        checkRecognize("100000π", 100000 * Math.PI, 100000, 1);
+        checkRecognize("7π/120", 7 * Math.PI / 120, 7, 120);
+        checkRecognize("π/6 + 1e-12", Math.PI / 6 + 1e-12, 0, 0);
+        checkRecognize("π + 3.2e-15", 3.14159265358979, 0, 0);
+        checkRecognize("1000000", 1000000.0, 0, 0);
+        checkRecognize("π/7 (denominator not on the grid, but found)", Math.PI / 7, 1, 7);
+        checkRecognize("NaN", Double.NaN, 0, 0);
+        checkRecognize("1e300", 1e300, 0, 0);
+
+        /***** THROUGH TrigEngine *****/
+        System.out.println("\nTESTING TrigEngine.evaluate (exact value or approximate)");
+        checkExact("sin", "0.5235987756", "1/2");
+        checkExact("cos", "2.35619449", "-√2/2");
+        checkExact("sin", "0.523598776", "1/2");
+        checkExact("sin", "0.52359878", null);        // 4.4e-9 from π/6: a different angle
+        checkExact("sin", "1000000.0", null);         // about -0.34999, not -√(2-√2)/2
+        checkExact("sin", "1000000", null);
+        checkExact("sin", "3.14159265358979", null);  // about 3.2e-15, not 0
+        checkExact("cos", "314159.265358979", null);  // near 100000π, but only to 1e-9
+        checkExact("tan", "1234.56789", null);
+        checkExact("sin", "π/6", "1/2");              // typed as a fraction of π: always exact
+
+        /***** RANDOM SWEEP *****/
+        System.out.println("\nTESTING random 5-decimal inputs in [-1000, 1000]");
+        SplittableRandom random = new SplittableRandom(16);
+        int exact = 0;
+        int tries = 100000;
+        for (int i = 0; i < tries; i++)
+        {
+            long hundredThousandths = random.nextLong(-100000000L, 100000001L);
+            String angle = String.format("%.5f", hundredThousandths / 100000.0);
+            if (TrigEngine.evaluate("sin", angle).isExact())
+            {
+                exact++;
+                System.out.println("  exact: sin(" + angle + ") = " + TrigEngine.evaluate("sin", angle).getExactValue());
+            }
+        }
+        TestHarness.check(exact == 0, exact + " of " + tries + " got an exact value (expected 0)");
+
+        System.out.println("\n" + TestHarness.summary());
+    }
+
+    /** typedTolerance(input) should be positive (and at most MAX_TYPED_TOLERANCE) exactly when expectTyped */
+    public static void checkTolerance(String input, boolean expectTyped)
+    {
+        double tolerance = PiRecognizer.typedTolerance(input);
+        boolean ok = expectTyped ? tolerance > 0 && tolerance <= PiRecognizer.MAX_TYPED_TOLERANCE : tolerance == 0;
+        TestHarness.check(ok, "typedTolerance(\"" + input + "\") = " + tolerance);
+    }
+
+    /** recognize(x, 0, GRID) should give num/den (den 0: nothing) */
+    public static void checkRecognize(String label, double x, long num, long den)
+    {
+        long fraction = PiRecognizer.recognize(x, 0, ExactTable.GRID);
+        String got = fraction == PiRecognizer.NONE ? "none"
+                     : PiRecognizer.numerator(fraction) + "/" + PiRecognizer.denominator(fraction);
+        String expected = den == 0 ? "none" : num + "/" + den;
+        TestHarness.check(got.equals(expected), label + ": " + got + " (expected " + expected + ")");
+    }
+
+    /** evaluate(function, angle) should have exact value expected (null: not exact) */
+    public static void checkExact(String function, String angle, String expected)
+    {
+        TrigResult result = TrigEngine.evaluate(function, angle);
+        String got = result.isExact() ? result.getExactValue() : null;
+        boolean ok = expected == null ? got == null : expected.equals(got);
+        TestHarness.check(ok, function + "(" + angle + ") = " + result.getValueText()
+                              + (expected == null ? " (expected no exact value)" : " (expected " + expected + ")"));
+    }
+}
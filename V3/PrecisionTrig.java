@@ -0,0 +1,449 @@
+/**
+ * -----------------------------------------
+ * PrecisionTrig
+ * -----------------------------------------
+ *
+ * The six trig functions to as many digits as you ask for
+ * (up to MAX_DIGITS), using BigDecimal instead of double.
+ * TrigEngine uses it when an angle ends in "@digits":
+ *
+ *   TrigEngine.evaluate("sin", "1.2 @50")
+ *     ->  sin(1.2) = 0.93203908596722634967013443549482599541507058820873
+ *
+ * How it works:
+ *   1. π comes from the Chudnovsky series (about 14 digits per term),
+ *      summed by binary splitting in whole numbers. It's worked out
+ *      once and kept: a shorter π is just the long one rounded, and
+ *      each precision asked for is kept too (see pi()).
+ *   2. The angle is split into n·(π/2) + r with |r| <= π/4, like
+ *      RangeReducer does for doubles. A decimal angle gets enough
+ *      extra digits of π to cover its whole-number part, plus more
+ *      if r turns out tiny (an angle close to a multiple of π/2).
+ *      An exact fraction of π (num/den × π) is split with whole
+ *      numbers only, so π's size never matters.
+ *   3. r is halved k times, 1 - cos of the small piece comes from its
+ *      Taylor series (which now ends after a few terms), and k
+ *      double-angle steps undo the halving:
+ *        1 - cos 2y = 2·(1 - cos y)·(1 + cos y)
+ *      sin follows with one square root. This part runs on BigIntegers
+ *      in fixed point, which is much quicker than BigDecimal.
+ *   4. n picks the signs and swaps, and the six functions follow
+ *      from the one (sin, cos) pair.
+ *
+ * Steps 2 and 3 are the expensive part, so the last angle's (sin, cos)
+ * pair is kept: asking for sin, then cos, then tan of the same angle
+ * at the same precision only does them once.
+ *
+ * Work is done with GUARD_DIGITS (plus a few for the halving) more
+ * digits than asked for, and the answer is rounded at the end.
+ * Holds only finished, immutable values, so any number of threads
+ * can use it at once.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + MAX_DIGITS: int
+ * - GUARD_DIGITS: int
+ * - PI_CACHE_LIMIT: int
+ * - QUARTER_PI_BELOW: BigDecimal
+ * - BITS_PER_DIGIT: double
+ * - CHUDNOVSKY_Q: BigInteger
+ * - PI_CACHE: ConcurrentHashMap<Integer, BigDecimal>
+ * - longestPi: BigDecimal
+ * - lastRotation: Rotation
+ * -----------------------------------------
+ * + pi(int digits): BigDecimal
+ * + evaluate(TrigFunction func, BigDecimal angle, MathContext mc): BigDecimal
+ * + evaluatePiFraction(TrigFunction func, long num, long den, MathContext mc): BigDecimal
+ * + sincos(BigDecimal angle, MathContext mc): BigDecimal[]
+ * -----------------------------------------
+ * - rotate(BigDecimal angle, int digits): Rotation
+ * - rotatePiFraction(long num, long den, int digits): Rotation
+ * - sincosSmall(BigDecimal r, int digits): BigDecimal[]
+ * - fromSinCos(TrigFunction func, BigDecimal sin, BigDecimal cos, MathContext mc): BigDecimal
+ * - longerPi(int digits): BigDecimal
+ * - chudnovsky(int digits): BigDecimal
+ * - split(long a, long b): BigInteger[]
+ * - checkPrecision(MathContext mc): int
+ * - Rotation: (sin, cos) of one angle, plus what it was worked out for
+ * -----------------------------------------
+*/
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class PrecisionTrig
+{
+    /***** CONSTANTS *****/
+
+    /** Most significant digits anyone can ask for */
+    public static final int MAX_DIGITS = 10000;
+
+    /** Extra digits carried through the work, so the rounded answer comes out right */
+    private static final int GUARD_DIGITS = 10;
+
+    /** Most different precisions of π kept (the longest one is always kept as well) */
+    private static final int PI_CACHE_LIMIT = 64;
+
+    /** A little under π/4: angles smaller than this need no reducing */
+    private static final BigDecimal QUARTER_PI_BELOW = new BigDecimal("0.78");
+
+    /** log2(10): bits needed per decimal digit */
+    private static final double BITS_PER_DIGIT = 3.3219280948873623;
+
+    /** 640320³ / 24, from the Chudnovsky series */
+    private static final BigInteger CHUDNOVSKY_Q = BigInteger.valueOf(10939058860032000L);
+
+    /** π rounded to each precision asked for so far (up to PI_CACHE_LIMIT of them) */
+    private static final ConcurrentHashMap<Integer, BigDecimal> PI_CACHE = new ConcurrentHashMap<>();
+
+    /***** STATIC VARIABLES *****/
+    private static volatile BigDecimal longestPi;    // the most digits of π worked out so far (null at first)
+    private static volatile Rotation lastRotation;   // the last angle's (sin, cos) pair (null at first)
+
+    /** Private — everything here is static */
+    private PrecisionTrig()
+    {
+    }
+
+    /***** π *****/
+
+    /**
+     * π to the given number of significant digits (rounded half-even).
+     * Worked out once: after that it's a cache read, or a rounding of
+     * the longest π so far if this precision hasn't been asked for yet.
+     */
+    public static BigDecimal pi(int digits)
+    {
+        BigDecimal pi = PI_CACHE.get(digits);
+        if (pi != null)
+        {
+            return pi;
+        }
+
+        MathContext mc = new MathContext(digits, RoundingMode.HALF_EVEN);
+        BigDecimal longest = longestPi;
+        if (longest == null || longest.precision() < digits + GUARD_DIGITS)
+        {
+            longest = longerPi(digits + GUARD_DIGITS);
+        }
+        pi = longest.round(mc);
+
+        if (PI_CACHE.size() < PI_CACHE_LIMIT)
+        {
+            PI_CACHE.putIfAbsent(digits, pi);
+        }
+        return pi;
+    }
+
+    /***** EVALUATING *****/
+
+    /**
+     * func at a decimal angle (in radians, taken exactly as given).
+     * @param mc how many significant digits (1 to MAX_DIGITS) and how to round them
+     * @return the value, or null where func is undefined (like csc(0))
+     * @throws IllegalArgumentException if the precision is out of range, or the
+     *         angle is so big that reducing it would need more than MAX_DIGITS extra digits
+     */
+    public static BigDecimal evaluate(TrigFunction func, BigDecimal angle, MathContext mc)
+    {
+        int digits = checkPrecision(mc);
+        Rotation rotation = rotate(angle, digits + GUARD_DIGITS);
+        return fromSinCos(func, rotation.sin, rotation.cos, mc);
+    }
+
+    /**
+     * func at num/den × π (den > 0). The angle is split with whole numbers,
+     * so even 1000001π/3 costs no more than π/3, and values that are
+     * exactly 0 (like sin(π)) come out as exactly 0.
+     * @return the value, or null where func is undefined (like tan(π/2))
+     */
+    public static BigDecimal evaluatePiFraction(TrigFunction func, long num, long den, MathContext mc)
+    {
+        int digits = checkPrecision(mc);
+        Rotation rotation = rotatePiFraction(num, den, digits + GUARD_DIGITS);
+        return fromSinCos(func, rotation.sin, rotation.cos, mc);
+    }
+
+    /** {sin, cos} of a decimal angle (in radians), both rounded to mc */
+    public static BigDecimal[] sincos(BigDecimal angle, MathContext mc)
+    {
+        int digits = checkPrecision(mc);
+        Rotation rotation = rotate(angle, digits + GUARD_DIGITS);
+        return new BigDecimal[] {rotation.sin.round(mc), rotation.cos.round(mc)};
+    }
+
+    /***** HELPER METHODS *****/
+
+    /** Rejects a precision outside 1 to MAX_DIGITS, otherwise returns it */
+    private static int checkPrecision(MathContext mc)
+    {
+        int digits = mc.getPrecision();
+        if (digits < 1 || digits > MAX_DIGITS)
+        {
+            throw new IllegalArgumentException("digits must be 1 to " + MAX_DIGITS + ", got " + digits);
+        }
+        return digits;
+    }
+
+    /**
+     * (sin, cos) of a decimal angle to about the given number of digits.
+     * Splits it into n·(π/2) + r and works on r (see step 2 above).
+     */
+    private static Rotation rotate(BigDecimal angle, int digits)
+    {
+        Rotation last = lastRotation;
+        if (last != null && last.digits == digits && last.den == 0 && last.angle.equals(angle))
+        {
+            return last; // same angle, same precision — nothing to redo
+        }
+
+        // Digits before the point: this many more digits of π are needed,
+        // or n·(π/2) eats into the digits of r
+        long wholeDigits = Math.max(0L, (long) angle.precision() - angle.scale());
+        if (wholeDigits > MAX_DIGITS)
+        {
+            throw new IllegalArgumentException("angle too big for " + (digits - GUARD_DIGITS) + " digits");
+        }
+        int extra = 0;
+        BigInteger n = BigInteger.ZERO;
+        BigDecimal r = angle;
+
+        // Already within π/4 of 0 (0.78 < π/4): nothing to take off
+        for (int attempt = 0; attempt < 2 && angle.abs().compareTo(QUARTER_PI_BELOW) >= 0; attempt++)
+        {
+            int piDigits = digits + (int) wholeDigits + extra + 5;
+            MathContext mc = new MathContext(piDigits, RoundingMode.HALF_EVEN);
+            BigDecimal halfPi = pi(piDigits).divide(BigDecimal.valueOf(2), mc); // exact: just halves the digits
+
+            // n = the nearest whole number to angle / (π/2)
+            n = angle.divide(halfPi, new MathContext((int) wholeDigits + 5, RoundingMode.HALF_EVEN))
+                     .setScale(0, RoundingMode.HALF_EVEN).toBigInteger();
+            r = angle.subtract(halfPi.multiply(new BigDecimal(n)), mc);
+
+            // r = 0.000ddd... lost that many digits to the subtraction — get them back once
+            int lost = r.signum() == 0 ? 0 : r.scale() - r.precision();
+            if (lost <= 0 || attempt > 0)
+            {
+                break;
+            }
+            extra = Math.min(lost, MAX_DIGITS);
+        }
+
+        BigDecimal[] pair = sincosSmall(r, digits); // {sin r, cos r}
+        Rotation rotation = new Rotation(angle, 0, 0, digits, n.intValue() & 3, pair);
+        lastRotation = rotation;
+        return rotation;
+    }
+
+    /** (sin, cos) of num/den × π to about the given number of digits, split with whole numbers */
+    private static Rotation rotatePiFraction(long num, long den, int digits)
+    {
+        Rotation last = lastRotation;
+        if (last != null && last.digits == digits && last.num == num && last.den == den)
+        {
+            return last;
+        }
+
+        // num/den × π = n·(π/2) + rNum/(2·den) × π, with n the nearest whole number to 2·num/den.
+        // BigInteger, since 4·num can be bigger than a long.
+        BigInteger twoNum = BigInteger.valueOf(num).shiftLeft(1);
+        BigInteger bigDen = BigInteger.valueOf(den);
+        BigInteger[] split = twoNum.shiftLeft(1).add(bigDen).divideAndRemainder(bigDen.shiftLeft(1));
+        BigInteger n = split[1].signum() < 0 ? split[0].subtract(BigInteger.ONE) : split[0]; // floor, not toward 0
+        BigInteger rNum = twoNum.subtract(n.multiply(bigDen));
+
+        BigDecimal[] pair;
+        if (rNum.signum() == 0)
+        {
+            pair = new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ONE}; // a multiple of π/2: exact
+        }
+        else
+        {
+            MathContext mc = new MathContext(digits + 5, RoundingMode.HALF_EVEN);
+            BigDecimal r = pi(digits + 5).multiply(new BigDecimal(rNum))
+                                          .divide(new BigDecimal(bigDen.shiftLeft(1)), mc);
+            pair = sincosSmall(r, digits);
+        }
+
+        Rotation rotation = new Rotation(null, num, den, digits, n.intValue() & 3, pair);
+        lastRotation = rotation;
+        return rotation;
+    }
+
+    /**
+     * {sin r, cos r} for |r| <= π/4, to about the given number of digits.
+     * Works on v = 1 - cos, which stays accurate even when r is tiny:
+     * halves r k times, sums v's Taylor series, doubles back up k times
+     * with one multiply each (v of 2y = 2v·(2 - v)), then
+     *   cos r = 1 - v      sin r = ±√(v·(2 - v))
+     * All of it is done on BigIntegers in fixed point (value × 2^bits),
+     * where dividing by a small whole number is quick — much quicker
+     * than a BigDecimal divide on every term.
+     */
+    private static BigDecimal[] sincosSmall(BigDecimal r, int digits)
+    {
+        long leadingZeros = Math.max(0L, (long) r.scale() - r.precision()); // r = 0.000ddd...: this many zeros
+        if (leadingZeros > digits)
+        {
+            // |r| < 10^-digits: sin r = r and cos r = 1 to every digit kept (and
+            // squaring r could be too small even for BigDecimal's exponent)
+            return new BigDecimal[] {r, BigDecimal.ONE};
+        }
+
+        // Enough bits for the digits, plus twice r's leading zeros (v is about r²/2,
+        // and sin comes from it), plus 2 per doubling (each can double the error)
+        int bits = (int) ((digits + 2 * leadingZeros) * BITS_PER_DIGIT) + 64;
+        int halvings = (int) Math.sqrt(bits / 2.0); // balances series terms against doublings
+        bits += 2 * halvings;
+        BigInteger one = BigInteger.ONE.shiftLeft(bits);
+        BigInteger two = one.shiftLeft(1);
+
+        BigInteger y = r.abs().multiply(new BigDecimal(one)).toBigInteger().shiftRight(halvings);
+        BigInteger ySquared = y.multiply(y).shiftRight(bits);
+
+        // v = 1 - cos y = y²/2! - y⁴/4! + y⁶/6! - ...
+        BigInteger term = ySquared.shiftRight(1);
+        BigInteger v = term;
+        for (long k = 2; term.signum() != 0; k += 2)
+        {
+            term = term.multiply(ySquared).shiftRight(bits).divide(BigInteger.valueOf((k + 1) * (k + 2))).negate();
+            v = v.add(term);
+        }
+
+        // Undo the halving: 1 - cos 2y = 2v·(2 - v)
+        for (int i = 0; i < halvings; i++)
+        {
+            v = v.multiply(two.subtract(v)).shiftRight(bits - 1);
+        }
+
+        BigInteger cos = one.subtract(v);
+        BigInteger sin = v.multiply(two.subtract(v)).sqrt(); // √ of a value × 2^(2·bits) is back to × 2^bits
+
+        MathContext mc = new MathContext(digits, RoundingMode.HALF_EVEN);
+        BigDecimal scale = new BigDecimal(one);
+        BigDecimal sinR = new BigDecimal(sin).divide(scale, mc);
+        return new BigDecimal[] {r.signum() < 0 ? sinR.negate() : sinR, new BigDecimal(cos).divide(scale, mc)};
+    }
+
+    /**
+     * func from the sin and cos of its angle, rounded to mc.
+     * null where the value is undefined (a divide by exactly 0).
+     */
+    private static BigDecimal fromSinCos(TrigFunction func, BigDecimal sin, BigDecimal cos, MathContext mc)
+    {
+        switch (func)
+        {
+            case SIN: return sin.round(mc);
+            case COS: return cos.round(mc);
+            case TAN: return cos.signum() == 0 ? null : sin.divide(cos, mc);
+            case CSC: return sin.signum() == 0 ? null : BigDecimal.ONE.divide(sin, mc);
+            case SEC: return cos.signum() == 0 ? null : BigDecimal.ONE.divide(cos, mc);
+            default:  return sin.signum() == 0 ? null : cos.divide(sin, mc); // COT
+        }
+    }
+
+    /***** π SERIES *****/
+
+    /**
+     * Works out π to at least the given number of digits and keeps it as
+     * longestPi. synchronized so two threads don't both do the long sum.
+     */
+    private static synchronized BigDecimal longerPi(int digits)
+    {
+        BigDecimal longest = longestPi;
+        if (longest != null && longest.precision() >= digits)
+        {
+            return longest; // another thread just did it
+        }
+        longest = chudnovsky(digits);
+        longestPi = longest;
+        return longest;
+    }
+
+    /**
+     * π from the Chudnovsky series:
+     *   π = 426880·√10005 · Q / T
+     * with Q and T the whole-number sums from split(0, terms).
+     * Each term adds about 14.18 digits.
+     */
+    private static BigDecimal chudnovsky(int digits)
+    {
+        MathContext mc = new MathContext(digits + 2, RoundingMode.HALF_EVEN);
+        long terms = digits / 14 + 2;
+        BigInteger[] pqt = split(0, terms);
+
+        BigDecimal root = BigDecimal.valueOf(10005).sqrt(mc);
+        return new BigDecimal(pqt[1].multiply(BigInteger.valueOf(426880)))
+                   .multiply(root, mc)
+                   .divide(new BigDecimal(pqt[2]), mc)
+                   .round(new MathContext(digits, RoundingMode.HALF_EVEN));
+    }
+
+    /**
+     * Binary splitting: {P, Q, T} for terms a up to (not including) b.
+     * Splitting the range in half and joining the halves keeps the
+     * numbers balanced, which is far faster than adding term by term.
+     */
+    private static BigInteger[] split(long a, long b)
+    {
+        if (b - a == 1)
+        {
+            if (a == 0)
+            {
+                return new BigInteger[] {BigInteger.ONE, BigInteger.ONE, BigInteger.valueOf(13591409)};
+            }
+            BigInteger bigA = BigInteger.valueOf(a);
+            BigInteger p = BigInteger.valueOf(6 * a - 5)
+                               .multiply(BigInteger.valueOf(2 * a - 1))
+                               .multiply(BigInteger.valueOf(6 * a - 1));
+            BigInteger q = bigA.multiply(bigA).multiply(bigA).multiply(CHUDNOVSKY_Q);
+            BigInteger t = p.multiply(BigInteger.valueOf(13591409).add(BigInteger.valueOf(545140134).multiply(bigA)));
+            return new BigInteger[] {p, q, (a & 1) == 1 ? t.negate() : t};
+        }
+
+        long m = (a + b) / 2;
+        BigInteger[] left = split(a, m);
+        BigInteger[] right = split(m, b);
+        return new BigInteger[]
+        {
+            left[0].multiply(right[0]),
+            left[1].multiply(right[1]),
+            left[2].multiply(right[1]).add(left[0].multiply(right[2]))
+        };
+    }
+
+    /***** Rotation *****/
+
+    /** sin and cos of one angle = n·(π/2) + r, and what angle and precision they're for */
+    private static final class Rotation
+    {
+        private final BigDecimal angle; // decimal angle, or null for a fraction of π
+        private final long num;         // fraction of π: num/den (den is 0 for a decimal angle)
+        private final long den;
+        private final int digits;       // working digits
+        private final BigDecimal sin;   // sin of the whole angle
+        private final BigDecimal cos;   // cos of the whole angle
+
+        /** Turns {sin r, cos r} into sin and cos of n·(π/2) + r (n = 0–3) */
+        private Rotation(BigDecimal angle, long num, long den, int digits, int n, BigDecimal[] pairR)
+        {
+            this.angle = angle;
+            this.num = num;
+            this.den = den;
+            this.digits = digits;
+            switch (n)
+            {
+                case 0:  this.sin = pairR[0];          this.cos = pairR[1];          break;
+                case 1:  this.sin = pairR[1];          this.cos = pairR[0].negate(); break;
+                case 2:  this.sin = pairR[0].negate(); this.cos = pairR[1].negate(); break;
+                default: this.sin = pairR[1].negate(); this.cos = pairR[0];          break;
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/********************************************
+*   PrecisionTrigBenchmark
+*********************************************
+*   AUTHORS:    Jeff Peterson
+*   COLLABORATORS: None
+*   LAST MODIFIED:  05/27/2025
+********************************************
+*   PROGRAM DESCRIPTION:
+*   BENCHMARK of PrecisionTrig: digits per second for sin at 50, 500
+*   and 5000 digits, on decimal angles and on exact fractions of π,
+*   plus sin, cos and tan of the same angle (which share one reduction)
+*   and the first, uncached π.
+*   First checks the answers: sin² + cos² = 1, each precision agrees
+*   with the next one rounded, sin(π/6) is exactly 0.5, and the
+*   leading digits match Math.sin.
+*
+*   java PrecisionTrigBenchmark [maxDigits]
+*   maxDigits defaults to 5000.
+*********************************************
+*   ALGORITHM:
+*   Time the first π (nothing cached yet)
+*   Check the answers at each precision (random angles, fixed seed)
+*   For each precision: time sin of different angles (best of several
+*   rounds, after warm-up; a new angle each call so lastRotation never hits)
+*   Print ms per call and digits per second
+*********************************************
+*   STATIC METHODS:
+*   main(String[] args)
+*   checkAnswers(SplittableRandom random, int digits)
+*   timePrecision(SplittableRandom random, int digits)
+*   timeCalls(int kind, BigDecimal[] angles, long[] nums, MathContext mc): long
+*   randomAngle(SplittableRandom random): BigDecimal
+*********************************************
+*   IMPORTED PACKAGES NEEDED AND PURPOSE:
+*   BigDecimal, MathContext, RoundingMode - the angles and precisions
+*   SplittableRandom - random angles (fixed seed, so runs repeat)
+*********************************************/
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+public class PrecisionTrigBenchmark
+{
+    /** Timed rounds per precision (the best one is reported) and untimed warm-up rounds before them */
+    private static final int ROUNDS = 5;
+    private static final int WARM_UP = 5;
+
+    /** Roughly how many digits each timed round should produce, so every precision takes about as long */
+    private static final long DIGITS_PER_ROUND = 100000;
+
+    /** Names of the timed calls, in timeCalls()'s order */
+    private static final String[] NAMES = {"sin(decimal)", "sin(k·π/7)", "sin+cos+tan"};
+
+    /** Keeps the JIT from dropping work whose answers nobody reads */
+    private static long sink = 0;
+
+    public static void main(String[] args)
+    {
+        int maxDigits = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int[] precisions = maxDigits >= 5000 ? new int[] {50, 500, 5000} : new int[] {50, Math.max(51, maxDigits)};
+        SplittableRandom random = new SplittableRandom(19);
+
+        /***** FIRST π *****/
+        long start = System.nanoTime();
+        BigDecimal pi = PrecisionTrig.pi(maxDigits);
+        long piTime = System.nanoTime() - start;
+        System.out.printf("FIRST π to %d digits (nothing cached): %.1f ms%n", maxDigits, piTime / 1e6);
+        sink += pi.precision();
+
+        /***** ANSWERS *****/
+        System.out.println("\nTESTING answers");
+        for (int digits : precisions)
+        {
+            checkAnswers(random, digits);
+        }
+
+        /***** SPEED *****/
+        System.out.println("\nSPEED (best of " + ROUNDS + " rounds; a different angle every call)");
+        System.out.println("  digits  call           ms/call       digits/s");
+        for (int digits : precisions)
+        {
+            timePrecision(random, digits);
+        }
+
+        System.out.println("\n" + TestHarness.summary() + "  (checksum " + sink + ")");
+    }
+
+    /** Checks sin and cos of a few random angles at this precision */
+    public static void checkAnswers(SplittableRandom random, int digits)
+    {
+        MathContext mc = new MathContext(digits, RoundingMode.HALF_EVEN);
+        MathContext more = new MathContext(digits + 20, RoundingMode.HALF_EVEN);
+        BigDecimal tolerance = BigDecimal.ONE.movePointLeft(digits - 2);
+
+        int pythagoras = 0;
+        int rounding = 0;
+        int leading = 0;
+        int count = digits >= 5000 ? 3 : 20;
+        for (int i = 0; i < count; i++)
+        {
+            BigDecimal angle = randomAngle(random);
+            BigDecimal[] sc = PrecisionTrig.sincos(angle, mc);
+            BigDecimal one = sc[0].multiply(sc[0]).add(sc[1].multiply(sc[1]));
+            if (one.subtract(BigDecimal.ONE).abs().compareTo(tolerance) > 0)
+            {
+                pythagoras++;
+            }
+
+            BigDecimal sin = PrecisionTrig.evaluate(TrigFunction.SIN, angle, mc);
+            BigDecimal longer = PrecisionTrig.evaluate(TrigFunction.SIN, angle, more);
+            if (sin.compareTo(longer.round(mc)) != 0)
+            {
+                rounding++;
+            }
+
+            if (Math.abs(sin.doubleValue() - Math.sin(angle.doubleValue())) > 1e-15)
+            {
+                leading++;
+            }
+        }
+        TestHarness.check(pythagoras == 0, digits + " digits: sin² + cos² = 1 for " + (count - pythagoras) + " of " + count + " angles");
+        TestHarness.check(rounding == 0, digits + " digits: same as " + (digits + 20) + " digits rounded for " + (count - rounding) + " of " + count);
+        TestHarness.check(leading == 0, digits + " digits: matches Math.sin to 1e-15 for " + (count - leading) + " of " + count);
+
+        BigDecimal half = PrecisionTrig.evaluatePiFraction(TrigFunction.SIN, 1, 6, mc);
+        TestHarness.check(half.compareTo(new BigDecimal("0.5")) == 0, digits + " digits: sin(π/6) = " + half.stripTrailingZeros());
+    }
+
+    /** Times each kind of call at this precision and prints a row for each */
+    public static void timePrecision(SplittableRandom random, int digits)
+    {
+        MathContext mc = new MathContext(digits, RoundingMode.HALF_EVEN);
+        int calls = (int) Math.max(3, DIGITS_PER_ROUND / digits);
+
+        for (int kind = 0; kind < NAMES.length; kind++)
+        {
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < WARM_UP + ROUNDS; round++)
+            {
+                BigDecimal[] angles = new BigDecimal[calls];
+                long[] nums = new long[calls];
+                for (int i = 0; i < calls; i++)
+                {
+                    angles[i] = randomAngle(random);
+                    nums[i] = random.nextLong(1, 1000000); // big numerators: split with whole numbers, so no dearer
+                }
+                long time = timeCalls(kind, angles, nums, mc);
+                if (round >= WARM_UP)
+                {
+                    best = Math.min(best, time);
+                }
+            }
+
+            int values = kind == 2 ? 3 : 1;
+            System.out.printf("  %6d  %-12s %10.3f %14.0f%n", digits, NAMES[kind], best / 1e6 / calls,
+                              (double) digits * values * calls * 1e9 / best);
+        }
+    }
+
+    /** Nanoseconds for one call per angle (0 = sin of the decimal, 1 = sin(nums[i]·π/7), 2 = sin, cos and tan of the decimal) */
+    public static long timeCalls(int kind, BigDecimal[] angles, long[] nums, MathContext mc)
+    {
+        long start = System.nanoTime();
+        for (int i = 0; i < angles.length; i++)
+        {
+            switch (kind)
+            {
+                case 0:
+                    sink += PrecisionTrig.evaluate(TrigFunction.SIN, angles[i], mc).scale();
+                    break;
+                case 1:
+                    sink += PrecisionTrig.evaluatePiFraction(TrigFunction.SIN, nums[i], 7, mc).scale();
+                    break;
+                default:
+                    sink += PrecisionTrig.evaluate(TrigFunction.SIN, angles[i], mc).scale();
+                    sink += PrecisionTrig.evaluate(TrigFunction.COS, angles[i], mc).scale();
+                    sink += PrecisionTrig.evaluate(TrigFunction.TAN, angles[i], mc).scale();
+                    break;
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /** A random angle in [-10, 10] typed to 10 decimal places */
+    public static BigDecimal randomAngle(SplittableRandom random)
+    {
+        return BigDecimal.valueOf(random.nextLong(-100000000000L, 100000000000L), 10);
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * -----------------------------------------
+ * QuizRandom
+ * -----------------------------------------
+ *
+ * Where the quiz gets its random numbers.
+ *
+ * Math.random() shares one Random across the whole program, and every
+ * call updates it with a compare-and-set, so quiz sessions running on
+ * many threads fight over it — and a run can't be repeated. Instead,
+ * anything random in the quiz takes a SplittableRandom:
+ *
+ *   - forThread(): this thread's own generator (made on first use,
+ *     never shared), the default when no generator is given
+ *   - new SplittableRandom(seed): the same seed gives the same quiz
+ *     every time, for load simulations and for replaying a learner's
+ *     bug report (TrigCalcV3 --seed N)
+ *
+ * A SplittableRandom isn't thread-safe; give each thread or session
+ * its own (split() makes an independent one from an existing one).
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * - THREAD_RANDOM: ThreadLocal<SplittableRandom>
+ * -----------------------------------------
+ * + forThread(): SplittableRandom
+ * + shuffle(int[] values, SplittableRandom random): int[]
+ * -----------------------------------------
+*/
+
+import java.util.SplittableRandom;
+
+public final class QuizRandom
+{
+    /** Each thread's own generator, seeded differently for each thread */
+    private static final ThreadLocal<SplittableRandom> THREAD_RANDOM = ThreadLocal.withInitial(SplittableRandom::new);
+
+    /** Private — everything here is static */
+    private QuizRandom()
+    {
+    }
+
+    /** This thread's generator. Only use it on this thread */
+    public static SplittableRandom forThread()
+    {
+        return THREAD_RANDOM.get();
+    }
+
+    /**
+     * Shuffles values in place (Fisher–Yates: every order equally likely).
+     * @return values, for chaining
+     */
+    public static int[] shuffle(int[] values, SplittableRandom random)
+    {
+        for (int i = values.length - 1; i > 0; i--)
+        {
+            int j = random.nextInt(i + 1);
+            int t = values[i];
+            values[i] = values[j];
+            values[j] = t;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,436 @@
+/**
+ * -----------------------------------------
+ * QuizServer
+ * -----------------------------------------
+ *
+ * The unit circle quiz (the same one FlashcardFactory runs on the
+ * console) served over a plain line protocol on localhost, so one
+ * process can quiz a whole class at once instead of one JVM each.
+ *
+ * Every connection is one learner session with its own scheduler
+ * (LeitnerScheduler), DeckState and score. Each session runs on its
+ * own virtual thread when the JDK has them (21 and up), found by
+ * reflection so this still compiles and runs on older JDKs, where
+ * a cached thread pool is used instead. Open sessions are kept in a
+ * ConcurrentHashMap; totals over all sessions are LongAdders, so
+ * thousands of sessions updating them don't contend.
+ *
+ * Protocol (UTF-8 lines; the server speaks first):
+ *   server:  HELLO <session id>
+ *            QUESTION <number> sin(π/4)
+ *            CHOICES <count> 0|1/2|√2/2|...
+ *   client:  <answer number>        (1 to count)
+ *   server:  RIGHT sin(π/4) = √2/2   or   WRONG sin(π/4) = √2/2
+ *            SCORE <correct> <answered> <mastered>
+ *            QUESTION ... / CHOICES ...   (the next card)
+ *   client:  STATS   ->  STATS <open sessions> <sessions started> <answers> <correct answers>
+ *   client:  QUIT    ->  BYE <correct> <answered>, and the connection closes
+ *   anything else    ->  ERROR <message> (the question stays the same)
+ *
+ *   java TrigCalcV3 --serve 5150
+ *   nc localhost 5150
+ *
+ * Only listens on the loopback address. A session that sends nothing
+ * for IDLE_TIMEOUT_MILLIS is closed.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + DEFAULT_PORT: int
+ * + IDLE_TIMEOUT_MILLIS: int
+ * - BACKLOG: int
+ * -----------------------------------------
+ * - port: int
+ * - random: SplittableRandom
+ * - sessions: ConcurrentHashMap<Long, Session>
+ * - nextSessionId: AtomicLong
+ * - sessionsStarted: LongAdder
+ * - answers: LongAdder
+ * - correctAnswers: LongAdder
+ * - serverSocket: ServerSocket
+ * - executor: ExecutorService
+ * - virtualThreads: boolean
+ * -----------------------------------------
+ * + QuizServer(int port)
+ * + QuizServer(int port, SplittableRandom random)
+ *
+ * + void start()
+ * + void stop()
+ * + int getPort()
+ * + boolean usesVirtualThreads()
+ * + int getOpenSessions()
+ * + long getSessionsStarted()
+ * + long getAnswerCount()
+ * + long getCorrectCount()
+ * + String toString()
+ * -----------------------------------------
+ * - acceptLoop(): void
+ * - newSessionExecutor(): ExecutorService
+ * - Session: Runnable — one learner's connection
+ * -----------------------------------------
+*/
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class QuizServer
+{
+    /***** CONSTANTS *****/
+
+    /** Port used when none is given */
+    public static final int DEFAULT_PORT = 5150;
+
+    /** A session idle this long (no line from the learner) is closed */
+    public static final int IDLE_TIMEOUT_MILLIS = 15 * 60 * 1000;
+
+    /** Connections that can wait to be accepted (a whole class connecting at once) */
+    private static final int BACKLOG = 1024;
+
+    /***** INSTANCE VARIABLES *****/
+    private final int port;
+    private final SplittableRandom random; // only used by the accept thread, which splits one off per session
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextSessionId = new AtomicLong(1);
+    private final LongAdder sessionsStarted = new LongAdder();
+    private final LongAdder answers = new LongAdder();
+    private final LongAdder correctAnswers = new LongAdder();
+    private volatile ServerSocket serverSocket;
+    private volatile ExecutorService executor;
+    private volatile boolean virtualThreads;
+
+    /***** CONSTRUCTORS *****/
+
+    /**
+     * A server for the given port (0 picks a free one; see getPort after start).
+     * Sessions get their card order from a randomly seeded generator.
+     */
+    public QuizServer(int port)
+    {
+        this(port, new SplittableRandom());
+    }
+
+    /**
+     * Same as above, with every session's generator split off random —
+     * so with a fixed seed (and sessions connecting in the same order)
+     * a load simulation repeats exactly.
+     */
+    public QuizServer(int port, SplittableRandom random)
+    {
+        if (port < 0 || port > 65535)
+        {
+            throw new IllegalArgumentException("port must be 0 to 65535, got " + port);
+        }
+        this.port = port;
+        this.random = random;
+    }
+
+    /***** STARTING AND STOPPING *****/
+
+    /**
+     * Opens the port on localhost and starts accepting learners on a background thread.
+     * Returns once the port is open.
+     * @throws IOException if the port can't be opened
+     */
+    public synchronized void start() throws IOException
+    {
+        if (serverSocket != null)
+        {
+            throw new IllegalStateException("server already started");
+        }
+        serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        executor = newSessionExecutor();
+
+        Thread acceptor = new Thread(this::acceptLoop, "QuizServer-accept");
+        acceptor.start();
+    }
+
+    /** Stops accepting, closes every open session and stops the session threads */
+    public synchronized void stop()
+    {
+        if (serverSocket == null)
+        {
+            return;
+        }
+        try
+        {
+            serverSocket.close(); // ends acceptLoop
+        }
+        catch (IOException e)
+        {
+            // closing anyway
+        }
+        for (Session session : sessions.values())
+        {
+            session.close();
+        }
+        executor.shutdown();
+    }
+
+    /***** GETTERS (accessors) *****/
+
+    /** The port being listened on (the real one, if 0 was asked for and the server has started) */
+    public int getPort()
+    {
+        ServerSocket socket = serverSocket;
+        return socket == null ? port : socket.getLocalPort();
+    }
+
+    /** True if sessions run on virtual threads (false: a cached thread pool, on JDKs before 21) */
+    public boolean usesVirtualThreads()
+    {
+        return virtualThreads;
+    }
+
+    /** Sessions connected right now */
+    public int getOpenSessions()
+    {
+        return sessions.size();
+    }
+
+    /** Sessions started since the server started */
+    public long getSessionsStarted()
+    {
+        return sessionsStarted.sum();
+    }
+
+    /** Answers given over all sessions */
+    public long getAnswerCount()
+    {
+        return answers.sum();
+    }
+
+    /** Right answers over all sessions */
+    public long getCorrectCount()
+    {
+        return correctAnswers.sum();
+    }
+
+    /** Summary line, e.g. for logging */
+    public String toString()
+    {
+        return "Quiz server on port " + getPort() + ": " + getOpenSessions() + " open sessions, "
+               + getSessionsStarted() + " started, " + getCorrectCount() + " of "
+               + getAnswerCount() + " answers right";
+    }
+
+    /***** HELPER METHODS *****/
+
+    /** Accepts connections until the server socket is closed, one Session each */
+    private void acceptLoop()
+    {
+        while (!serverSocket.isClosed())
+        {
+            Socket socket;
+            try
+            {
+                socket = serverSocket.accept();
+            }
+            catch (IOException e)
+            {
+                if (serverSocket.isClosed())
+                {
+                    return; // stop() was called
+                }
+                continue; // one failed accept shouldn't stop the server
+            }
+
+            Session session = new Session(nextSessionId.getAndIncrement(), socket, random.split());
+            sessions.put(session.id, session);
+            sessionsStarted.increment();
+            try
+            {
+                executor.execute(session);
+            }
+            catch (RejectedExecutionException e)
+            {
+                session.close(); // stopping
+            }
+        }
+    }
+
+    /**
+     * One virtual thread per session where the JDK has them
+     * (Executors.newVirtualThreadPerTaskExecutor, Java 21 and up),
+     * otherwise a cached pool of ordinary threads.
+     */
+    private ExecutorService newSessionExecutor()
+    {
+        try
+        {
+            Object virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            virtualThreads = true;
+            return (ExecutorService) virtual;
+        }
+        catch (ReflectiveOperationException | RuntimeException e)
+        {
+            virtualThreads = false;
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /** One learner's connection: asks cards from its own scheduler until QUIT or the connection ends */
+    private class Session implements Runnable
+    {
+        private final long id;
+        private final Socket socket;
+        private final CardScheduler scheduler;
+        private final DeckState progress = new DeckState();
+        private int correctCount = 0; // only touched by this session's thread
+        private int totalCount = 0;
+
+        Session(long id, Socket socket, SplittableRandom random)
+        {
+            this.id = id;
+            this.socket = socket;
+            this.scheduler = new LeitnerScheduler(QuizRandom.shuffle(CardCode.deck(), random));
+        }
+
+        public void run()
+        {
+            try
+            {
+                socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+
+                out.write("HELLO " + id + "\n");
+                int card = scheduler.nextCard();
+                writeQuestion(out, card);
+                out.flush();
+
+                String line;
+                while ((line = in.readLine()) != null)
+                {
+                    line = line.trim();
+                    if (line.equalsIgnoreCase("QUIT"))
+                    {
+                        out.write("BYE " + correctCount + " " + totalCount + "\n");
+                        out.flush();
+                        return;
+                    }
+                    else if (line.equalsIgnoreCase("STATS"))
+                    {
+                        out.write("STATS " + getOpenSessions() + " " + getSessionsStarted() + " "
+                                  + getAnswerCount() + " " + getCorrectCount() + "\n");
+                    }
+                    else
+                    {
+                        TrigFunction func = CardCode.function(card);
+                        int choice = parseChoice(line, TrigEngine.getAnswerChoiceCount(func));
+                        if (choice < 0)
+                        {
+                            out.write("ERROR expected an answer number 1-" + TrigEngine.getAnswerChoiceCount(func)
+                                      + ", STATS or QUIT\n");
+                        }
+                        else
+                        {
+                            card = answer(out, card, choice);
+                        }
+                    }
+                    out.flush();
+                }
+            }
+            catch (SocketTimeoutException e)
+            {
+                // idle too long: just close
+            }
+            catch (IOException e)
+            {
+                // learner went away: just close
+            }
+            finally
+            {
+                close();
+            }
+        }
+
+        /** Checks an answer, updates every score, writes the result, and asks the next card (returned) */
+        private int answer(BufferedWriter out, int card, int choice) throws IOException
+        {
+            Flashcard flashcard = CardCode.toFlashcard(card);
+            boolean right = TrigEngine.isCorrect(flashcard, choice);
+
+            totalCount++;
+            answers.increment();
+            if (right)
+            {
+                correctCount++;
+                correctAnswers.increment();
+            }
+            progress.recordAnswer(card, right);
+            scheduler.recordAnswer(card, right);
+
+            out.write((right ? "RIGHT " : "WRONG ") + flashcard + "\n");
+            out.write("SCORE " + correctCount + " " + totalCount + " " + progress.countMastered() + "\n");
+
+            int next = scheduler.nextCard();
+            writeQuestion(out, next);
+            return next;
+        }
+
+        /** Writes the QUESTION and CHOICES lines for card */
+        private void writeQuestion(BufferedWriter out, int card) throws IOException
+        {
+            TrigFunction func = CardCode.function(card);
+            int count = TrigEngine.getAnswerChoiceCount(func);
+
+            StringBuilder sb = new StringBuilder(16 * count);
+            sb.append("QUESTION ").append(totalCount + 1).append(' ').append(CardCode.question(card)).append('\n');
+            sb.append("CHOICES ").append(count).append(' ');
+            for (int i = 1; i <= count; i++)
+            {
+                if (i > 1)
+                {
+                    sb.append('|');
+                }
+                sb.append(TrigEngine.getAnswerChoice(func, i));
+            }
+            out.write(sb.append('\n').toString());
+        }
+
+        /** The answer number in line (1 to count), or -1 if it isn't one */
+        private int parseChoice(String line, int count)
+        {
+            try
+            {
+                int choice = Integer.parseInt(line);
+                return choice >= 1 && choice <= count ? choice : -1;
+            }
+            catch (NumberFormatException e)
+            {
+                return -1;
+            }
+        }
+
+        /** Closes the connection and forgets the session (safe to call more than once) */
+        void close()
+        {
+            sessions.remove(id, this);
+            try
+            {
+                socket.close();
+            }
+            catch (IOException e)
+            {
+                // already closed
+            }
+        }
+    }
+}
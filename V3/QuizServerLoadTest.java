@@ -0,0 +1,321 @@
+/********************************************
+*   QuizServerLoadTest
+*********************************************
+*   AUTHORS:    Jeff Peterson
+*   COLLABORATORS: None
+*   LAST MODIFIED:  05/27/2025
+********************************************
+*   PROGRAM DESCRIPTION:
+*   LOAD TEST of QuizServer: starts a server on a free port (seeded,
+*   so runs repeat), checks the line protocol with one client, then
+*   holds 50, 500 and 2000 sessions open at once and prints sessions/s,
+*   answers/s, the most sessions open at once, and failures.
+*   Each client thread runs a few sessions in rounds. In every round it
+*   connects, reads the greeting, and waits at a barrier until all the
+*   clients' sessions are open, so the server really has that many
+*   learners at once; only then does it answer.
+*   Every simulated learner answers a fixed number of questions and
+*   remembers each answer the server tells it, picking it when the
+*   question comes round again, so the RIGHT path, the scores and the
+*   scheduler all get exercised, and every reply line is checked.
+*   After each level the server's totals must match the clients' and
+*   every session must have closed.
+*
+*   java QuizServerLoadTest [maxClients] [answersPerSession]
+*   maxClients defaults to 2000, answersPerSession to 20.
+*********************************************
+*   ALGORITHM:
+*   Start a QuizServer on port 0
+*   Check one session: HELLO, QUESTION/CHOICES, ERROR for bad input, RIGHT/WRONG + SCORE, STATS, QUIT -> BYE
+*   For 50, 500, 2000 clients: 4 rounds, each with every client's session open at once, time them all
+*   Compare the server's counters with the clients', wait for open sessions to reach 0
+*   Print sessions/s, answers/s, peak open sessions and failures per level
+*********************************************
+*   STATIC METHODS:
+*   main(String[] args)
+*   checkProtocol(int port)
+*   runLevel(QuizServer server, int clients, int answersEach)
+*   runSession(int port, int answersEach, LongAdder right, CyclicBarrier allOpen): boolean
+*   choose(String question, String choices, Map<String, String> learned): int
+*   waitForNoSessions(QuizServer server): boolean
+*********************************************
+*   IMPORTED PACKAGES NEEDED AND PURPOSE:
+*   java.io, Socket - the client side of the line protocol
+*   Executors, CountDownLatch, CyclicBarrier - running many clients at once, all open together
+*   AtomicInteger, AtomicLong, LongAdder - counts shared by the client threads
+*********************************************/
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class QuizServerLoadTest
+{
+    /** Sessions open at once for each level (capped at maxClients) */
+    private static final int[] LEVELS = {50, 500, 2000};
+
+    /** Sessions each client runs, one round after another */
+    private static final int SESSIONS_PER_CLIENT = 4;
+
+    /** Longest a session waits for the others to open before it gives up */
+    private static final long OPEN_TIMEOUT_SECONDS = 60;
+
+    public static void main(String[] args) throws Exception
+    {
+        int maxClients = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int answersEach = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        QuizServer server = new QuizServer(0, new SplittableRandom(25));
+        server.start();
+        System.out.println("Quiz server on port " + server.getPort() + " ("
+                           + (server.usesVirtualThreads() ? "virtual threads" : "thread pool") + ", "
+                           + Runtime.getRuntime().availableProcessors() + " cores)");
+
+        /***** PROTOCOL *****/
+        System.out.println("\nTESTING the protocol with one session");
+        checkProtocol(server.getPort());
+        TestHarness.check(waitForNoSessions(server), "session closed after QUIT");
+
+        /***** LOAD *****/
+        System.out.println("\nLOAD (" + SESSIONS_PER_CLIENT + " rounds with every client's session open at once, "
+                           + answersEach + " answers per session)");
+        System.out.println("  clients  sessions   seconds  sessions/s   answers/s  peak open  failures");
+        for (int clients : LEVELS)
+        {
+            if (clients <= maxClients)
+            {
+                runLevel(server, clients, answersEach);
+            }
+        }
+
+        server.stop();
+        System.out.println("\n" + server);
+        System.out.println(TestHarness.summary());
+    }
+
+    /** One session by hand: every kind of line the protocol has */
+    public static void checkProtocol(int port) throws IOException
+    {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port))
+        {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+
+            String hello = in.readLine();
+            String question = in.readLine();
+            String choices = in.readLine();
+            TestHarness.check(hello != null && hello.matches("HELLO \\d+"), "greeting: " + hello);
+            TestHarness.check(question != null && question.startsWith("QUESTION 1 "), "first question: " + question);
+            TestHarness.check(choices != null && choices.startsWith("CHOICES "), "choices: " + choices);
+            int count = Integer.parseInt(choices.split(" ")[1]);
+
+            out.write("hello\n" + (count + 1) + "\n");
+            out.flush();
+            String error = in.readLine();
+            String error2 = in.readLine();
+            TestHarness.check(error.startsWith("ERROR ") && error2.startsWith("ERROR "), "bad answers: " + error);
+
+            out.write("1\n");
+            out.flush();
+            String result = in.readLine();
+            String score = in.readLine();
+            String next = in.readLine();
+            in.readLine();
+            boolean right = result.startsWith("RIGHT ");
+            TestHarness.check(right || result.startsWith("WRONG "), "answer: " + result);
+            TestHarness.check(result.substring(6).startsWith(question.substring("QUESTION 1 ".length()) + " = "),
+                              "answer names the question asked");
+            TestHarness.check(score.startsWith("SCORE " + (right ? 1 : 0) + " 1 "), "score: " + score);
+            TestHarness.check(next.startsWith("QUESTION 2 "), "next question: " + next);
+
+            out.write("STATS\n");
+            out.flush();
+            String stats = in.readLine();
+            TestHarness.check(stats.matches("STATS 1 \\d+ \\d+ \\d+"), "stats: " + stats);
+
+            out.write("QUIT\n");
+            out.flush();
+            String bye = in.readLine();
+            TestHarness.check(bye.equals("BYE " + (right ? 1 : 0) + " 1"), "quit: " + bye);
+            TestHarness.check(in.readLine() == null, "connection closed after BYE");
+        }
+    }
+
+    /**
+     * Runs SESSIONS_PER_CLIENT rounds of clients sessions, every session
+     * in a round open at once, and prints one row
+     */
+    public static void runLevel(QuizServer server, int clients, int answersEach) throws InterruptedException
+    {
+        int port = server.getPort();
+        int sessions = clients * SESSIONS_PER_CLIENT;
+        long answersBefore = server.getAnswerCount();
+        long correctBefore = server.getCorrectCount();
+        long startedBefore = server.getSessionsStarted();
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        CountDownLatch done = new CountDownLatch(clients);
+        AtomicLong failed = new AtomicLong();
+        AtomicInteger peak = new AtomicInteger();
+        LongAdder right = new LongAdder();
+
+        // Trips once per round, when every client's session is open: that's the moment to count them
+        CyclicBarrier allOpen = new CyclicBarrier(clients, () -> peak.accumulateAndGet(server.getOpenSessions(), Math::max));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < clients; i++)
+        {
+            pool.execute(() ->
+            {
+                for (int s = 0; s < SESSIONS_PER_CLIENT; s++)
+                {
+                    try
+                    {
+                        if (!runSession(port, answersEach, right, allOpen))
+                        {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    catch (IOException | RuntimeException e)
+                    {
+                        failed.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        System.out.printf("  %7d %9d %9.2f %11.0f %11.0f %10d %9d%n", clients, sessions, seconds,
+                          sessions / seconds, (double) sessions * answersEach / seconds, peak.get(), failed.get());
+
+        long answers = server.getAnswerCount() - answersBefore;
+        long correct = server.getCorrectCount() - correctBefore;
+        TestHarness.check(failed.get() == 0, clients + " clients: no failed sessions");
+        TestHarness.check(peak.get() >= clients, clients + " clients: " + peak.get() + " sessions open at once");
+        TestHarness.check(server.getSessionsStarted() - startedBefore == sessions, clients + " clients: server started " + sessions + " sessions");
+        TestHarness.check(answers == (long) sessions * answersEach && correct == right.sum(),
+                          clients + " clients: server counted " + answers + " answers, " + correct + " right (clients saw " + right.sum() + ")");
+        TestHarness.check(waitForNoSessions(server), clients + " clients: every session closed");
+    }
+
+    /**
+     * One learner: reads the greeting, waits at allOpen until every other
+     * client's session is open too, answers answersEach questions, quits.
+     * Checks every line; returns false at the first one that's wrong.
+     */
+    public static boolean runSession(int port, int answersEach, LongAdder right, CyclicBarrier allOpen)
+        throws IOException
+    {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port))
+        {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            Map<String, String> learned = new HashMap<>(); // question -> the answer the server said was right
+
+            String hello = in.readLine();
+            String question = in.readLine();
+            String choices = in.readLine();
+            try
+            {
+                allOpen.await(OPEN_TIMEOUT_SECONDS, TimeUnit.SECONDS); // waits even after a bad greeting, so the round still trips
+            }
+            catch (InterruptedException | BrokenBarrierException | TimeoutException e)
+            {
+                return false;
+            }
+            if (hello == null || !hello.startsWith("HELLO ") || choices == null)
+            {
+                return false;
+            }
+
+            int rightCount = 0;
+            for (int q = 1; q <= answersEach; q++)
+            {
+                String prefix = "QUESTION " + q + " ";
+                if (!question.startsWith(prefix) || !choices.startsWith("CHOICES "))
+                {
+                    return false;
+                }
+                String asked = question.substring(prefix.length());
+                int choice = choose(asked, choices, learned);
+                out.write((choice > 0 ? choice : 1 + q % 2) + "\n");
+                out.flush();
+
+                String result = in.readLine();
+                String score = in.readLine();
+                question = in.readLine();
+                choices = in.readLine();
+                if (result == null || choices == null || !result.startsWith(asked, 6))
+                {
+                    return false;
+                }
+                boolean wasRight = result.startsWith("RIGHT ");
+                if (!wasRight && (choice > 0 || !result.startsWith("WRONG ")))
+                {
+                    return false; // a learned answer must be right
+                }
+                rightCount += wasRight ? 1 : 0;
+                if (!score.startsWith("SCORE " + rightCount + " " + q + " "))
+                {
+                    return false;
+                }
+                learned.put(asked, result.substring(6 + asked.length() + " = ".length()));
+            }
+
+            out.write("QUIT\n");
+            out.flush();
+            right.add(rightCount);
+            return ("BYE " + rightCount + " " + answersEach).equals(in.readLine());
+        }
+    }
+
+    /** The number of the learned answer to question among choices, or 0 if it hasn't been learned */
+    public static int choose(String question, String choices, Map<String, String> learned)
+    {
+        String answer = learned.get(question);
+        if (answer == null)
+        {
+            return 0;
+        }
+        String[] options = choices.substring(choices.indexOf(' ', "CHOICES ".length()) + 1).split("\\|");
+        for (int i = 0; i < options.length; i++)
+        {
+            if (options[i].equals(answer))
+            {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /** Waits up to 5 seconds for the server to close every session; true if it did */
+    public static boolean waitForNoSessions(QuizServer server) throws InterruptedException
+    {
+        for (int i = 0; i < 500 && server.getOpenSessions() > 0; i++)
+        {
+            Thread.sleep(10);
+        }
+        return server.getOpenSessions() == 0;
+    }
+}
@@ -0,0 +1,316 @@
+/**
+ * -----------------------------------------
+ * ResultCache
+ * -----------------------------------------
+ *
+ * Remembers recent TrigEngine answers, so popular questions like
+ * sin(π/6) or cos(π/4) skip the parse and the math after the first time.
+ *
+ *   TrigResult r = ResultCache.getDefault().evaluate("sin", "π/6");
+ *
+ * Keyed on the function plus the angle exactly as given (the cached
+ * TrigResult repeats the input, so "π/6" and "pi/6" are kept apart).
+ * Inverse functions (asin(√2/2), ...) are cached the same way.
+ * When full, the least recently used answer is dropped (LRU).
+ *
+ * Safe for many threads at once: the entries are split over 16
+ * stripes, each with its own lock, so threads only wait on each other
+ * when they hit the same stripe. The stripes share the capacity
+ * (a cache of 1000 has 8 stripes of 63 and 8 of 62), so the cache
+ * never holds more than its capacity; each stripe drops its own least
+ * recently used entry. Hits, misses and evictions are counted.
+ *
+ * The default cache's size is read once at startup from the system
+ * property trigcalc.cache.size (default 1024; 0 turns caching off):
+ *   java -Dtrigcalc.cache.size=4096 TrigCalcV3 --batch in.txt out.txt
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + CAPACITY_PROPERTY: String
+ * + DEFAULT_CAPACITY: int
+ * - DEFAULT: ResultCache
+ * -----------------------------------------
+ * - capacity: int
+ * - stripes: Stripe[]
+ * - hits: LongAdder
+ * - misses: LongAdder
+ * - evictions: LongAdder
+ * -----------------------------------------
+ * + ResultCache(int capacity)
+ * + getDefault(): ResultCache
+ *
+ * + TrigResult evaluate(String function, CharSequence angleExpr)
+ * + TrigResult evaluate(int funcIndex, CharSequence angleExpr)
+ * + TrigResult evaluate(TrigFunction func, CharSequence angleExpr)
+ * + TrigResult evaluateInverse(InverseFunction func, CharSequence valueExpr)
+ * + int getCapacity()
+ * + int getSize()
+ * + long getHitCount()
+ * + long getMissCount()
+ * + long getEvictionCount()
+ * + void clear()
+ * + String toString()
+ * -----------------------------------------
+ * - lookup(String key, Supplier<TrigResult> work): TrigResult
+ * - stripeFor(String key): Stripe
+ * - readCapacity(): int
+ * - Stripe: LinkedHashMap in access order, drops its eldest entry when full
+ * -----------------------------------------
+*/
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class ResultCache
+{
+    /** System property that sets the default cache's size */
+    public static final String CAPACITY_PROPERTY = "trigcalc.cache.size";
+
+    /** Default cache size when the property isn't set */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /** Stripes per cache, whatever its size (must be a power of 2) */
+    private static final int STRIPE_COUNT = 16;
+
+    /** Shared cache used by the console tools and batch mode */
+    private static final ResultCache DEFAULT = new ResultCache(readCapacity());
+
+    /***** INSTANCE VARIABLES *****/
+    private final int capacity;        // most entries kept (0 = caching off)
+    private final Stripe[] stripes;    // each guards its own part of the entries
+    private final LongAdder hits;      // answers found in the cache
+    private final LongAdder misses;    // answers that had to be worked out
+    private final LongAdder evictions; // entries dropped to make room
+
+    /***** CONSTRUCTORS *****/
+
+    /** A cache holding at most capacity answers (0 or less = caching off) */
+    public ResultCache(int capacity)
+    {
+        this.capacity = Math.max(0, capacity);
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+
+        // Share the capacity out exactly: the first (capacity % STRIPE_COUNT) stripes get one extra
+        this.stripes = new Stripe[STRIPE_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; i++)
+        {
+            int limit = this.capacity / STRIPE_COUNT + (i < this.capacity % STRIPE_COUNT ? 1 : 0);
+            stripes[i] = new Stripe(limit, evictions);
+        }
+    }
+
+    /** Gets the shared cache (sized from the trigcalc.cache.size property) */
+    public static ResultCache getDefault()
+    {
+        return DEFAULT;
+    }
+
+    /***** LOOKUP *****/
+
+    /**
+     * Same as TrigEngine.evaluate(function, angleExpr), but answers
+     * from the cache when it can.
+     */
+    public TrigResult evaluate(String function, CharSequence angleExpr)
+    {
+        TrigFunction func = TrigFunction.fromName(function);
+        if (func != null)
+        {
+            return evaluate(func, angleExpr);
+        }
+
+        InverseFunction inverse = InverseFunction.fromName(function);
+        if (inverse != null)
+        {
+            return evaluateInverse(inverse, angleExpr);
+        }
+        return TrigEngine.evaluate(function, angleExpr); // error result, not worth keeping
+    }
+
+    /**
+     * Same as TrigEngine.evaluate(funcIndex, angleExpr), but answers
+     * from the cache when it can.
+     */
+    public TrigResult evaluate(int funcIndex, CharSequence angleExpr)
+    {
+        return evaluate(TrigFunction.fromIndex(funcIndex), angleExpr);
+    }
+
+    /**
+     * Same as TrigEngine.evaluate(func, angleExpr), but answers
+     * from the cache when it can.
+     */
+    public TrigResult evaluate(TrigFunction func, CharSequence angleExpr)
+    {
+        return lookup(func.ordinal() + angleExpr.toString(), () -> TrigEngine.evaluate(func, angleExpr));
+    }
+
+    /**
+     * Same as TrigEngine.evaluateInverse(func, valueExpr), but answers
+     * from the cache when it can.
+     */
+    public TrigResult evaluateInverse(InverseFunction func, CharSequence valueExpr)
+    {
+        // Keyed on the name ("asin"), so it can't clash with the digit keys above
+        return lookup(func.getShortName() + valueExpr.toString(), () -> TrigEngine.evaluateInverse(func, valueExpr));
+    }
+
+    /** Answers from the cache, or runs work and keeps its answer under key */
+    private TrigResult lookup(String key, Supplier<TrigResult> work)
+    {
+        if (capacity == 0)
+        {
+            misses.increment();
+            return work.get();
+        }
+
+        Stripe stripe = stripeFor(key);
+
+        TrigResult result;
+        synchronized (stripe)
+        {
+            result = stripe.get(key); // also marks it as recently used
+        }
+        if (result != null)
+        {
+            hits.increment();
+            return result;
+        }
+
+        // Work it out without holding the lock. Two threads may both do this
+        // for the same key; they get equal answers, so either one can stay.
+        misses.increment();
+        result = work.get();
+        if (stripe.limit == 0)
+        {
+            return result; // a cache smaller than STRIPE_COUNT leaves some stripes with no room
+        }
+        synchronized (stripe)
+        {
+            stripe.put(key, result);
+        }
+        return result;
+    }
+
+    /***** GETTERS (accessors) *****/
+
+    /** Gets the most answers the cache will hold */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /** Gets how many answers the cache holds right now */
+    public int getSize()
+    {
+        int size = 0;
+        for (Stripe stripe : stripes)
+        {
+            synchronized (stripe)
+            {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /** Gets how many lookups were answered from the cache */
+    public long getHitCount()
+    {
+        return hits.sum();
+    }
+
+    /** Gets how many lookups had to be worked out */
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+    /** Gets how many answers were dropped to make room */
+    public long getEvictionCount()
+    {
+        return evictions.sum();
+    }
+
+    /** Empties the cache (the counters keep going) */
+    public void clear()
+    {
+        for (Stripe stripe : stripes)
+        {
+            synchronized (stripe)
+            {
+                stripe.clear();
+            }
+        }
+    }
+
+    /***** toString *****/
+    public String toString()
+    {
+        return "Cache: " + getSize() + "/" + capacity + " entries, " + getHitCount() + " hits, "
+               + getMissCount() + " misses, " + getEvictionCount() + " evictions";
+    }
+
+    /***** HELPER METHODS *****/
+
+    /** Picks the stripe for a key (spreads the hash so similar keys land apart) */
+    private Stripe stripeFor(String key)
+    {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    /** Reads the default size from the system property (bad or missing -> DEFAULT_CAPACITY) */
+    private static int readCapacity()
+    {
+        String value = System.getProperty(CAPACITY_PROPERTY);
+        if (value == null)
+        {
+            return DEFAULT_CAPACITY;
+        }
+        try
+        {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        }
+        catch (NumberFormatException e)
+        {
+            System.err.println("WARNING: " + CAPACITY_PROPERTY + " must be a whole number, got \""
+                               + value + "\"; using " + DEFAULT_CAPACITY);
+            return DEFAULT_CAPACITY;
+        }
+    }
+
+    /** One stripe: a LinkedHashMap in access order that drops its eldest entry when full */
+    private static class Stripe extends LinkedHashMap<String, TrigResult>
+    {
+        private static final long serialVersionUID = 1L; // never serialized; LinkedHashMap is Serializable
+
+        private final int limit;
+        private final LongAdder evictions;
+
+        Stripe(int limit, LongAdder evictions)
+        {
+            super(16, 0.75f, true); // true = access order, so the eldest is the least recently used
+            this.limit = limit;
+            this.evictions = evictions;
+        }
+
+        protected boolean removeEldestEntry(Map.Entry<String, TrigResult> eldest)
+        {
+            if (size() > limit)
+            {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * -----------------------------------------
+ * SM2Scheduler
+ * -----------------------------------------
+ *
+ * The SM-2 spaced-repetition algorithm (as in SuperMemo 2 and Anki),
+ * counting in answers instead of days (see IntervalScheduler).
+ *
+ * Each card has an easiness factor (starts at 2.5, never below 1.3)
+ * and a count of right answers in a row:
+ *   right, 1st in a row:  interval 1
+ *   right, 2nd in a row:  interval 6
+ *   right, after that:    interval × easiness, rounded
+ *   wrong:                back to the start, interval 1
+ * and the easiness goes up a little after a right answer and down
+ * after a wrong one, so hard cards come back sooner for good.
+ *
+ * SM-2 grades answers 0–5; the quiz only knows right or wrong, so
+ * those count as RIGHT_GRADE and WRONG_GRADE.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + START_EASINESS: double
+ * + MIN_EASINESS: double
+ * + RIGHT_GRADE: int
+ * + WRONG_GRADE: int
+ * -----------------------------------------
+ * - easiness: double[]
+ * - streak: int[]
+ * - interval: long[]
+ * -----------------------------------------
+ * + SM2Scheduler(int[] deck)
+ *
+ * + double getEasiness(int card)
+ * + String getName()
+ * # long nextInterval(int card, boolean correct)
+ * -----------------------------------------
+*/
+
+import java.util.Arrays;
+
+public class SM2Scheduler extends IntervalScheduler
+{
+    /***** CONSTANTS *****/
+
+    /** Easiness factor of a card never answered */
+    public static final double START_EASINESS = 2.5;
+
+    /** Easiness never goes below this */
+    public static final double MIN_EASINESS = 1.3;
+
+    /** SM-2 grades (0–5) given for a right and a wrong answer */
+    public static final int RIGHT_GRADE = 4;
+    public static final int WRONG_GRADE = 1;
+
+    /***** INSTANCE VARIABLES *****/
+    private final double[] easiness; // easiness[card]
+    private final int[] streak;      // right answers in a row
+    private final long[] interval;   // the card's last interval
+
+    /***** CONSTRUCTORS *****/
+
+    /**
+     * Every card of deck at START_EASINESS, none asked yet.
+     * @param deck card codes, in the order to introduce them
+     */
+    public SM2Scheduler(int[] deck)
+    {
+        super(deck);
+        int limit = getCodeLimit();
+        this.easiness = new double[limit];
+        this.streak = new int[limit];
+        this.interval = new long[limit];
+        Arrays.fill(easiness, START_EASINESS);
+    }
+
+    /***** GETTERS *****/
+
+    /** card's easiness factor (START_EASINESS until it's answered) */
+    public double getEasiness(int card)
+    {
+        return easiness[card];
+    }
+
+    public String getName()
+    {
+        return "SM-2 intervals";
+    }
+
+    /***** SCHEDULING *****/
+
+    /** One SM-2 step: new easiness, new streak, new interval */
+    protected long nextInterval(int card, boolean correct)
+    {
+        int grade = correct ? RIGHT_GRADE : WRONG_GRADE;
+        int miss = 5 - grade;
+        easiness[card] = Math.max(MIN_EASINESS, easiness[card] + 0.1 - miss * (0.08 + miss * 0.02));
+
+        if (!correct)
+        {
+            streak[card] = 0;
+            interval[card] = 1;
+        }
+        else
+        {
+            streak[card]++;
+            if (streak[card] == 1)
+            {
+                interval[card] = 1;
+            }
+            else if (streak[card] == 2)
+            {
+                interval[card] = 6;
+            }
+            else
+            {
+                interval[card] = Math.round(interval[card] * easiness[card]);
+            }
+        }
+        return interval[card];
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * -----------------------------------------
+ * ShuffleBag
+ * -----------------------------------------
+ *
+ * Draws ints (card codes, usually) at random without repeats:
+ * every value comes out once before any comes out again, like
+ * dealing a shuffled deck and reshuffling when it runs out.
+ *
+ *   ShuffleBag bag = new ShuffleBag(CardCode.deck(), new SplittableRandom(42));
+ *   bag.next()  ->  one of the 78 card codes; 78 calls give each once
+ *
+ * Each draw is one swap (Fisher–Yates, done one step at a time), so
+ * there is no up-front shuffle and nothing is made after the bag is
+ * built. When a new round starts, its first value is never the last
+ * value of the round before, so no value comes up twice in a row
+ * (unless the bag only holds one).
+ *
+ * The same values and the same seed always give the same draws.
+ * Not thread-safe: one bag per thread or session.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * - values: int[]
+ * - random: SplittableRandom
+ * - remaining: int
+ * -----------------------------------------
+ * + ShuffleBag(int[] values, SplittableRandom random)
+ *
+ * + int next()
+ * + int remaining()
+ * + int size()
+ * -----------------------------------------
+*/
+
+import java.util.SplittableRandom;
+
+public class ShuffleBag
+{
+    /***** INSTANCE VARIABLES *****/
+    private final int[] values;             // values[0 .. remaining-1] haven't been drawn this round
+    private final SplittableRandom random;
+    private int remaining;
+
+    /***** CONSTRUCTORS *****/
+
+    /**
+     * A full bag.
+     * @param values what to draw (copied; at least one)
+     * @param random where the randomness comes from (QuizRandom.forThread() or a seeded one)
+     */
+    public ShuffleBag(int[] values, SplittableRandom random)
+    {
+        if (values.length == 0)
+        {
+            throw new IllegalArgumentException("a ShuffleBag needs at least one value");
+        }
+        this.values = values.clone();
+        this.random = random;
+        this.remaining = values.length;
+    }
+
+    /***** DRAWING *****/
+
+    /** The next value: a random one not drawn yet this round (starting a new round if needed) */
+    public int next()
+    {
+        int low = 0;
+        if (remaining == 0)
+        {
+            remaining = values.length;
+            // The last round's last draw was swapped to values[0]; skip it once
+            low = values.length > 1 ? 1 : 0;
+        }
+
+        int j = low + random.nextInt(remaining - low);
+        remaining--;
+        int value = values[j];
+        values[j] = values[remaining];
+        values[remaining] = value;
+        return value;
+    }
+
+    /** Values left before this round ends */
+    public int remaining()
+    {
+        return remaining;
+    }
+
+    /** Number of values in the bag */
+    public int size()
+    {
+        return values.length;
+    }
+}
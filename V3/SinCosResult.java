@@ -0,0 +1,191 @@
+/**
+ * -----------------------------------------
+ * SinCosResult
+ * -----------------------------------------
+ *
+ * Sine and cosine of one angle together — the point (cos θ, sin θ)
+ * on the unit circle — from TrigEngine.sincos.
+ * Tangent comes from the same pair (sin / cos), so one query gives
+ * all three without parsing or reducing the angle again.
+ *
+ * For special angles the exact values are filled in too, e.g. 7π/6
+ * gives (-√3/2, -1/2) with tan √3/3.
+ *
+ * Immutable, so it's safe to hand between threads or keep around.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * - input: String
+ * - cos: double
+ * - sin: double
+ * - exactCos: String
+ * - exactSin: String
+ * - exactTan: String
+ * - quadrant: int
+ * - referenceAngle: double
+ * - error: String
+ * -----------------------------------------
+ * + SinCosResult(String input, double cos, double sin, String exactCos, String exactSin,
+ *                String exactTan, int quadrant, double referenceAngle)
+ * + error(String input, String message): SinCosResult
+ *
+ * + boolean isValid()
+ * + boolean isExact()
+ * + String getInput()
+ * + double getCos()
+ * + double getSin()
+ * + double getTan()
+ * + String getExactCos()
+ * + String getExactSin()
+ * + String getExactTan()
+ * + int getQuadrant()
+ * + double getReferenceAngle()
+ * + String getError()
+ * + String toString()
+ * -----------------------------------------
+*/
+
+public final class SinCosResult
+{
+    /***** INSTANCE VARIABLES *****/
+    private final String input;          // the angle as the user typed it, e.g. "7π/6"
+    private final double cos;            // x coordinate on the unit circle
+    private final double sin;            // y coordinate on the unit circle
+    private final String exactCos;       // e.g. "-√3/2", or null if there's no exact value
+    private final String exactSin;       // e.g. "-1/2", or null
+    private final String exactTan;       // e.g. "√3/3", or null
+    private final int quadrant;          // 1–4 (0 if the query failed)
+    private final double referenceAngle; // radians, between 0 and π/2
+    private final String error;          // null if the query worked
+
+    /***** CONSTRUCTORS *****/
+
+    /** Full constructor for a successful query (exact values null if not a special angle) */
+    public SinCosResult(String input, double cos, double sin, String exactCos, String exactSin,
+                        String exactTan, int quadrant, double referenceAngle)
+    {
+        this.input = input;
+        this.cos = cos;
+        this.sin = sin;
+        this.exactCos = exactCos;
+        this.exactSin = exactSin;
+        this.exactTan = exactTan;
+        this.quadrant = quadrant;
+        this.referenceAngle = referenceAngle;
+        this.error = null;
+    }
+
+    /** Private — used by error() */
+    private SinCosResult(String input, String error)
+    {
+        this.input = input;
+        this.cos = Double.NaN;
+        this.sin = Double.NaN;
+        this.exactCos = null;
+        this.exactSin = null;
+        this.exactTan = null;
+        this.quadrant = 0;
+        this.referenceAngle = Double.NaN;
+        this.error = error;
+    }
+
+    /** Builds a result for an angle that couldn't be understood */
+    public static SinCosResult error(String input, String message)
+    {
+        return new SinCosResult(input, message);
+    }
+
+    /***** GETTERS (accessors) *****/
+
+    /** True if the query worked */
+    public boolean isValid()
+    {
+        return error == null;
+    }
+
+    /** True if there are exact values (a special angle) */
+    public boolean isExact()
+    {
+        return exactCos != null;
+    }
+
+    /** Gets the angle as it was given (e.g. "7π/6") */
+    public String getInput()
+    {
+        return input;
+    }
+
+    /** Gets the cosine (NaN if the query failed) */
+    public double getCos()
+    {
+        return cos;
+    }
+
+    /** Gets the sine (NaN if the query failed) */
+    public double getSin()
+    {
+        return sin;
+    }
+
+    /** Gets the tangent, sin / cos (very large near π/2, NaN at an exact odd multiple of π/2) */
+    public double getTan()
+    {
+        return cos == 0 ? Double.NaN : sin / cos + 0.0; // + 0.0: tan(π) is 0, not -0.0
+    }
+
+    /** Gets the exact cosine (e.g. "-√3/2"), or null if there isn't one */
+    public String getExactCos()
+    {
+        return exactCos;
+    }
+
+    /** Gets the exact sine (e.g. "-1/2"), or null if there isn't one */
+    public String getExactSin()
+    {
+        return exactSin;
+    }
+
+    /** Gets the exact tangent (e.g. "√3/3"), or null if there isn't one */
+    public String getExactTan()
+    {
+        return exactTan;
+    }
+
+    /** Gets the quadrant, 1–4 (0 if the query failed) */
+    public int getQuadrant()
+    {
+        return quadrant;
+    }
+
+    /** Gets the reference angle in radians (0 to π/2) */
+    public double getReferenceAngle()
+    {
+        return referenceAngle;
+    }
+
+    /** Gets the error message, or null if the query worked */
+    public String getError()
+    {
+        return error;
+    }
+
+    /***** toString *****/
+    public String toString()
+    {
+        if (error != null)
+        {
+            return "(cos, sin)(" + input + ") = error: " + error;
+        }
+        if (exactCos != null)
+        {
+            return "(cos, sin)(" + input + ") = (" + exactCos + ", " + exactSin + ")";
+        }
+        StringBuilder sb = new StringBuilder("(cos, sin)(").append(input).append(") = (");
+        DecimalFormatter.append(sb, cos, TrigResult.DECIMAL_PLACES).append(", ");
+        DecimalFormatter.append(sb, sin, TrigResult.DECIMAL_PLACES).append(") (approx.)");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,232 @@
+/********************************************
+*   SpecialAngleBenchmark
+*********************************************
+*   AUTHORS:    Jeff Peterson
+*   COLLABORATORS: None
+*   LAST MODIFIED:  05/27/2025
+********************************************
+*   PROGRAM DESCRIPTION:
+*   MICROBENCHMARK of the special-angle lookup at high query rates.
+*   Compares the two scans TrigCalculator used to run on every query
+*   with the precomputed index (ExactTable) that replaced them:
+*     regex scan  - PiCleaner.parse (the old regex one) on all nine
+*                   TrigCalcV3.RADIANS labels, match within 0.01
+*     parser scan - AngleParser.parse on all nine labels, match the
+*                   exact π fraction
+*     index       - ExactTable.lookup: one divisibility check, one array read
+*   First checks the index gives the same exact values as the parser scan.
+*********************************************
+*   ALGORITHM:
+*   Generate reduced π fractions num/den in [0, 2π) (fixed seed), some special
+*   Check index and parser scan agree for sin, cos and tan on every one
+*   Time each lookup over all queries (best of several rounds, after warm-up)
+*   Print ns per query and queries per second
+*********************************************
+*   STATIC METHODS:
+*   main(String[] args)
+*   checkSameAsScan(long[] nums, long[] dens)
+*   timeLookups(long[] nums, long[] dens)
+*   runRegexScan(long[] nums, long[] dens): int
+*   runParserScan(long[] nums, long[] dens): int
+*   runIndex(long[] nums, long[] dens): int
+*   regexScanColumn(long num, long den): int
+*   parserScanColumn(long num, long den): int
+*********************************************
+*   IMPORTED PACKAGES NEEDED AND PURPOSE:
+*   SplittableRandom - random queries (fixed seed, so runs repeat)
+*********************************************/
+
+import java.util.SplittableRandom;
+
+public class SpecialAngleBenchmark
+{
+    /** Timed rounds per lookup (the best one is reported) and untimed warm-up rounds before them */
+    private static final int ROUNDS = 10;
+    private static final int WARM_UP = 10;
+
+    /** Denominators for the queries: the table's own, and some that are never special */
+    private static final long[] DENOMINATORS = {1, 2, 3, 4, 6, 5, 7, 9, 11, 13};
+
+    /** Keeps the JIT from dropping lookups whose answers nobody reads */
+    private static long sink = 0;
+
+    public static void main(String[] args)
+    {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        SplittableRandom random = new SplittableRandom(4);
+        long[] nums = new long[count];
+        long[] dens = new long[count];
+        for (int i = 0; i < count; i++)
+        {
+            long den = DENOMINATORS[random.nextInt(DENOMINATORS.length)];
+            long num = random.nextLong(2 * den);
+            long g = AngleParser.gcd(num, den);
+            nums[i] = num / g;
+            dens[i] = den / g;
+        }
+
+        /***** SAME ANSWERS *****/
+        System.out.println("TESTING ExactTable.lookup against the parser scan (" + count + " queries × sin, cos, tan)");
+        checkSameAsScan(nums, dens);
+
+        /***** SPEED *****/
+        System.out.println("\nSPEED (" + count + " queries, best of " + ROUNDS + " rounds)");
+        timeLookups(nums, dens);
+
+        System.out.println("\n" + TestHarness.summary() + "  (checksum " + sink + ")");
+    }
+
+    /**
+     * Checks the index and the parser scan agree wherever the scan finds a column.
+     * ExactTable also covers π/8 and π/10 steps (like 2π/5), which the
+     * nine-column table never had; those are counted, not failed.
+     */
+    public static void checkSameAsScan(long[] nums, long[] dens)
+    {
+        int different = 0;
+        int special = 0;
+        int indexOnly = 0;
+        for (int i = 0; i < nums.length; i++)
+        {
+            int column = parserScanColumn(nums[i], dens[i]);
+            int quadrant = PiCleaner.getQuadrant(nums[i], dens[i]);
+            for (int f = 0; f < TrigCalcV3.TRIG_FUNCTIONS.length; f++)
+            {
+                TrigFunction func = TrigFunction.values()[f];
+                AlgebraicValue indexed = ExactTable.lookup(func, nums[i], dens[i]);
+                if (column < 0)
+                {
+                    indexOnly += indexed != null && f == 0 ? 1 : 0;
+                    continue;
+                }
+
+                String scanned = PiCleaner.applySign(func, quadrant, TrigCalcV3.EXACT_VALUES[f][column]);
+                String fromIndex = indexed == null ? null : indexed.toString();
+                if (!scanned.equals(fromIndex))
+                {
+                    different++;
+                    if (different <= 5)
+                    {
+                        System.out.println("  " + func.getShortName() + "(" + nums[i] + "π/" + dens[i] + "): scan "
+                                           + scanned + ", index " + fromIndex);
+                    }
+                }
+            }
+            if (column >= 0)
+            {
+                special++;
+            }
+        }
+        TestHarness.check(different == 0, special + " of " + nums.length + " queries found by the scan; "
+                                          + different + " answers differ");
+        System.out.println("        " + indexOnly + " more found only by the index (π/5 steps and the like)");
+    }
+
+    /** Times the three lookups and prints ns per query */
+    public static void timeLookups(long[] nums, long[] dens)
+    {
+        long regex = Long.MAX_VALUE;
+        long parser = Long.MAX_VALUE;
+        long index = Long.MAX_VALUE;
+
+        for (int round = 0; round < WARM_UP + ROUNDS; round++)
+        {
+            long start = System.nanoTime();
+            sink += runRegexScan(nums, dens);
+            long regexTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            sink += runParserScan(nums, dens);
+            long parserTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            sink += runIndex(nums, dens);
+            long indexTime = System.nanoTime() - start;
+
+            if (round >= WARM_UP)
+            {
+                regex = Math.min(regex, regexTime);
+                parser = Math.min(parser, parserTime);
+                index = Math.min(index, indexTime);
+            }
+        }
+
+        double n = nums.length;
+        System.out.println("                  ns/query     queries/s   index is");
+        System.out.printf("  regex scan   %10.1f %13.0f %8.0fx faster%n", regex / n, n * 1e9 / regex, (double) regex / index);
+        System.out.printf("  parser scan  %10.1f %13.0f %8.0fx faster%n", parser / n, n * 1e9 / parser, (double) parser / index);
+        System.out.printf("  index        %10.1f %13.0f%n", index / n, n * 1e9 / index);
+    }
+
+    /** Regex scan over every query; returns how many were special */
+    public static int runRegexScan(long[] nums, long[] dens)
+    {
+        int found = 0;
+        for (int i = 0; i < nums.length; i++)
+        {
+            if (regexScanColumn(nums[i], dens[i]) >= 0)
+            {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /** Parser scan over every query; returns how many were special */
+    public static int runParserScan(long[] nums, long[] dens)
+    {
+        int found = 0;
+        for (int i = 0; i < nums.length; i++)
+        {
+            if (parserScanColumn(nums[i], dens[i]) >= 0)
+            {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /** Index lookup (sin) over every query; returns how many were special */
+    public static int runIndex(long[] nums, long[] dens)
+    {
+        int found = 0;
+        for (int i = 0; i < nums.length; i++)
+        {
+            if (ExactTable.lookup(TrigFunction.SIN, nums[i], dens[i]) != null)
+            {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /** The first scan: reference angle as a double, every label re-parsed with the regex parser */
+    public static int regexScanColumn(long num, long den)
+    {
+        double refAngle = PiCleaner.getReferenceAngle(num * Math.PI / den);
+        for (int i = 0; i < TrigCalcV3.RADIANS.length; i++)
+        {
+            double tableAngle = AngleParserBenchmark.oldParse(TrigCalcV3.RADIANS[i]);
+            if (Math.abs(refAngle - tableAngle) < 0.01)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** The second scan: exact reference fraction, every label re-parsed with AngleParser */
+    public static int parserScanColumn(long num, long den)
+    {
+        long refNum = PiCleaner.getReferenceNumerator(num, den);
+        for (int i = 0; i < TrigCalcV3.RADIANS.length; i++)
+        {
+            ParseResult tableAngle = AngleParser.parse(TrigCalcV3.RADIANS[i]);
+            if (tableAngle.getPiNumerator() == refNum && tableAngle.getPiDenominator() == den)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
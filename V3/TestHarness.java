@@ -0,0 +1,64 @@
+/********************************************
+*   TestHarness
+*********************************************
+*   AUTHORS:    Jeff Peterson
+*   COLLABORATORS: None
+*   LAST MODIFIED:  05/27/2025
+********************************************
+*   PROGRAM DESCRIPTION:
+*   The few lines every tester and benchmark main shares: one
+*   "ok" / "FAIL" line per check, the PASS/FAIL count at the end,
+*   and the thread allocation counter for bytes-per-call numbers.
+*   Not a class the calculator uses.
+*********************************************
+*   STATIC METHODS:
+*   check(boolean ok, String line): boolean
+*   summary(): String
+*   allocatedBytes(): long
+*********************************************
+*   IMPORTED PACKAGES NEEDED AND PURPOSE:
+*   ManagementFactory - the thread allocation counter (HotSpot JVMs)
+*********************************************/
+
+import java.lang.management.ManagementFactory;
+
+public final class TestHarness
+{
+    /** Checks run and checks failed (one main runs per JVM) */
+    private static int checks = 0;
+    private static int failures = 0;
+
+    /** Private — static methods only */
+    private TestHarness()
+    {
+    }
+
+    /** Prints one check and returns ok */
+    public static boolean check(boolean ok, String line)
+    {
+        checks++;
+        if (!ok)
+        {
+            failures++;
+        }
+        System.out.println((ok ? "  ok    " : "  FAIL  ") + line);
+        return ok;
+    }
+
+    /** "N of M checks passed — PASS" (or FAIL) */
+    public static String summary()
+    {
+        return (checks - failures) + " of " + checks + " checks passed" + (failures == 0 ? " — PASS" : " — FAIL");
+    }
+
+    /** Bytes this thread has allocated so far, or -1 if the JVM can't say */
+    public static long allocatedBytes()
+    {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+        {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -3,7 +3,7 @@
 *********************************************
 *   AUTHORS:    Jeff Peterson
 *   COLLABORATORS: None
-*   LAST MODIFIED:  05/13/2025
+*   LAST MODIFIED:  05/20/2025
 ********************************************
 *   PROGRAM DESCRIPTION:
 *   Main class for program.
@@ -12,6 +12,9 @@
 *********************************************
 *   ALGORITHM:
 *   Start program  
+*   IF args start with --batch -> BatchRunner, then stop
+*   IF args start with --serve -> QuizServer on localhost, until the process is stopped
+*   IF args are --seed N -> the quiz uses a SplittableRandom seeded with N
 *   Create Scanner for input  
 *   LOOP mainMenu:
 *     1 TrigCalculator.calculateTrig()
@@ -21,15 +24,23 @@
 *********************************************
 *   STATIC METHODS:
 *   main(String[] args)            
+*   runBatch(String[] args)
+*   runServer(String[] args)
 *   displayMenu()
 *   getChoice(Scanner input)
-*   handleChoice(int choice) 
+*   handleChoice(int choice, Scanner input) 
+*   handleChoice(int choice, Scanner input, SplittableRandom quizRandom)
+*   parseSeed(String text)
 *********************************************
 *   IMPORTED PACKAGES NEEDED AND PURPOSE:
 *   Scanner - used for console input
+*   IOException - reported if batch mode can't read or write its files
+*   SplittableRandom - the quiz's random numbers (seeded with --seed)
 *********************************************/
 
+import java.io.IOException;
 import java.util.Scanner;
+import java.util.SplittableRandom;
 
 public class TrigCalcV3 {
 
@@ -47,6 +58,8 @@ public class TrigCalcV3 {
     /** 
      * Exact trig values organized by function (rows) and angle (columns).
      * Index order aligns with TRIG_FUNCTIONS and RADIANS.
+     * The calculator and quiz now read ExactTable, which extends this
+     * to all six functions at every multiple of π/12, π/8 and π/10.
      */
     public static final String[][] EXACT_VALUES = 
     {
@@ -59,10 +72,29 @@ public class TrigCalcV3 {
 
     /**
      * Entry point of the program. Displays the menu and handles user input.
-     * @param args not used
+     * @param args empty for the menu, "--seed N" for the menu with a repeatable quiz,
+     *             "--batch [in] [out]" for batch mode, or "--serve [port]" for the quiz server
      */
     public static void main(String[] args) 
     {
+        if (args.length > 0 && args[0].equals("--batch")) 
+        {
+            runBatch(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--serve")) 
+        {
+            runServer(args);
+            return;
+        }
+
+        // Same seed and same answers give the same quiz (for reproducing a learner's report)
+        SplittableRandom quizRandom = QuizRandom.forThread();
+        if (args.length > 1 && args[0].equals("--seed")) 
+        {
+            quizRandom = parseSeed(args[1]);
+        }
+
         System.out.println("                   ╔═══════════════════════════════╗");
         System.out.println("                   ║          TrigCalc V3          ║");
         System.out.println("                   ║        Tools for Trig!        ║");
@@ -75,13 +107,95 @@ public class TrigCalcV3 {
         {
             displayMenu();
             choice = getChoice(input);
-            handleChoice(choice);
+            handleChoice(choice, input, quizRandom);
         } 
         while (choice != 3);
 
         input.close();
     }
 
+    /***** BATCH MODE *****/
+
+    /**
+     * Runs the calculator over a file (or stdin) with no menus.
+     * args[1] is the input file and args[2] the output file;
+     * either can be left off or given as "-" for stdin/stdout.
+     * args[3] (optional) is the number of parallel workers.
+     * @param args the command-line arguments, starting with "--batch"
+     */
+    public static void runBatch(String[] args) 
+    {
+        String inPath = args.length > 1 ? args[1] : "-";
+        String outPath = args.length > 2 ? args[2] : "-";
+        int workers = 1;
+        if (args.length > 3) 
+        {
+            try 
+            {
+                workers = Integer.parseInt(args[3]);
+            } 
+            catch (NumberFormatException e) 
+            {
+                System.err.println("ERROR: worker count must be a whole number, got \"" + args[3] + "\"");
+                System.exit(1);
+            }
+        }
+
+        BatchRunner runner = new BatchRunner(workers);
+        try 
+        {
+            runner.runFiles(inPath, outPath);
+        } 
+        catch (IOException e) 
+        {
+            System.err.println("ERROR: batch mode stopped at line " + runner.getLinesRead() + ": " + e.getMessage());
+            System.exit(1);
+        }
+
+        System.err.println("Batch done: " + runner.getLinesRead() + " lines, " + runner.getErrorCount() + " errors.");
+        System.err.println(ResultCache.getDefault());
+    }
+
+    /***** SERVER MODE *****/
+
+    /**
+     * Serves the quiz to many learners at once on localhost (see QuizServer).
+     * args[1] (optional) is the port, QuizServer.DEFAULT_PORT if left off.
+     * Runs until the process is stopped (Ctrl-C).
+     * @param args the command-line arguments, starting with "--serve"
+     */
+    public static void runServer(String[] args) 
+    {
+        int port = QuizServer.DEFAULT_PORT;
+        if (args.length > 1) 
+        {
+            try 
+            {
+                port = Integer.parseInt(args[1]);
+            } 
+            catch (NumberFormatException e) 
+            {
+                System.err.println("ERROR: port must be a whole number, got \"" + args[1] + "\"");
+                System.exit(1);
+            }
+        }
+
+        QuizServer server = new QuizServer(port);
+        try 
+        {
+            server.start();
+        } 
+        catch (IOException | IllegalArgumentException e) 
+        {
+            System.err.println("ERROR: can't start the quiz server on port " + port + ": " + e.getMessage());
+            System.exit(1);
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.println(server)));
+        System.err.println("Quiz server listening on localhost:" + server.getPort()
+                           + (server.usesVirtualThreads() ? " (virtual threads)" : " (thread pool)"));
+    }
+
     /***** DISPLAY MENU *****/
 
     /**
@@ -126,16 +240,26 @@ public static int getChoice(Scanner input)
     /**
      * Handles logic based on the user's menu choice.
      * @param choice the selected menu option
+     * @param input Scanner shared with the tools, so they don't each open their own
      */
-    public static void handleChoice(int choice) 
+    public static void handleChoice(int choice, Scanner input) 
+    {
+        handleChoice(choice, input, QuizRandom.forThread());
+    }
+
+    /**
+     * Same as handleChoice above, with the quiz drawing its random numbers from quizRandom.
+     * @param quizRandom this thread's generator, or a seeded one from --seed
+     */
+    public static void handleChoice(int choice, Scanner input, SplittableRandom quizRandom) 
     {
         if (choice == 1) 
         {
-           TrigCalculator.calculateTrig();
+           TrigCalculator.calculateTrig(input);
         } 
         else if (choice == 2) 
         {
-            FlashcardFactory.runFlashcard();
+            FlashcardFactory.runFlashcard(input, quizRandom);
         } 
         else if (choice == 3) 
         {
@@ -146,4 +270,24 @@ public static int getChoice(Scanner input)
             System.out.println("\nChoose a tool (1–3): ");
         }
     }
+
+    /***** SEED *****/
+
+    /**
+     * Reads the number after --seed as a seeded SplittableRandom.
+     * Stops the program with an error if it isn't a whole number.
+     */
+    public static SplittableRandom parseSeed(String text) 
+    {
+        try 
+        {
+            return new SplittableRandom(Long.parseLong(text.trim()));
+        } 
+        catch (NumberFormatException e) 
+        {
+            System.err.println("ERROR: seed must be a whole number, got \"" + text + "\"");
+            System.exit(1);
+            return null; // not reached
+        }
+    }
 }
\ No newline at end of file
@@ -7,6 +7,11 @@
  * Accepts any radian input — if it's a special angle,
  * returns the exact trig value. If not, gives a decimal.
  * Handles inputs like "π/4", "2pi/3", and negative or co-terminal angles.
+ * Degrees ("30°" or "30deg") and gradians ("50grad") work too.
+ * Also does arcsin, arccos and arctan: an exact value like "√2/2"
+ * gives back an exact angle (π/4), anything else a decimal one.
+ * Ending an angle in "@digits" (like "1.2@50") also shows that many digits.
+ * The math itself lives in TrigEngine — this class is just the console front-end.
  * 
  * Author: Jeff Peterson
  * 
@@ -14,6 +19,7 @@
  * UML CLASS DIAGRAM
  * -----------------------------------------
  * + calculateTrig(): void
+ * + calculateTrig(Scanner input): void
  * -----------------------------------------
 */
 import java.util.Scanner;
@@ -28,7 +34,15 @@ public class TrigCalculator
      */
     public static void calculateTrig()
     {
-        Scanner input = new Scanner(System.in);
+        calculateTrig(new Scanner(System.in));
+    }
+
+    /**
+     * Same as calculateTrig(), reading from the given Scanner
+     * (so the main menu can share its Scanner instead of opening a second one).
+     */
+    public static void calculateTrig(Scanner input)
+    {
         boolean keepGoing = true;
 
         // Header
@@ -40,17 +54,25 @@ public class TrigCalculator
         while (keepGoing)
         {
 
-            System.out.println("\n                      1. Sine");
-            System.out.println("                      2. Cosine");
-            System.out.println("                      3. Tangent");
+            System.out.println();
+            for (int i = 0; i < TrigFunction.count(); i++)
+            {
+                System.out.println("                      " + (i + 1) + ". " + TrigFunction.fromIndex(i).getDisplayName());
+            }
+            for (int i = 0; i < InverseFunction.count(); i++)
+            {
+                System.out.println("                      " + (TrigFunction.count() + i + 1) + ". "
+                                   + InverseFunction.fromIndex(i).getDisplayName());
+            }
 
-            //choose function
+            //choose function (trig functions first, then the inverses)
             int funcChoice = 0;
+            int funcCount = TrigFunction.count() + InverseFunction.count();
 
-            while (funcChoice < 1 || funcChoice > 3) 
+            while (funcChoice < 1 || funcChoice > funcCount) 
             {
           
-                System.out.print("                     Select a function (1–3): ");
+                System.out.print("                     Select a function (1–" + funcCount + "): ");
                 if (input.hasNextInt()) 
                 {
                     funcChoice = input.nextInt();
@@ -62,72 +84,44 @@ public class TrigCalculator
                 }
             }
 
-            String func = TrigCalcV3.TRIG_FUNCTIONS[funcChoice - 1];
+            boolean inverse = funcChoice > TrigFunction.count();
 
-            // Ask for angle in radians — supports pi notation and decimals
-           System.out.print("\nEnter a radian value (i.e -3.7, pi/2, 15π/4): ");
+            // Ask for the angle — radians by default (pi notation and decimals), or degrees/gradians
+            // (or, for an inverse function, the value — exact like √3/2, or a decimal)
+            if (inverse)
+            {
+                System.out.print("\nEnter a value (i.e -1/2, √2/2, sqrt3, 0.3): ");
+            }
+            else
+            {
+                System.out.print("\nEnter an angle (i.e -3.7, pi/2, 15π/4, 30°, 50grad; add @50 for 50 digits): ");
+            }
 
             // Read user input, remove spaces, lowercase it, and replace "pi" with the π symbol for clean display
             String raw = input.nextLine().replaceAll("\\s", "").toLowerCase().replace("pi", "π");
 
-            // parse the cleaned input string from PiCleaner into a radian value (in double form)
-            double original = PiCleaner.parse(raw);  
-
-            if (original == -999) 
+            // Let the engine do the math (or reuse the answer if it's been asked before)
+            TrigResult result;
+            if (inverse)
             {
-                System.out.println("Invalid format. Try again.");
-                continue;
+                InverseFunction func = InverseFunction.fromIndex(funcChoice - TrigFunction.count() - 1);
+                result = ResultCache.getDefault().evaluateInverse(func, raw);
             }
-
-            // Convert angle to range [0, 2π)
-            double rad = original % (2 * Math.PI);
-            if (rad < 0) rad += 2 * Math.PI;
-
-            // Get the reference angle (always between 0 and π/2)
-            double refAngle = PiCleaner.getReferenceAngle(rad);
-
-            // Try to match the reference angle to one we know
-            boolean isSpecial = false;
-            String exact = "";
-
-            for (int i = 0; i < TrigCalcV3.RADIANS.length; i++) 
+            else
             {
-                double tableAngle = PiCleaner.parse(TrigCalcV3.RADIANS[i]);
-                if (Math.abs(refAngle - tableAngle) < 0.01) 
-                {
-                    exact = TrigCalcV3.EXACT_VALUES[funcChoice - 1][i];
-                    isSpecial = true;
-                    break;
-                }
+                TrigFunction func = TrigFunction.fromIndex(funcChoice - 1);
+                result = ResultCache.getDefault().evaluate(func, raw);
             }
 
-            // Show the result
-              System.out.println("══════════════════════════════════════════════════════════════════════\n");
-            if (isSpecial) 
+            if (!result.isValid()) 
             {
-                // Apply the correct sign based on quadrant + trig function
-                exact = PiCleaner.applySign(func, rad, exact);
-                System.out.printf("                        %s(%s) = %s%n", func, raw, exact);
-            } 
-            else 
-            {
-                // Fall back to decimal approximation
-                double decimal = 0;
-
-                switch (funcChoice) {
-                    case 1:
-                        decimal = Math.sin(original);
-                        break;
-                    case 2:
-                        decimal = Math.cos(original);
-                        break;
-                    case 3:
-                        decimal = Math.tan(original);
-                        break;
-                }
-
-                System.out.printf("                        %s(%s) = %.3f (approx.)%n", func, raw, decimal);
+                System.out.println("Invalid format (" + result.getError() + "). Try again.");
+                continue;
             }
+
+            // Show the result — exact value if it's a special angle (or value), otherwise the decimal approximation
+              System.out.println("══════════════════════════════════════════════════════════════════════\n");
+            System.out.printf("                        %s%n", result);
             System.out.println();
             System.out.println("══════════════════════════════════════════════════════════════════════");
 
@@ -0,0 +1,620 @@
+/**
+ * -----------------------------------------
+ * TrigEngine
+ * -----------------------------------------
+ *
+ * The calculator and quiz logic with no Scanner, no printing
+ * and no System.exit — so it can be called from other programs
+ * (a web service, a batch job, a test) as well as from the
+ * console tools TrigCalculator and FlashcardFactory.
+ *
+ *   TrigResult r = TrigEngine.evaluate("sin", "7π/6");
+ *   r.getExactValue()  ->  "-1/2"
+ *
+ *   TrigEngine.evaluate("acos", "-√2/2").getExactValue()  ->  "3π/4"
+ *
+ * An angle ending in "@digits" asks for that many significant digits
+ * (worked out by PrecisionTrig) on top of the usual answer:
+ *
+ *   TrigEngine.evaluate("sin", "1.2 @30").getPreciseValue()
+ *     ->  "0.932039085967226349670134435495"
+ *
+ * The quiz deck (every function at every quiz angle) is built once
+ * when the class loads; getFlashcard hands out those same cards.
+ *
+ * Holds no changing state, so any number of threads can use it at once.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + QUIZ_DENOMINATOR: int
+ * + QUIZ_ANGLES: int
+ * + PRECISION_MARK: char
+ * - QUIZ_STEP: int
+ * - ANSWER_CHOICES: AlgebraicValue[][]
+ * - DECK: Flashcard[]
+ * -----------------------------------------
+ * + evaluate(String function, CharSequence angleExpr): TrigResult
+ * + evaluate(int funcIndex, CharSequence angleExpr): TrigResult
+ * + evaluate(TrigFunction func, CharSequence angleExpr): TrigResult
+ * + evaluate(TrigFunction func, CharSequence angleExpr, MathContext mc): TrigResult
+ * + evaluateInverse(InverseFunction func, CharSequence valueExpr): TrigResult
+ * + sincos(CharSequence angleExpr): SinCosResult
+ * + getFunctionIndex(String function): int
+ * + getFlashcard(int funcIndex, int angleIndex): Flashcard
+ * + getFlashcard(TrigFunction func, int angleIndex): Flashcard
+ * + getFlashcard(int deckIndex): Flashcard
+ * + getDeckSize(): int
+ * + getAnswerChoiceCount(TrigFunction func): int
+ * + getAnswerChoice(TrigFunction func, int choice): AlgebraicValue
+ * + isCorrect(Flashcard card, int choice): boolean
+ * -----------------------------------------
+ * - buildAnswerChoices(): AlgebraicValue[][]
+ * - buildDeck(): Flashcard[]
+ * - normalizeExactValue(String value): String
+ * - gcd(int a, int b): int
+ * - evaluatePiFraction(TrigFunction func, String input, long num, long den): TrigResult
+ * - recognizeSpecial(double angle, CharSequence typed): long
+ * ~ recognizeSpecial(double angle): long
+ * - decimal(TrigFunction func, int n, double[] r): double
+ * - text(AlgebraicValue value): String
+ * - text(BigDecimal value): String
+ * - parseDigits(String text): int
+ * - exactDecimal(String input, double value): BigDecimal
+ * -----------------------------------------
+*/
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.LinkedHashSet;
+
+public class TrigEngine
+{
+    /** Quiz angles are the multiples of π/12 from 0 to π */
+    public static final int QUIZ_DENOMINATOR = 12;
+    public static final int QUIZ_ANGLES = QUIZ_DENOMINATOR + 1;
+
+    /** Ends an angle to ask for more digits: "1.2 @50" means 50 significant digits */
+    public static final char PRECISION_MARK = '@';
+
+    /** ExactTable grid steps between quiz angles */
+    private static final int QUIZ_STEP = ExactTable.GRID / QUIZ_DENOMINATOR;
+
+    /** ANSWER_CHOICES[function] = that function's different values at the quiz angles, in angle order */
+    private static final AlgebraicValue[][] ANSWER_CHOICES = buildAnswerChoices();
+
+    /** DECK[card.getIndex()] = the one Flashcard for each function and quiz angle */
+    private static final Flashcard[] DECK = buildDeck();
+
+    /***** CALCULATOR *****/
+
+    /**
+     * Evaluates a trig function at an angle, or an inverse function at a value.
+     * @param function "sin", "cos", "tan", "csc", "sec" or "cot" (or "Sine", "Cosine", ...),
+     *                 or "asin", "acos" or "atan" (see evaluateInverse)
+     * @param angleExpr angle in radians, like "7π/6", "-3.7" or "-(3π/4) + 2π"
+     *                  (for an inverse function, the value instead, like "√3/2")
+     * @return the result, or an error result if the function or angle is bad
+     */
+    public static TrigResult evaluate(String function, CharSequence angleExpr)
+    {
+        TrigFunction func = TrigFunction.fromName(function);
+        if (func != null)
+        {
+            return evaluate(func, angleExpr);
+        }
+
+        InverseFunction inverse = InverseFunction.fromName(function);
+        if (inverse != null)
+        {
+            return evaluateInverse(inverse, angleExpr);
+        }
+        return TrigResult.error(function, String.valueOf(angleExpr), "unknown function");
+    }
+
+    /**
+     * Evaluates a trig function at an angle.
+     * @param funcIndex 0 = sin, 1 = cos, 2 = tan, 3 = csc, 4 = sec, 5 = cot (TrigFunction order)
+     */
+    public static TrigResult evaluate(int funcIndex, CharSequence angleExpr)
+    {
+        return evaluate(TrigFunction.fromIndex(funcIndex), angleExpr);
+    }
+
+    /**
+     * Evaluates a trig function at an angle.
+     * @param func which function
+     * @param angleExpr angle in radians, like "7π/6", "-3.7" or "-(3π/4) + 2π".
+     *                  A decimal that is a special angle to the digits given
+     *                  ("0.5235987756") gets the exact value too.
+     *                  Ending it in "@digits" ("1.2 @50") hands it to the method below.
+     * @return the result, or an error result if the angle is bad
+     */
+    public static TrigResult evaluate(TrigFunction func, CharSequence angleExpr)
+    {
+        String name = func.getShortName();
+        String input = String.valueOf(angleExpr);
+
+        int mark = input.lastIndexOf(PRECISION_MARK);
+        if (mark >= 0)
+        {
+            int digits = parseDigits(input.substring(mark + 1));
+            if (digits < 0)
+            {
+                return TrigResult.error(name, input, "expected a number of digits after " + PRECISION_MARK + ", like 1.2 @50");
+            }
+            return evaluate(func, input.substring(0, mark).trim(), new MathContext(digits, RoundingMode.HALF_EVEN));
+        }
+
+        // parse the input string into a radian value (in double form)
+        ParseResult parsed = AngleParser.parse(angleExpr);
+        if (!parsed.isValid())
+        {
+            return TrigResult.error(name, input, parsed.toString());
+        }
+
+        if (parsed.isExactPi())
+        {
+            return evaluatePiFraction(func, input, parsed.getPiNumerator(), parsed.getPiDenominator());
+        }
+
+        // A decimal that is really a special angle, like 0.5235987756 for π/6?
+        long fraction = recognizeSpecial(parsed.getValue(), angleExpr);
+        if (fraction != PiRecognizer.NONE)
+        {
+            return evaluatePiFraction(func, input, PiRecognizer.numerator(fraction), PiRecognizer.denominator(fraction));
+        }
+
+        // Plain decimal angle — only an approximation is possible.
+        // One reduction gives the quadrant, the reference angle and the value.
+        double[] r = new double[2];
+        int n = RangeReducer.reduce(parsed.getValue(), r);
+
+        return new TrigResult(name, input, null, decimal(func, n, r),
+                              PiCleaner.getReducedQuadrant(n, r[0]), PiCleaner.getReducedReferenceAngle(n, r[0]));
+    }
+
+    /**
+     * Evaluates a trig function at an angle to mc's number of significant digits,
+     * with PrecisionTrig, as well as the usual exact and 3-place answers.
+     * A plain decimal ("1.2", "-3.7e5") is taken exactly as typed and an exact
+     * fraction of π ("7π/6", "30°") exactly too; anything else (like "2π+1")
+     * is worked out as a double first, so it's only as good as that double.
+     * Decimals aren't matched to special angles here — they get their own digits.
+     * @param mc how many digits (1 to PrecisionTrig.MAX_DIGITS) and how to round them
+     * @return the result (see TrigResult.getPreciseValue()), or an error result
+     */
+    public static TrigResult evaluate(TrigFunction func, CharSequence angleExpr, MathContext mc)
+    {
+        String name = func.getShortName();
+        String input = String.valueOf(angleExpr);
+
+        ParseResult parsed = AngleParser.parse(angleExpr);
+        if (!parsed.isValid())
+        {
+            return TrigResult.error(name, input, parsed.toString());
+        }
+
+        try
+        {
+            if (parsed.isExactPi())
+            {
+                long num = parsed.getPiNumerator();
+                long den = parsed.getPiDenominator();
+                BigDecimal precise = PrecisionTrig.evaluatePiFraction(func, num, den, mc);
+                return evaluatePiFraction(func, input, num, den).withPreciseValue(text(precise));
+            }
+
+            BigDecimal precise = PrecisionTrig.evaluate(func, exactDecimal(input, parsed.getValue()), mc);
+
+            double[] r = new double[2];
+            int n = RangeReducer.reduce(parsed.getValue(), r);
+            return new TrigResult(name, input, null, decimal(func, n, r),
+                                  PiCleaner.getReducedQuadrant(n, r[0]), PiCleaner.getReducedReferenceAngle(n, r[0]))
+                       .withPreciseValue(text(precise));
+        }
+        catch (IllegalArgumentException | ArithmeticException e)
+        {
+            return TrigResult.error(name, input, e.getMessage()); // too many digits, or an angle too big for them
+        }
+    }
+
+    /**
+     * Evaluates an inverse trig function, e.g. asin(√2/2) = π/4.
+     * Exact values (the way ExactTable writes them: "√3/2", "-1/2", "2-√3")
+     * give an exact angle from the function's reverse index.
+     * "sqrt" may be typed for √, and spaces are ignored.
+     * Anything else is worked out as a number (radicals included, so
+     * "1/√2" or "sqrt(3)/3" work too) and given a decimal angle.
+     * asin and acos only take values from -1 to 1; atan takes any.
+     * The angle is always in the principal range
+     * (-π/2 to π/2 for asin and atan, 0 to π for acos).
+     * @param func which inverse function
+     * @param valueExpr the value, like "√2/2", "-1/2" or "0.3"
+     * @return the angle, or an error result if the value is bad or out of range
+     */
+    public static TrigResult evaluateInverse(InverseFunction func, CharSequence valueExpr)
+    {
+        String name = func.getShortName();
+        String input = String.valueOf(valueExpr);
+
+        // Exact value? One hash lookup gives the angle in π/120 steps
+        Integer step = func.findExactStep(normalizeExactValue(input));
+        if (step != null)
+        {
+            int g = gcd(Math.abs(step), ExactTable.GRID);
+            long num = step / g;
+            long den = ExactTable.GRID / g;
+            long normNum = PiCleaner.normalizePiNumerator(num, den);
+
+            return new TrigResult(name, input, PiCleaner.formatPiFraction(num, den), step * Math.PI / ExactTable.GRID,
+                                  PiCleaner.getQuadrant(normNum, den),
+                                  PiCleaner.getReferenceNumerator(normNum, den) * Math.PI / den);
+        }
+
+        // Otherwise work the value out as a number — only an approximation is possible
+        ParseResult parsed = AngleParser.parse(valueExpr);
+        if (!parsed.isValid())
+        {
+            return TrigResult.error(name, input, parsed.toString());
+        }
+
+        double value = parsed.getValue();
+        if (Double.isNaN(value) || Double.isInfinite(value))
+        {
+            return TrigResult.error(name, input, "value must be a finite number");
+        }
+        if (func != InverseFunction.ATAN && Math.abs(value) > 1)
+        {
+            return TrigResult.error(name, input, "value must be between -1 and 1");
+        }
+
+        double angle = func.fromValue(value);
+
+        double normalized = angle < 0 ? angle + 2 * Math.PI : angle; // [0, 2π) for the quadrant
+        return new TrigResult(name, input, null, angle,
+                              PiCleaner.getQuadrant(normalized), PiCleaner.getReferenceAngle(normalized));
+    }
+
+    /**
+     * Sine and cosine of one angle from a single parse and range reduction.
+     * For special angles the exact (cos, sin) pair (and tan) come from
+     * ExactTable, looked up at the same grid step.
+     * @param angleExpr angle in radians, like "7π/6" or "-3.7"
+     */
+    public static SinCosResult sincos(CharSequence angleExpr)
+    {
+        String input = String.valueOf(angleExpr);
+
+        ParseResult parsed = AngleParser.parse(angleExpr);
+        if (!parsed.isValid())
+        {
+            return SinCosResult.error(input, parsed.toString());
+        }
+
+        double[] r = new double[2];
+        double[] pair = new double[2]; // {sin, cos}
+
+        // Exact fraction of π, typed as one ("7π/6") or recognized from a decimal ("3.665191429")
+        long fraction = PiRecognizer.NONE;
+        if (!parsed.isExactPi())
+        {
+            fraction = recognizeSpecial(parsed.getValue(), angleExpr);
+        }
+
+        if (parsed.isExactPi() || fraction != PiRecognizer.NONE)
+        {
+            // Same whole-number route as evaluate()
+            long den = parsed.isExactPi() ? parsed.getPiDenominator() : PiRecognizer.denominator(fraction);
+            long num = parsed.isExactPi() ? parsed.getPiNumerator() : PiRecognizer.numerator(fraction);
+            num = PiCleaner.normalizePiNumerator(num, den);
+            int quadrant = PiCleaner.getQuadrant(num, den);
+            long refNum = PiCleaner.getReferenceNumerator(num, den);
+
+            int n = RangeReducer.reducePiFraction(num, den, r);
+            TrigKernels.sincosReduced(n, r[0], r[1], pair);
+
+            // Special angle? Find its grid step once, then read all three values
+            String exactCos = null;
+            String exactSin = null;
+            String exactTan = null;
+            int step = ExactTable.getStep(num, den);
+            if (step >= 0)
+            {
+                AlgebraicValue sin = ExactTable.lookup(TrigFunction.SIN, step);
+                AlgebraicValue cos = ExactTable.lookup(TrigFunction.COS, step);
+                exactSin = text(sin);
+                exactCos = text(cos);
+                exactTan = text(ExactTable.lookup(TrigFunction.TAN, step));
+                pair[0] = sin.toDouble(); // the exact values' doubles, so cos(π/2) is 0, not -0.0
+                pair[1] = cos.toDouble();
+            }
+
+            return new SinCosResult(input, pair[1], pair[0], exactCos, exactSin, exactTan,
+                                    quadrant, refNum * Math.PI / den);
+        }
+
+        // Plain decimal angle: one reduction for the quadrant, reference angle and both values
+        int n = RangeReducer.reduce(parsed.getValue(), r);
+        TrigKernels.sincosReduced(n, r[0], r[1], pair);
+
+        return new SinCosResult(input, pair[1], pair[0], null, null, null,
+                                PiCleaner.getReducedQuadrant(n, r[0]), PiCleaner.getReducedReferenceAngle(n, r[0]));
+    }
+
+    /**
+     * Finds the index (0–5, TrigFunction order) of a function name, or -1 if it isn't one.
+     * Accepts short names ("sin") and display names ("Sine"), any case.
+     */
+    public static int getFunctionIndex(String function)
+    {
+        TrigFunction func = TrigFunction.fromName(function);
+        return func == null ? -1 : func.ordinal();
+    }
+
+    /***** QUIZ *****/
+
+    /**
+     * Gets the flashcard for one function and one quiz angle.
+     * @param funcIndex index into TrigFunction (0 = sin ... 5 = cot)
+     * @param angleIndex 0 to QUIZ_ANGLES - 1, i.e. angleIndex·π/12 from 0 to π
+     */
+    public static Flashcard getFlashcard(int funcIndex, int angleIndex)
+    {
+        return getFlashcard(TrigFunction.fromIndex(funcIndex), angleIndex);
+    }
+
+    /**
+     * Same as getFlashcard above, for a TrigFunction.
+     * Always the same card for the same question — nothing is made per call.
+     */
+    public static Flashcard getFlashcard(TrigFunction func, int angleIndex)
+    {
+        if (angleIndex < 0 || angleIndex >= QUIZ_ANGLES)
+        {
+            throw new IndexOutOfBoundsException("angleIndex must be 0 to " + (QUIZ_ANGLES - 1) + ", got " + angleIndex);
+        }
+        return DECK[func.ordinal() * QUIZ_ANGLES + angleIndex];
+    }
+
+    /** Gets a card by its place in the deck (see Flashcard.getIndex) */
+    public static Flashcard getFlashcard(int deckIndex)
+    {
+        return DECK[deckIndex];
+    }
+
+    /** Number of cards in the deck: every function at every quiz angle */
+    public static int getDeckSize()
+    {
+        return DECK.length;
+    }
+
+    /** Number of answer choices shown for a question about func */
+    public static int getAnswerChoiceCount(TrigFunction func)
+    {
+        return ANSWER_CHOICES[func.ordinal()].length;
+    }
+
+    /**
+     * Gets the exact value shown for a quiz answer number (1 and up).
+     * The choices for a function are all of its different values at the quiz angles.
+     */
+    public static AlgebraicValue getAnswerChoice(TrigFunction func, int choice)
+    {
+        return ANSWER_CHOICES[func.ordinal()][choice - 1];
+    }
+
+    /** True if the answer number picks the card's exact value (values are canonical, so == does it) */
+    public static boolean isCorrect(Flashcard card, int choice)
+    {
+        return card.getExactValue() == getAnswerChoice(card.getFunction(), choice);
+    }
+
+    /***** HELPER METHODS *****/
+
+    /** Lists each function's different values over the quiz angles */
+    private static AlgebraicValue[][] buildAnswerChoices()
+    {
+        AlgebraicValue[][] choices = new AlgebraicValue[TrigFunction.count()][];
+        for (int f = 0; f < choices.length; f++)
+        {
+            LinkedHashSet<AlgebraicValue> values = new LinkedHashSet<>();
+            for (int a = 0; a < QUIZ_ANGLES; a++)
+            {
+                values.add(ExactTable.lookup(TrigFunction.fromIndex(f), a * QUIZ_STEP));
+            }
+            choices[f] = values.toArray(new AlgebraicValue[0]);
+        }
+        return choices;
+    }
+
+    /** Makes every quiz card once; the correct values come straight from ExactTable */
+    private static Flashcard[] buildDeck()
+    {
+        Flashcard[] deck = new Flashcard[TrigFunction.count() * QUIZ_ANGLES];
+        for (int f = 0; f < TrigFunction.count(); f++)
+        {
+            TrigFunction func = TrigFunction.fromIndex(f);
+            for (int a = 0; a < QUIZ_ANGLES; a++)
+            {
+                int g = gcd(a, QUIZ_DENOMINATOR);
+                String angle = PiCleaner.formatPiFraction(a / g, QUIZ_DENOMINATOR / g);
+                deck[f * QUIZ_ANGLES + a] = new Flashcard(func, a, angle, ExactTable.lookup(func, a * QUIZ_STEP));
+            }
+        }
+        return deck;
+    }
+
+    /**
+     * Puts a typed value in ExactTable's form: no spaces, "sqrt" becomes √,
+     * and √(3) becomes √3. Doesn't otherwise change it.
+     */
+    private static String normalizeExactValue(String value)
+    {
+        StringBuilder sb = new StringBuilder(value.length());
+        int i = 0;
+        while (i < value.length())
+        {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c))
+            {
+                i++;
+                continue;
+            }
+
+            boolean root = c == '√';
+            if (value.regionMatches(true, i, "sqrt", 0, 4))
+            {
+                root = true;
+                i += 3;
+            }
+            if (!root)
+            {
+                sb.append(c);
+                i++;
+                continue;
+            }
+
+            // √(digits) -> √digits; anything else in brackets stays as it is
+            sb.append('√');
+            i++;
+            int close = i + 1;
+            while (close < value.length() && Character.isDigit(value.charAt(close)))
+            {
+                close++;
+            }
+            if (i < value.length() && value.charAt(i) == '(' && close > i + 1
+                && close < value.length() && value.charAt(close) == ')')
+            {
+                sb.append(value, i + 1, close);
+                i = close + 1;
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Greatest common divisor (for reducing angle fractions) */
+    private static int gcd(int a, int b)
+    {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /** Evaluates func at num/den × π with whole-number math (den > 0, reduced) */
+    private static TrigResult evaluatePiFraction(TrigFunction func, String input, long num, long den)
+    {
+        // Convert angle to range [0, 2π) with whole-number math
+        num = PiCleaner.normalizePiNumerator(num, den);
+        int quadrant = PiCleaner.getQuadrant(num, den);
+
+        // Get the reference angle (always between 0 and π/2)
+        long refNum = PiCleaner.getReferenceNumerator(num, den);
+        double refAngle = refNum * Math.PI / den;
+
+        // Special angle? One array read gives the value, sign included, and its double
+        // (NaN where undefined, a clean 0 where zero: no tan(π/2) = -1.6e16 or cos(π/2) = -0.0)
+        AlgebraicValue exact = ExactTable.lookup(func, num, den);
+        if (exact != null)
+        {
+            return new TrigResult(func.getShortName(), input, text(exact), exact.toDouble(), quadrant, refAngle);
+        }
+
+        double[] r = new double[2];
+        int n = RangeReducer.reducePiFraction(num, den, r);
+        return new TrigResult(func.getShortName(), input, null, decimal(func, n, r), quadrant, refAngle);
+    }
+
+    /**
+     * Checks whether a decimal angle is one of ExactTable's special angles,
+     * to within a few ulps or the digits the user typed (see PiRecognizer).
+     * Returns the packed fraction, or PiRecognizer.NONE.
+     */
+    private static long recognizeSpecial(double angle, CharSequence typed)
+    {
+        long fraction = PiRecognizer.recognize(angle, PiRecognizer.typedTolerance(typed), ExactTable.GRID);
+        if (fraction == PiRecognizer.NONE || ExactTable.GRID % PiRecognizer.denominator(fraction) != 0)
+        {
+            return PiRecognizer.NONE; // not on the grid, so there's no exact value to give
+        }
+        return fraction;
+    }
+
+    /**
+     * recognizeSpecial for a bare double, like BulkEvaluator's radian arrays.
+     * The double counts as typed the shortest way that reads back as it
+     * (Double.toString), so it gets the same answer as the same angle
+     * passed to evaluate() as text. That String is only made for the rare
+     * angle within MAX_TYPED_TOLERANCE of a fraction of π.
+     */
+    static long recognizeSpecial(double angle)
+    {
+        if (PiRecognizer.recognize(angle, PiRecognizer.MAX_TYPED_TOLERANCE, ExactTable.GRID) == PiRecognizer.NONE)
+        {
+            return PiRecognizer.NONE; // not close to anything, however it was typed
+        }
+        return recognizeSpecial(angle, Double.toString(angle));
+    }
+
+    /**
+     * Written form of an exact value for a result, or null if there isn't one.
+     * AlgebraicValue keeps its text ready-made, so this builds nothing.
+     */
+    private static String text(AlgebraicValue value)
+    {
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Written form of a high-precision value, or null where it's undefined
+     * (like tan(π/2), whose exact value "NaN" already says so).
+     */
+    private static String text(BigDecimal value)
+    {
+        return value == null ? null : value.toString();
+    }
+
+    /** Reads the digit count after PRECISION_MARK ("50", " 50 "), or -1 if it isn't a whole number */
+    private static int parseDigits(String text)
+    {
+        String digits = text.trim();
+        if (digits.isEmpty() || digits.length() > 9)
+        {
+            return -1;
+        }
+        for (int i = 0; i < digits.length(); i++)
+        {
+            if (!Character.isDigit(digits.charAt(i)))
+            {
+                return -1;
+            }
+        }
+        return Integer.parseInt(digits);
+    }
+
+    /**
+     * The angle exactly as typed, if it's a plain decimal ("1.2", "-3.7e5"),
+     * so 1.2 means 1.2 and not the double nearest to it. Anything else
+     * (an expression, a unit) falls back to value, the parsed double.
+     */
+    private static BigDecimal exactDecimal(String input, double value)
+    {
+        try
+        {
+            return new BigDecimal(input.trim());
+        }
+        catch (NumberFormatException e)
+        {
+            return new BigDecimal(value);
+        }
+    }
+
+    /** Decimal value of func at n·(π/2) + (r[0] + r[1]), as split by RangeReducer */
+    private static double decimal(TrigFunction func, int n, double[] r)
+    {
+        double[] pair = new double[2]; // {sin, cos}
+        TrigKernels.sincosReduced(n, r[0], r[1], pair);
+        return func.fromSinCos(pair[0], pair[1]);
+    }
+}
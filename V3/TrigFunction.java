@@ -0,0 +1,171 @@
+/**
+ * -----------------------------------------
+ * TrigFunction
+ * -----------------------------------------
+ *
+ * The trig functions the calculator knows, each carrying everything
+ * needed to work with it:
+ *   - its short name ("sin") and display name ("Sine")
+ *   - which quadrants it is negative in, as a bitmask
+ *     (bit 0 = Q1 ... bit 3 = Q4), so finding the sign is one table read
+ *   - how to get its value from sin and cos of the same angle
+ *
+ *   TrigFunction.SIN.isNegativeIn(3)   ->  true
+ *   TrigFunction.fromName("Cosine")    ->  COS
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * SIN, COS, TAN, CSC, SEC, COT
+ * -----------------------------------------
+ * - ALL: TrigFunction[]
+ * -----------------------------------------
+ * - shortName: String
+ * - displayName: String
+ * - signMask: int
+ * -----------------------------------------
+ * + getShortName(): String
+ * + getDisplayName(): String
+ * + isNegativeIn(int quadrant): boolean
+ * + evaluate(double rad): double
+ * + fromIndex(int index): TrigFunction
+ * + fromName(String name): TrigFunction
+ * + count(): int
+ * -----------------------------------------
+ * ~ fromSinCos(double sin, double cos): double
+ * -----------------------------------------
+*/
+
+public enum TrigFunction
+{
+    //          short  display      negative in Q4 Q3 Q2 Q1
+    SIN("sin", "Sine",    0b1100)
+    {
+        double fromSinCos(double sin, double cos)
+        {
+            return sin;
+        }
+    },
+    COS("cos", "Cosine",  0b0110)
+    {
+        double fromSinCos(double sin, double cos)
+        {
+            return cos;
+        }
+    },
+    TAN("tan", "Tangent", 0b1010)
+    {
+        double fromSinCos(double sin, double cos)
+        {
+            return sin / cos;
+        }
+    },
+    CSC("csc", "Cosecant", 0b1100)
+    {
+        double fromSinCos(double sin, double cos)
+        {
+            return 1.0 / sin;
+        }
+    },
+    SEC("sec", "Secant", 0b0110)
+    {
+        double fromSinCos(double sin, double cos)
+        {
+            return 1.0 / cos;
+        }
+    },
+    COT("cot", "Cotangent", 0b1010)
+    {
+        double fromSinCos(double sin, double cos)
+        {
+            return cos / sin;
+        }
+    };
+
+    /** All functions in order (values() makes a new array on every call) */
+    private static final TrigFunction[] ALL = values();
+
+    /***** INSTANCE VARIABLES *****/
+    private final String shortName;   // e.g. "sin"; the first three match TrigCalcV3.TRIG_FUNCTIONS
+    private final String displayName; // e.g. "Sine", used in menus
+    private final int signMask;       // bit (q - 1) set = negative in quadrant q
+
+    /***** CONSTRUCTOR *****/
+    TrigFunction(String shortName, String displayName, int signMask)
+    {
+        this.shortName = shortName;
+        this.displayName = displayName;
+        this.signMask = signMask;
+    }
+
+    /***** GETTERS (accessors) *****/
+
+    /** Gets the short name (e.g. "sin") */
+    public String getShortName()
+    {
+        return shortName;
+    }
+
+    /** Gets the name shown in menus (e.g. "Sine") */
+    public String getDisplayName()
+    {
+        return displayName;
+    }
+
+    /** True if the function is negative in the quadrant (1–4) */
+    public boolean isNegativeIn(int quadrant)
+    {
+        return ((signMask >>> (quadrant - 1)) & 1) != 0;
+    }
+
+    /***** EVALUATION *****/
+
+    /** Decimal value of this function at rad radians (any size) */
+    public double evaluate(double rad)
+    {
+        double[] r = new double[2];
+        double[] pair = new double[2];
+        int n = RangeReducer.reduce(rad, r);
+        TrigKernels.sincosReduced(n, r[0], r[1], pair);
+        return fromSinCos(pair[0], pair[1]);
+    }
+
+    /** This function's value, given sin and cos of the same angle */
+    abstract double fromSinCos(double sin, double cos);
+
+    /***** LOOKUP *****/
+
+    /** Gets the function at an index (0 = sin, 1 = cos, 2 = tan, 3 = csc, 4 = sec, 5 = cot) */
+    public static TrigFunction fromIndex(int index)
+    {
+        return ALL[index];
+    }
+
+    /**
+     * Finds a function by short name ("sin") or display name ("Sine"),
+     * any case. Returns null if there's no such function.
+     */
+    public static TrigFunction fromName(String name)
+    {
+        if (name == null)
+        {
+            return null;
+        }
+        for (TrigFunction func : ALL)
+        {
+            if (name.equalsIgnoreCase(func.shortName) || name.equalsIgnoreCase(func.displayName))
+            {
+                return func;
+            }
+        }
+        return null;
+    }
+
+    /** Number of functions */
+    public static int count()
+    {
+        return ALL.length;
+    }
+}
@@ -0,0 +1,226 @@
+/********************************************
+*   TrigKernelsBenchmark
+*********************************************
+*   AUTHORS:    Jeff Peterson
+*   COLLABORATORS: None
+*   LAST MODIFIED:  05/27/2025
+********************************************
+*   PROGRAM DESCRIPTION:
+*   BENCHMARK of TrigKernels: the SIMD kernel (VectorTrigKernels),
+*   the scalar kernel, and a plain loop of Math.sin / Math.cos / Math.tan,
+*   on the same arrays of angles. Also checks that TrigKernels.apply
+*   gives exactly the scalar kernel's bits (SIMD loaded) or Math.*'s bits
+*   (not loaded), and the scalar kernel's worst ulp error against StrictMath.
+*
+*   To include the SIMD kernel, build and run with the incubator module:
+*     javac -d out V3/*.java
+*     javac --add-modules jdk.incubator.vector -cp out -d out V3/vector/*.java
+*     java --add-modules jdk.incubator.vector -cp out TrigKernelsBenchmark [count]
+*   Without it the apply column is the Math.* loop TrigKernels falls back to.
+*********************************************
+*   ALGORITHM:
+*   Fill arrays with random angles in a few ranges (fixed seed)
+*   For each range: compare apply with scalar or Math.* bit for bit (sincos too), scalar with StrictMath
+*   For each function: time each version (best of several rounds, after warm-up)
+*   Print ns per value and the speedups
+*********************************************
+*   STATIC METHODS:
+*   main(String[] args)
+*   checkAccuracy(String label, double[] angles)
+*   timeFunction(int funcIndex, double[] angles)
+*   timeMathLoop(int funcIndex, double[] angles, double[] out): long
+*   mathLoop(int funcIndex, double[] angles, double[] out)
+*   strict(int funcIndex, double x): double
+*   ulps(double got, double expected): double
+*   randomAngles(SplittableRandom random, int count, double limit): double[]
+*********************************************
+*   IMPORTED PACKAGES NEEDED AND PURPOSE:
+*   SplittableRandom - random angles (fixed seed, so runs repeat)
+*********************************************/
+
+import java.util.SplittableRandom;
+
+public class TrigKernelsBenchmark
+{
+    /** Timed rounds per version (the best one is reported) and untimed warm-up rounds before them */
+    private static final int ROUNDS = 15;
+    private static final int WARM_UP = 10;
+
+    /** Function names, in TrigKernels funcIndex order */
+    private static final String[] NAMES = {"sin", "cos", "tan"};
+
+    /** Keeps the JIT from dropping work whose answers nobody reads */
+    private static double sink = 0;
+
+    public static void main(String[] args)
+    {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        SplittableRandom random = new SplittableRandom(8);
+
+        System.out.println("TrigKernels: " + (TrigKernels.isVectorized()
+                           ? "SIMD kernel loaded, " + TrigKernels.getLaneCount() + " lanes"
+                           : "SIMD kernel NOT loaded (apply is Math.*; see the header for how to build and run it)"));
+
+        /***** ACCURACY *****/
+        System.out.println("\nACCURACY (1,000,000 angles per range; ulp error against StrictMath)");
+        checkAccuracy("[-10, 10]", randomAngles(random, 1000000, 10));
+        checkAccuracy("[-1e5, 1e5]", randomAngles(random, 1000000, 1e5));
+        checkAccuracy("[-1e300, 1e300]", randomAngles(random, 1000000, 1e300));
+
+        /***** SPEED *****/
+        System.out.println("\nSPEED (" + count + " angles in [-10, 10], best of " + ROUNDS + " rounds)");
+        System.out.println("          Math.*      scalar     apply    apply vs Math  apply vs scalar");
+        double[] angles = randomAngles(random, count, 10);
+        for (int f = 0; f < NAMES.length; f++)
+        {
+            timeFunction(f, angles);
+        }
+
+        System.out.println("\n" + TestHarness.summary() + "  (checksum " + sink + ")");
+    }
+
+    /**
+     * Checks apply gives the bits it should (the scalar kernel's with SIMD,
+     * Math.*'s without), and the scalar kernel stays within its ulp bounds
+     */
+    public static void checkAccuracy(String label, double[] angles)
+    {
+        boolean vectorized = TrigKernels.isVectorized();
+        String against = vectorized ? "scalar" : "Math.*";
+        double[] applied = new double[angles.length];
+        double[] scalar = new double[angles.length];
+        double[] math = new double[angles.length];
+
+        for (int f = 0; f < NAMES.length; f++)
+        {
+            TrigKernels.apply(f, angles, 0, applied, 0, angles.length);
+            TrigKernels.applyScalar(f, angles, 0, scalar, 0, angles.length);
+            mathLoop(f, angles, math);
+            double[] expected = vectorized ? scalar : math;
+
+            int different = 0;
+            double worst = 0;
+            for (int i = 0; i < angles.length; i++)
+            {
+                if (Double.doubleToRawLongBits(applied[i]) != Double.doubleToRawLongBits(expected[i]))
+                {
+                    different++;
+                }
+                worst = Math.max(worst, ulps(scalar[i], strict(f, angles[i])));
+            }
+            double bound = f == 2 ? 2 : 1; // the bounds in TrigKernels' header
+            TestHarness.check(different == 0 && worst <= bound, String.format("%-16s %s: %d differ from %s, scalar max error %.2f ulp",
+                                                                              label, NAMES[f], different, against, worst));
+        }
+
+        // sincos: both outputs at once, from an odd offset so the leftover elements get used too
+        double[] sinOut = new double[angles.length];
+        double[] cosOut = new double[angles.length];
+        int count = angles.length - 3;
+        TrigKernels.sincos(angles, 3, sinOut, cosOut, 0, count);
+        TrigKernels.sincosScalar(angles, 3, applied, scalar, 0, count);
+        int different = 0;
+        for (int i = 0; i < count; i++)
+        {
+            double sin = vectorized ? applied[i] : Math.sin(angles[i + 3]);
+            double cos = vectorized ? scalar[i] : Math.cos(angles[i + 3]);
+            if (Double.doubleToRawLongBits(sinOut[i]) != Double.doubleToRawLongBits(sin)
+                || Double.doubleToRawLongBits(cosOut[i]) != Double.doubleToRawLongBits(cos))
+            {
+                different++;
+            }
+        }
+        TestHarness.check(different == 0, String.format("%-16s sincos: %d differ from %s", label, different, against));
+    }
+
+    /** Times Math.*, the scalar kernel and TrigKernels.apply (SIMD, or Math.* without it) on one function and prints a row */
+    public static void timeFunction(int funcIndex, double[] angles)
+    {
+        double[] out = new double[angles.length];
+        long math = Long.MAX_VALUE;
+        long scalar = Long.MAX_VALUE;
+        long applied = Long.MAX_VALUE;
+
+        for (int round = 0; round < WARM_UP + ROUNDS; round++)
+        {
+            long mathTime = timeMathLoop(funcIndex, angles, out);
+
+            long start = System.nanoTime();
+            TrigKernels.applyScalar(funcIndex, angles, 0, out, 0, angles.length);
+            long scalarTime = System.nanoTime() - start;
+            sink += out[angles.length / 2];
+
+            start = System.nanoTime();
+            TrigKernels.apply(funcIndex, angles, 0, out, 0, angles.length);
+            long appliedTime = System.nanoTime() - start;
+            sink += out[angles.length / 2];
+
+            if (round >= WARM_UP)
+            {
+                math = Math.min(math, mathTime);
+                scalar = Math.min(scalar, scalarTime);
+                applied = Math.min(applied, appliedTime);
+            }
+        }
+
+        double n = angles.length;
+        System.out.printf("  %-4s %8.2f ns %8.2f ns %8.2f ns %12.2fx %14.2fx%n", NAMES[funcIndex],
+                          math / n, scalar / n, applied / n, (double) math / applied, (double) scalar / applied);
+    }
+
+    /** Nanoseconds for one mathLoop */
+    public static long timeMathLoop(int funcIndex, double[] angles, double[] out)
+    {
+        long start = System.nanoTime();
+        mathLoop(funcIndex, angles, out);
+        long time = System.nanoTime() - start;
+        sink += out[angles.length / 2];
+        return time;
+    }
+
+    /** The loop TrigCalculator used to do: one Math call per value */
+    public static void mathLoop(int funcIndex, double[] angles, double[] out)
+    {
+        for (int i = 0; i < angles.length; i++)
+        {
+            switch (funcIndex)
+            {
+                case 0:  out[i] = Math.sin(angles[i]); break;
+                case 1:  out[i] = Math.cos(angles[i]); break;
+                default: out[i] = Math.tan(angles[i]); break;
+            }
+        }
+    }
+
+    /** The StrictMath answer for funcIndex 0-2 */
+    public static double strict(int funcIndex, double x)
+    {
+        switch (funcIndex)
+        {
+            case 0:  return StrictMath.sin(x);
+            case 1:  return StrictMath.cos(x);
+            default: return StrictMath.tan(x);
+        }
+    }
+
+    /** How many ulps (of expected) got is off by */
+    public static double ulps(double got, double expected)
+    {
+        if (got == expected)
+        {
+            return 0;
+        }
+        return Math.abs(got - expected) / Math.ulp(expected);
+    }
+
+    /** count random angles in [-limit, limit] */
+    public static double[] randomAngles(SplittableRandom random, int count, double limit)
+    {
+        double[] angles = new double[count];
+        for (int i = 0; i < count; i++)
+        {
+            angles[i] = random.nextDouble(-limit, limit);
+        }
+        return angles;
+    }
+}
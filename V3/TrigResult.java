@@ -0,0 +1,210 @@
+/**
+ * -----------------------------------------
+ * TrigResult
+ * -----------------------------------------
+ *
+ * The answer to one TrigEngine query, like sin(7π/6).
+ * Holds the exact value (when there is one), the decimal value,
+ * the quadrant and the reference angle — or an error if the
+ * input couldn't be understood. A high-precision query ("1.2 @50")
+ * also carries the long decimal from PrecisionTrig.
+ *
+ * Immutable, so it's safe to hand between threads or keep around.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * + DECIMAL_PLACES: int
+ * -----------------------------------------
+ * - function: String
+ * - input: String
+ * - exactValue: String
+ * - decimalValue: double
+ * - quadrant: int
+ * - referenceAngle: double
+ * - preciseValue: String
+ * - error: String
+ * -----------------------------------------
+ * + TrigResult(String function, String input, String exactValue,
+ *              double decimalValue, int quadrant, double referenceAngle)
+ * + error(String function, String input, String message): TrigResult
+ * + TrigResult withPreciseValue(String preciseValue)
+ *
+ * + boolean isValid()
+ * + boolean isExact()
+ * + String getFunction()
+ * + String getInput()
+ * + String getExactValue()
+ * + double getDecimalValue()
+ * + int getQuadrant()
+ * + double getReferenceAngle()
+ * + String getPreciseValue()
+ * + String getError()
+ * + String getValueText()
+ * + String toString()
+ * -----------------------------------------
+*/
+
+public final class TrigResult
+{
+    /** Decimal places shown for approximate values */
+    public static final int DECIMAL_PLACES = 3;
+
+    /***** INSTANCE VARIABLES *****/
+    private final String function;       // e.g. "sin"
+    private final String input;          // the angle as the user typed it, e.g. "7π/6"
+    private final String exactValue;     // e.g. "-1/2", or null if there's no exact value
+    private final double decimalValue;   // e.g. -0.5
+    private final int quadrant;          // 1–4 (0 if the query failed)
+    private final double referenceAngle; // radians, between 0 and π/2
+    private final String preciseValue;   // e.g. "0.93203908596722634967", or null if not asked for
+    private final String error;          // null if the query worked
+
+    /***** CONSTRUCTORS *****/
+
+    /** Full constructor for a successful query */
+    public TrigResult(String function, String input, String exactValue,
+                      double decimalValue, int quadrant, double referenceAngle)
+    {
+        this.function = function;
+        this.input = input;
+        this.exactValue = exactValue;
+        this.decimalValue = decimalValue;
+        this.quadrant = quadrant;
+        this.referenceAngle = referenceAngle;
+        this.preciseValue = null;
+        this.error = null;
+    }
+
+    /** Private — used by withPreciseValue() */
+    private TrigResult(TrigResult result, String preciseValue)
+    {
+        this.function = result.function;
+        this.input = result.input;
+        this.exactValue = result.exactValue;
+        this.decimalValue = result.decimalValue;
+        this.quadrant = result.quadrant;
+        this.referenceAngle = result.referenceAngle;
+        this.preciseValue = preciseValue;
+        this.error = result.error;
+    }
+
+    /** Private — used by error() */
+    private TrigResult(String function, String input, String error)
+    {
+        this.function = function;
+        this.input = input;
+        this.exactValue = null;
+        this.decimalValue = Double.NaN;
+        this.quadrant = 0;
+        this.referenceAngle = Double.NaN;
+        this.preciseValue = null;
+        this.error = error;
+    }
+
+    /** Builds a result for a query that failed (bad function name or bad angle) */
+    public static TrigResult error(String function, String input, String message)
+    {
+        return new TrigResult(function, input, message);
+    }
+
+    /**
+     * The same result with a high-precision decimal added (or null for none).
+     * Shown after the exact value, or instead of the 3-place decimal.
+     */
+    public TrigResult withPreciseValue(String preciseValue)
+    {
+        return new TrigResult(this, preciseValue);
+    }
+
+    /***** GETTERS (accessors) *****/
+
+    /** True if the query worked */
+    public boolean isValid()
+    {
+        return error == null;
+    }
+
+    /** True if there is an exact value (a special angle) */
+    public boolean isExact()
+    {
+        return exactValue != null;
+    }
+
+    /** Gets the trig function name (e.g. "sin") */
+    public String getFunction()
+    {
+        return function;
+    }
+
+    /** Gets the angle as it was given (e.g. "7π/6") */
+    public String getInput()
+    {
+        return input;
+    }
+
+    /** Gets the exact value (e.g. "-1/2"), or null if there isn't one */
+    public String getExactValue()
+    {
+        return exactValue;
+    }
+
+    /** Gets the decimal value (NaN if the query failed) */
+    public double getDecimalValue()
+    {
+        return decimalValue;
+    }
+
+    /** Gets the quadrant, 1–4 (0 if the query failed) */
+    public int getQuadrant()
+    {
+        return quadrant;
+    }
+
+    /** Gets the reference angle in radians (0 to π/2) */
+    public double getReferenceAngle()
+    {
+        return referenceAngle;
+    }
+
+    /** Gets the high-precision decimal (e.g. "0.93203908596722634967"), or null if none was asked for */
+    public String getPreciseValue()
+    {
+        return preciseValue;
+    }
+
+    /** Gets the error message, or null if the query worked */
+    public String getError()
+    {
+        return error;
+    }
+
+    /**
+     * Gets just the value part: "-1/2", "0.966 (approx.)" or the error.
+     * With a high-precision decimal: "0.93203908596722634967", or "1/2 = 0.50000000000000000000".
+     */
+    public String getValueText()
+    {
+        if (error != null)
+        {
+            return "error: " + error;
+        }
+        if (preciseValue != null)
+        {
+            return exactValue != null ? exactValue + " = " + preciseValue : preciseValue;
+        }
+        if (exactValue != null)
+        {
+            return exactValue;
+        }
+        return DecimalFormatter.append(new StringBuilder(), decimalValue, DECIMAL_PLACES).append(" (approx.)").toString();
+    }
+
+    /***** toString *****/
+    public String toString()
+    {
+        return function + "(" + input + ") = " + getValueText();
+    }
+}
@@ -0,0 +1,215 @@
+/**
+ * -----------------------------------------
+ * VectorTrigKernels
+ * -----------------------------------------
+ *
+ * The SIMD version of TrigKernels: sin, cos, tan (and csc, sec, cot)
+ * over double[] arrays, a whole DoubleVector of angles at a time
+ * (8 lanes with AVX-512, 4 with AVX2, 2 with SSE or NEON).
+ *
+ * Same steps as TrigKernels, lane by lane:
+ *   1. Cody–Waite range reduction, x = n·(π/2) + (hi + lo), with
+ *      RangeReducer's pieces of π/2. n is rounded by adding and
+ *      subtracting 1.5·2^52, so n mod 4 can be read off the low bits.
+ *   2. the same sin and cos polynomials (TrigKernels.S1.., C1..)
+ *   3. masks from n mod 4 pick ±sin or ±cos per lane
+ * Every operation is the same IEEE one in the same order as the scalar
+ * code (Java never fuses a*b+c on its own), so each lane gets the exact
+ * bits TrigKernels would: at most 1 ulp from StrictMath for sin and cos,
+ * 2 for tan.
+ *
+ * A vector with any |x| >= RangeReducer.CODY_WAITE_LIMIT (or NaN, or
+ * infinity) needs Payne–Hanek, so those lanes, and the leftover
+ * elements at the end of the array, go to TrigKernels.applyScalar.
+ *
+ * Uses the jdk.incubator.vector module, so it lives in its own folder
+ * and is compiled after the rest of V3:
+ *   javac --add-modules jdk.incubator.vector -cp out -d out V3/vector/*.java
+ * and picked up by TrigKernels only when the JVM runs with
+ *   --add-modules jdk.incubator.vector
+ * Nothing else calls it directly.
+ *
+ * Author: Jeff Peterson
+ *
+ * -----------------------------------------
+ * UML CLASS DIAGRAM
+ * -----------------------------------------
+ * - SPECIES: VectorSpecies<Double>
+ * - ROUNDER: double
+ * - SMALL: double
+ * - SINCOS: int
+ * -----------------------------------------
+ * + VectorTrigKernels()
+ *
+ * + int laneCount()
+ * + void apply(int funcIndex, double[] in, int inOffset, double[] out, int outOffset, int count)
+ * + void sincos(double[] in, int inOffset, double[] sinOut, double[] cosOut, int outOffset, int count)
+ * -----------------------------------------
+ * - needsScalar(DoubleVector x): boolean
+ * - evaluate(int funcIndex, DoubleVector x, double[] out, double[] cosOut, int at): void
+ * - sinPoly(DoubleVector hi, DoubleVector lo): DoubleVector
+ * - cosPoly(DoubleVector hi, DoubleVector lo): DoubleVector
+ * -----------------------------------------
+*/
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+public final class VectorTrigKernels implements TrigKernels.ArrayKernel
+{
+    /***** CONSTANTS *****/
+
+    /** The widest vector this CPU does well */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /** 1.5·2^52: (v + ROUNDER) - ROUNDER is v rounded to a whole number (ties to even, like Math.rint) */
+    private static final double ROUNDER = 0x1.8p52;
+
+    /** At or below this |x| RangeReducer leaves x alone (n = 0, lo = 0) */
+    private static final double SMALL = Math.PI / 4;
+
+    /** funcIndex for evaluate() meaning "both sin and cos" */
+    private static final int SINCOS = -1;
+
+    /***** CONSTRUCTOR *****/
+
+    /** Public so TrigKernels can make one by reflection */
+    public VectorTrigKernels()
+    {
+    }
+
+    /***** ARRAY KERNELS *****/
+
+    /** Lanes in one vector */
+    public int laneCount()
+    {
+        return SPECIES.length();
+    }
+
+    /** Same as TrigKernels.apply */
+    public void apply(int funcIndex, double[] in, int inOffset, double[] out, int outOffset, int count)
+    {
+        int lanes = SPECIES.length();
+        int i = 0;
+        for (; i <= count - lanes; i += lanes)
+        {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, in, inOffset + i);
+            if (needsScalar(x))
+            {
+                TrigKernels.applyScalar(funcIndex, in, inOffset + i, out, outOffset + i, lanes);
+            }
+            else
+            {
+                evaluate(funcIndex, x, out, null, outOffset + i);
+            }
+        }
+        TrigKernels.applyScalar(funcIndex, in, inOffset + i, out, outOffset + i, count - i);
+    }
+
+    /** Same as TrigKernels.sincos */
+    public void sincos(double[] in, int inOffset, double[] sinOut, double[] cosOut, int outOffset, int count)
+    {
+        int lanes = SPECIES.length();
+        int i = 0;
+        for (; i <= count - lanes; i += lanes)
+        {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, in, inOffset + i);
+            if (needsScalar(x))
+            {
+                TrigKernels.sincosScalar(in, inOffset + i, sinOut, cosOut, outOffset + i, lanes);
+            }
+            else
+            {
+                evaluate(SINCOS, x, sinOut, cosOut, outOffset + i);
+            }
+        }
+        TrigKernels.sincosScalar(in, inOffset + i, sinOut, cosOut, outOffset + i, count - i);
+    }
+
+    /***** HELPER METHODS *****/
+
+    /** True if any lane is too big for Cody–Waite, or NaN (the compare is false for NaN) */
+    private static boolean needsScalar(DoubleVector x)
+    {
+        return !x.abs().compare(VectorOperators.LT, RangeReducer.CODY_WAITE_LIMIT).allTrue();
+    }
+
+    /**
+     * One vector of angles, start to finish. Vectors never leave this
+     * method (no fields, no arrays), so the JIT keeps them all in registers.
+     * @param funcIndex 0-5 as in TrigKernels.apply, or SINCOS for both sin and cos
+     * @param out gets the answers at out[at] (the sines, for SINCOS)
+     * @param cosOut gets the cosines at cosOut[at] (SINCOS only)
+     */
+    private static void evaluate(int funcIndex, DoubleVector x, double[] out, double[] cosOut, int at)
+    {
+        // Cody–Waite, the same steps as RangeReducer.codyWaite.
+        // Lanes RangeReducer leaves alone get n = 0, which makes the steps give hi = x, lo = 0
+        VectorMask<Double> small = x.abs().compare(VectorOperators.LE, SMALL);
+        DoubleVector shifted = x.mul(RangeReducer.TWO_OVER_PI).add(ROUNDER).blend(ROUNDER, small);
+        LongVector n = shifted.viewAsIntegralLanes(); // n sits in the low bits
+        DoubleVector nd = shifted.sub(ROUNDER);
+
+        DoubleVector t = x.sub(nd.mul(RangeReducer.PIO2_1));   // exact
+        DoubleVector w = nd.mul(RangeReducer.PIO2_2);          // exact
+        DoubleVector u = t.sub(w);
+        w = nd.mul(RangeReducer.PIO2_2T).sub(t.sub(u).sub(w)); // what u is still missing
+        DoubleVector hi = u.sub(w);
+        DoubleVector lo = u.sub(hi).sub(w);
+
+        DoubleVector s = sinPoly(hi, lo);
+        DoubleVector c = cosPoly(hi, lo);
+
+        // Pick by quadrant, as in TrigKernels.evaluateReduced
+        VectorMask<Double> swap = n.and(1L).compare(VectorOperators.NE, 0L).cast(SPECIES);
+        VectorMask<Double> negate = n.and(2L).compare(VectorOperators.NE, 0L).cast(SPECIES);
+        DoubleVector sinX = s.blend(c, swap).lanewise(VectorOperators.NEG, negate);
+        DoubleVector cosX = c.blend(s.neg(), swap).lanewise(VectorOperators.NEG, negate);
+
+        switch (funcIndex)
+        {
+            case SINCOS:
+                sinX.intoArray(out, at);
+                cosX.intoArray(cosOut, at);
+                break;
+            case 0:  sinX.intoArray(out, at); break;
+            case 1:  cosX.intoArray(out, at); break;
+            case 2:  sinX.div(cosX).intoArray(out, at); break;
+            case 3:  DoubleVector.broadcast(SPECIES, 1.0).div(sinX).intoArray(out, at); break;
+            case 4:  DoubleVector.broadcast(SPECIES, 1.0).div(cosX).intoArray(out, at); break;
+            default: cosX.div(sinX).intoArray(out, at); break;
+        }
+    }
+
+    /** TrigKernels.sinPoly on every lane (a zero hi keeps its sign without the scalar's special case) */
+    private static DoubleVector sinPoly(DoubleVector hi, DoubleVector lo)
+    {
+        DoubleVector z = hi.mul(hi);
+        DoubleVector v = z.mul(hi);
+        DoubleVector ps = z.mul(TrigKernels.S6).add(TrigKernels.S5)
+                           .mul(z).add(TrigKernels.S4)
+                           .mul(z).add(TrigKernels.S3)
+                           .mul(z).add(TrigKernels.S2);
+        // hi - ((z (lo/2 - v ps) - lo) - v S1)
+        return hi.sub(z.mul(lo.mul(0.5).sub(v.mul(ps))).sub(lo).sub(v.mul(TrigKernels.S1)));
+    }
+
+    /** TrigKernels.cosPoly on every lane */
+    private static DoubleVector cosPoly(DoubleVector hi, DoubleVector lo)
+    {
+        DoubleVector z = hi.mul(hi);
+        DoubleVector pc = z.mul(TrigKernels.C6).add(TrigKernels.C5)
+                           .mul(z).add(TrigKernels.C4)
+                           .mul(z).add(TrigKernels.C3)
+                           .mul(z).add(TrigKernels.C2)
+                           .mul(z).add(TrigKernels.C1)
+                           .mul(z);
+        DoubleVector hz = z.mul(0.5);
+        DoubleVector one = DoubleVector.broadcast(SPECIES, 1.0).sub(hz);
+        // one + (((1 - one) - hz) + (z pc - hi lo))
+        return one.add(DoubleVector.broadcast(SPECIES, 1.0).sub(one).sub(hz).add(z.mul(pc).sub(hi.mul(lo))));
+    }
+}